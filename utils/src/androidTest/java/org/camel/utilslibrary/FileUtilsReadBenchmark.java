@@ -0,0 +1,129 @@
+package org.camel.utilslibrary;
+
+import android.content.Context;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.camel.utilslibrary.interfaces.LineCallback;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Locale;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : FileUtils 文本读取耗时
+ *             在应用缓存目录生成约 39MB 的日志文件 (50 万行, 每行约 80 字符, "\n" 换行),
+ *             每种读取方式先预热一次, 再读取 {@link #ROUNDS} 次取最短和平均耗时, 结果输出到 logcat (TAG: FileUtilsReadBenchmark)
+ *
+ *             运行:
+ *             ./gradlew :utils:connectedDebugAndroidTest
+ *                     -Pandroid.testInstrumentationRunnerArguments.class=org.camel.utilslibrary.FileUtilsReadBenchmark
+ * </pre>
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class FileUtilsReadBenchmark {
+
+    private static final String TAG = "FileUtilsReadBenchmark";
+    private static final int LINES = 500000;
+    private static final int ROUNDS = 5;
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        Utils.init(context);
+        mFile = new File(context.getCacheDir(), "benchmark.log");
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mFile), "UTF-8"));
+        try {
+            for (int i = 0; i < LINES; i++) {
+                writer.write(String.format(Locale.US,
+                        "2026-10-18 12:%02d:%02d.%03d I/Benchmark( %5d): line %7d 日志内容 lorem ipsum dolor",
+                        i / 60000 % 60, i / 1000 % 60, i % 1000, i % 32768, i));
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        Log.i(TAG, String.format(Locale.US, "device: %s %s, API %d, file: %.1f MB",
+                Build.MANUFACTURER, Build.MODEL, Build.VERSION.SDK_INT, mFile.length() / 1024d / 1024d));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mFile.delete();
+    }
+
+    @Test
+    public void readFile() throws Exception {
+        measure("readFile", new Runnable() {
+            @Override
+            public void run() {
+                Assert.assertNotNull(FileUtils.readFile(mFile));
+            }
+        });
+    }
+
+    @Test
+    public void readText() throws Exception {
+        measure("readText", new Runnable() {
+            @Override
+            public void run() {
+                Assert.assertNotNull(FileUtils.readText(mFile));
+            }
+        });
+        measure("readText mapped", new Runnable() {
+            @Override
+            public void run() {
+                Assert.assertNotNull(FileUtils.readText(mFile, "UTF-8", true));
+            }
+        });
+    }
+
+    @Test
+    public void readLines() throws Exception {
+        measure("readLines", new Runnable() {
+            @Override
+            public void run() {
+                long lines = FileUtils.readLines(mFile, "UTF-8", new LineCallback() {
+                    @Override
+                    public boolean onLine(String line) {
+                        return true;
+                    }
+                });
+                Assert.assertEquals(LINES, lines);
+            }
+        });
+    }
+
+    private static void measure(String name, Runnable task) {
+        task.run();
+        long min = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            System.gc();
+            long start = System.nanoTime();
+            task.run();
+            long elapsed = System.nanoTime() - start;
+            min = Math.min(min, elapsed);
+            total += elapsed;
+        }
+        Log.i(TAG, String.format(Locale.US, "%s: min %.1f ms, avg %.1f ms",
+                name, min / 1e6, total / 1e6 / ROUNDS));
+    }
+}
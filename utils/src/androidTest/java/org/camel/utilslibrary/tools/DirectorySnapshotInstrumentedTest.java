@@ -0,0 +1,107 @@
+package org.camel.utilslibrary.tools;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.camel.utilslibrary.module.SnapshotDiff;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DirectorySnapshotInstrumentedTest {
+
+    private File mDir;
+    private File mRoot;
+
+    @Before
+    public void setUp() throws Exception {
+        mDir = new File(InstrumentationRegistry.getTargetContext().getCacheDir(), "snapshot-test");
+        delete(mDir);
+        mRoot = new File(mDir, "root");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(mDir);
+    }
+
+    @Test
+    public void loadThenWatch() throws Exception {
+        write("a/keep", "keep");
+        write("a/changed", "old");
+        write("b/removed", "removed");
+        File index = new File(mDir, "index");
+        DirectorySnapshot.scan(mRoot).save(index);
+
+        // 进程未运行期间的变化
+        write("a/changed", "new content");
+        new File(mRoot, "a/changed").setLastModified(1000000000000L);
+        assertTrue(new File(mRoot, "b/removed").delete());
+        write("c/added", "added");
+
+        DirectorySnapshot snapshot = DirectorySnapshot.load(index, mRoot);
+        assertEquals(3, snapshot.getFileCount());
+        snapshot.startWatching();
+        try {
+            SnapshotDiff diff = snapshot.update();
+            assertEquals(Collections.singletonList("c/added"), diff.getAdded());
+            assertEquals(Collections.singletonList("b/removed"), diff.getRemoved());
+            assertEquals(Collections.singletonList("a/changed"), diff.getModified());
+            assertEquals(Arrays.asList("a/changed", "a/keep", "c/added"), snapshot.getPaths());
+            assertTrue(snapshot.update().isEmpty());
+        } finally {
+            snapshot.stopWatching();
+        }
+    }
+
+    @Test
+    public void watchMissingRoot() throws Exception {
+        DirectorySnapshot snapshot = DirectorySnapshot.scan(mRoot);
+        snapshot.startWatching();
+        try {
+            assertTrue(snapshot.update().isEmpty());
+            // 根目录创建后仍能更新, 不会因为没有注册监听而一直为空
+            write("a/file", "file");
+            SnapshotDiff diff = snapshot.update();
+            assertEquals(Collections.singletonList("a/file"), diff.getAdded());
+            assertTrue(snapshot.isWatching());
+        } finally {
+            snapshot.stopWatching();
+        }
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(mRoot, path);
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,103 @@
+package org.camel.utilslibrary.tools;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TiledBitmapDecoderInstrumentedTest {
+
+    private static final int SRC_WIDTH = 800;
+    private static final int SRC_HEIGHT = 3200;
+    // 以下目标大小的 inSampleSize 均为 4
+    private static final int SAMPLE_SIZE = 4;
+    // 每个条带 40 行 (采样后), 扣除边缘后约 20 多个条带
+    private static final int STRIP_SIZE = SRC_WIDTH / SAMPLE_SIZE * 4 * 40;
+    private static final int TOLERANCE = 12;
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = new File(InstrumentationRegistry.getTargetContext().getCacheDir(), "tiled-decoder.png");
+        // 水平和垂直方向都有周期较短的条纹, 条带错位或残留旧像素时差异明显
+        int[] pixels = new int[SRC_WIDTH * SRC_HEIGHT];
+        for (int y = 0; y < SRC_HEIGHT; y++) {
+            int g = wave(y, 40);
+            for (int x = 0; x < SRC_WIDTH; x++) {
+                pixels[y * SRC_WIDTH + x] = Color.rgb(x * 255 / SRC_WIDTH, g, wave(x, 24));
+            }
+        }
+        Bitmap bitmap = Bitmap.createBitmap(pixels, SRC_WIDTH, SRC_HEIGHT, Bitmap.Config.ARGB_8888);
+        FileOutputStream out = new FileOutputStream(mFile);
+        try {
+            assertTrue(bitmap.compress(Bitmap.CompressFormat.PNG, 100, out));
+        } finally {
+            out.close();
+            bitmap.recycle();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mFile.delete();
+    }
+
+    @Test
+    public void stripsMatchFullDecode() throws Exception {
+        check(200, 800);
+        check(180, 700);
+        check(150, 613);
+    }
+
+    private void check(int width, int height) {
+        Bitmap tiled = new TiledBitmapDecoder().setStripSize(STRIP_SIZE).decode(mFile, width, height);
+        assertNotNull(tiled);
+        assertEquals(width, tiled.getWidth());
+        assertEquals(height, tiled.getHeight());
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = SAMPLE_SIZE;
+        Bitmap full = BitmapFactory.decodeFile(mFile.getPath(), options);
+        Bitmap expected = Bitmap.createScaledBitmap(full, width, height, true);
+
+        int[] actualPixels = new int[width * height];
+        int[] expectedPixels = new int[width * height];
+        tiled.getPixels(actualPixels, 0, width, 0, 0, width, height);
+        expected.getPixels(expectedPixels, 0, width, 0, 0, width, height);
+        for (int i = 0; i < actualPixels.length; i++) {
+            int a = actualPixels[i];
+            int e = expectedPixels[i];
+            int diff = Math.max(Math.abs(Color.red(a) - Color.red(e)),
+                    Math.max(Math.abs(Color.green(a) - Color.green(e)), Math.abs(Color.blue(a) - Color.blue(e))));
+            if (diff > TOLERANCE) {
+                throw new AssertionError(width + "x" + height + " pixel (" + i % width + ", " + i / width
+                        + ") differs by " + diff);
+            }
+        }
+        tiled.recycle();
+        if (expected != full) expected.recycle();
+        full.recycle();
+    }
+
+    private static int wave(int position, int period) {
+        return (int) Math.round(127.5 + 127.5 * Math.sin(2 * Math.PI * position / period));
+    }
+}
@@ -19,15 +19,16 @@ import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.media.ExifInterface;
 import android.os.Build;
-import android.renderscript.Allocation;
-import android.renderscript.Element;
-import android.renderscript.RenderScript;
-import android.renderscript.ScriptIntrinsicBlur;
 import android.support.annotation.FloatRange;
 import android.view.View;
 
+import org.camel.utilslibrary.tools.BitmapPool;
+import org.camel.utilslibrary.tools.QualityEncoder;
+import org.camel.utilslibrary.tools.RenderScriptBlur;
+import org.camel.utilslibrary.tools.StackBlur;
+import org.camel.utilslibrary.tools.TiledBitmapDecoder;
+
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -50,6 +51,9 @@ import java.io.InputStream;
  */
 public class BitmapUtils {
 
+    private static final StackBlur STACK_BLUR = new StackBlur();
+    private static RenderScriptBlur sRenderScriptBlur;
+
     private BitmapUtils() {
     }
 
@@ -113,11 +117,27 @@ public class BitmapUtils {
      * @return Bitmap 对象
      */
     public static Bitmap getBitmap(byte[] bytes, int offset, int length, int reqWidth, int reqHeight) {
+        return getBitmap(bytes, offset, length, reqWidth, reqHeight, null);
+    }
+
+    /**
+     * byte数组 转 Bitmap, 优先复用缓存池中的 Bitmap
+     *
+     * @param bytes     byte 数组
+     * @param offset    image 从 byte 数组创建的起始位置
+     * @param length    从 offset 处开始的长度
+     * @param reqWidth  目标宽度
+     * @param reqHeight 目标高度
+     * @param pool      Bitmap 缓存池, 为 null 时不复用
+     * @return 可变的 Bitmap 对象, 不再使用时通过 {@link #release(Bitmap, BitmapPool)} 放回缓存池
+     */
+    public static Bitmap getBitmap(byte[] bytes, int offset, int length, int reqWidth, int reqHeight, BitmapPool pool) {
+        if (bytes == null || length <= 0) return null;
         BitmapFactory.Options options = new BitmapFactory.Options();
         options.inJustDecodeBounds = true;
         BitmapFactory.decodeByteArray(bytes, offset, length, options);
         options = calculateInSampleSize(options, reqWidth, reqHeight);
-        return BitmapFactory.decodeByteArray(bytes, offset, length, options);
+        return decode(null, bytes, offset, length, options, pool);
     }
 
     /**
@@ -178,30 +198,29 @@ public class BitmapUtils {
      * @return Bitmap 对象
      */
     public static Bitmap getBitmap(File file, int maxWidth, int maxHeight) {
+        return getBitmap(file, maxWidth, maxHeight, null);
+    }
+
+    /**
+     * 给定最长宽和最长高, 读取图片文件生成 Bitmap, 优先复用缓存池中的 Bitmap
+     *
+     * @param file      图片文件
+     * @param maxWidth  最长宽
+     * @param maxHeight 最长高
+     * @param pool      Bitmap 缓存池, 为 null 时不复用
+     * @return 可变的 Bitmap 对象, 不再使用时通过 {@link #release(Bitmap, BitmapPool)} 放回缓存池
+     */
+    public static Bitmap getBitmap(File file, int maxWidth, int maxHeight, BitmapPool pool) {
         if (file == null || !file.exists() || !file.isFile())
             return null;
 
-        InputStream is = null;
-        try {
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            is = new BufferedInputStream(new FileInputStream(file));
-            BitmapFactory.decodeStream(is, null, options);
-            options.inSampleSize = computeSampleSize(options, maxWidth, maxHeight);
-            options.inJustDecodeBounds = false;
-            return BitmapFactory.decodeStream(is, null, options);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            return null;
-        } finally {
-            if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+        options.inSampleSize = computeSampleSize(options, maxWidth, maxHeight);
+        options.inJustDecodeBounds = false;
+        return decode(file.getPath(), null, 0, 0, options, pool);
     }
 
     /**
@@ -272,43 +291,9 @@ public class BitmapUtils {
      */
     public static byte[] toBytes(Bitmap bitmap, Bitmap.CompressFormat format, int maxSize) {
         if (bitmap == null) return null;
-        int quality = 100;
-        int decrease;
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        bitmap.compress(format, quality, baos);
-
-        int length = baos.toByteArray().length;
-        long percent = maxSize * 100L / length;
-        if (percent >= 90) {
-            decrease = 1;
-        } else if (percent >= 70) {
-            decrease = 2;
-        } else if (percent >= 50) {
-            decrease = 5;
-        } else if (percent >= 10) {
-            decrease = 10;
-        } else {
-            quality = 60;
-            decrease = 10;
-        }
-        while (length > maxSize) {
-            quality = Math.max(0, quality - decrease);
-            baos.reset();
-            bitmap.compress(format, quality, baos);
-
-            if (quality == 0) break;
-
-            int newLength = baos.toByteArray().length;
-            long compressPercent = newLength * 100L / length;
-            if (compressPercent >= 99 || quality < 50) {
-                quality = Math.max(quality, 40);
-                decrease = 20;
-            } else if (compressPercent > 95 || quality < 80) {
-                decrease = decrease >= 10 ? 20 : 10;
-            }
-            length = newLength;
-        }
-        return baos.toByteArray();
+        QualityEncoder encoder = new QualityEncoder();
+        if (encoder.encode(bitmap, format, maxSize) == -1) return null;
+        return encoder.toByteArray();
     }
 
     /**
@@ -350,6 +335,26 @@ public class BitmapUtils {
         return ret;
     }
 
+    /**
+     * 缩放图片, 结果绘制到缓存池中的 Bitmap
+     *
+     * @param src       源 Bitmap 对象
+     * @param newWidth  新的宽度
+     * @param newHeight 新的高度
+     * @param pool      Bitmap 缓存池, 为 null 时新建 Bitmap
+     * @param release   是否释放原 Bitmap 对象, 见 {@link #release(Bitmap, BitmapPool)}
+     * @return 缩放处理后的 Bitmap 对象, 不再使用时通过 {@link #release(Bitmap, BitmapPool)} 放回缓存池
+     */
+    public static Bitmap scale(Bitmap src, int newWidth, int newHeight, BitmapPool pool, boolean release) {
+        if (isEmptyBitmap(src) || newWidth <= 0 || newHeight <= 0) return null;
+        Matrix matrix = new Matrix();
+        matrix.setScale((float) newWidth / src.getWidth(), (float) newHeight / src.getHeight());
+        Bitmap ret = obtain(pool, newWidth, newHeight, src.getConfig());
+        drawBitmap(src, ret, matrix);
+        if (release) release(src, pool);
+        return ret;
+    }
+
     /**
      * 缩放图片
      *
@@ -380,6 +385,21 @@ public class BitmapUtils {
         return ret;
     }
 
+    /**
+     * 缩放图片, 结果绘制到缓存池中的 Bitmap
+     *
+     * @param src         源 Bitmap 对象
+     * @param scaleWidth  宽的缩放比例
+     * @param scaleHeight 高的缩放比例
+     * @param pool        Bitmap 缓存池, 为 null 时新建 Bitmap
+     * @param release     是否释放原 Bitmap 对象, 见 {@link #release(Bitmap, BitmapPool)}
+     * @return 缩放处理后的 Bitmap 对象, 不再使用时通过 {@link #release(Bitmap, BitmapPool)} 放回缓存池
+     */
+    public static Bitmap scale(Bitmap src, float scaleWidth, float scaleHeight, BitmapPool pool, boolean release) {
+        if (isEmptyBitmap(src)) return null;
+        return scale(src, Math.round(src.getWidth() * scaleWidth), Math.round(src.getHeight() * scaleHeight), pool, release);
+    }
+
 
     /**
      * 裁剪图片
@@ -413,6 +433,27 @@ public class BitmapUtils {
         return ret;
     }
 
+    /**
+     * 裁剪图片, 结果绘制到缓存池中的 Bitmap
+     *
+     * @param src     源 Bitmap 对象
+     * @param x       开始坐标x
+     * @param y       开始坐标y
+     * @param width   裁剪宽度
+     * @param height  裁剪高度
+     * @param pool    Bitmap 缓存池, 为 null 时新建 Bitmap
+     * @param release 是否释放原 Bitmap 对象, 见 {@link #release(Bitmap, BitmapPool)}
+     * @return 裁剪后的 Bitmap 对象, 不再使用时通过 {@link #release(Bitmap, BitmapPool)} 放回缓存池
+     */
+    public static Bitmap clip(Bitmap src, int x, int y, int width, int height, BitmapPool pool, boolean release) {
+        if (isEmptyBitmap(src) || width <= 0 || height <= 0) return null;
+        Bitmap ret = obtain(pool, width, height, src.getConfig());
+        Canvas canvas = new Canvas(ret);
+        canvas.drawBitmap(src, new Rect(x, y, x + width, y + height), new Rect(0, 0, width, height), null);
+        if (release) release(src, pool);
+        return ret;
+    }
+
     /**
      * 旋转图片
      *
@@ -446,6 +487,32 @@ public class BitmapUtils {
         return ret;
     }
 
+    /**
+     * 旋转图片, 结果绘制到缓存池中的 Bitmap
+     *
+     * @param src     源 Bitmap 对象
+     * @param degrees 旋转角度
+     * @param px      旋转点横坐标
+     * @param py      旋转点纵坐标
+     * @param pool    Bitmap 缓存池, 为 null 时新建 Bitmap
+     * @param release 是否释放原 Bitmap 对象, 见 {@link #release(Bitmap, BitmapPool)}
+     * @return 旋转后的 Bitmap 对象, 角度为 0 时返回原 Bitmap 对象
+     */
+    public static Bitmap rotate(Bitmap src, int degrees, float px, float py, BitmapPool pool, boolean release) {
+        if (isEmptyBitmap(src)) return null;
+        if (degrees == 0) return src;
+        Matrix matrix = new Matrix();
+        matrix.setRotate(degrees, px, py);
+        // 与 Bitmap.createBitmap 相同, 按旋转后的外接矩形确定大小
+        RectF bounds = new RectF(0, 0, src.getWidth(), src.getHeight());
+        matrix.mapRect(bounds);
+        matrix.postTranslate(-bounds.left, -bounds.top);
+        Bitmap ret = obtain(pool, Math.round(bounds.width()), Math.round(bounds.height()), src.getConfig());
+        drawBitmap(src, ret, matrix);
+        if (release) release(src, pool);
+        return ret;
+    }
+
 
     /**
      * 获取图片文件的旋转角度
@@ -606,6 +673,7 @@ public class BitmapUtils {
     /**
      * renderScript 模糊图片
      * <p>API大于17</p>
+     * <p>复用共享的 RenderScript 上下文和 Allocation, 见 {@link RenderScriptBlur}</p>
      *
      * @param src    源 Bitmap 对象
      * @param radius 模糊半径(0...25)
@@ -615,24 +683,34 @@ public class BitmapUtils {
     public static Bitmap renderScriptBlur(final Bitmap src,
                                           @FloatRange(from = 0, to = 25, fromInclusive = false) final float radius) {
         if (isEmptyBitmap(src)) return null;
-        RenderScript rs = null;
-        try {
-            rs = RenderScript.create(ContextUtils.get());
-            rs.setMessageHandler(new RenderScript.RSMessageHandler());
-            Allocation input = Allocation.createFromBitmap(rs, src, Allocation.MipmapControl.MIPMAP_NONE, Allocation
-                    .USAGE_SCRIPT);
-            Allocation output = Allocation.createTyped(rs, input.getType());
-            ScriptIntrinsicBlur blurScript = ScriptIntrinsicBlur.create(rs, Element.U8_4(rs));
-            blurScript.setInput(input);
-            blurScript.setRadius(radius);
-            blurScript.forEach(output);
-            output.copyTo(src);
-        } finally {
-            if (rs != null) {
-                rs.destroy();
-            }
+        if (getRenderScriptBlur().blur(src, radius)) return src;
+        // 不支持的 Bitmap (不可变或非 ARGB_8888) 或 RenderScript 出错时改用 stack 模糊
+        return stackBlur(src, Math.max(1, Math.round(radius)), src.isMutable());
+    }
+
+    /**
+     * 获取共享的 RenderScript 模糊引擎, 首次调用时创建并注册内存回调
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private static synchronized RenderScriptBlur getRenderScriptBlur() {
+        if (sRenderScriptBlur == null) {
+            sRenderScriptBlur = new RenderScriptBlur(ContextUtils.get());
+            sRenderScriptBlur.register();
+        }
+        return sRenderScriptBlur;
+    }
+
+    /**
+     * 释放模糊复用的内存, 包括 stack 模糊的像素数组和 RenderScript 模糊的 Allocation
+     * <p>可在 {@link android.content.ComponentCallbacks2#onTrimMemory} 中调用</p>
+     */
+    public static void trimBlurMemory() {
+        STACK_BLUR.trimMemory();
+        RenderScriptBlur blur;
+        synchronized (BitmapUtils.class) {
+            blur = sRenderScriptBlur;
         }
-        return src;
+        if (blur != null) blur.trimMemory();
     }
 
     /**
@@ -644,206 +722,15 @@ public class BitmapUtils {
      * @return 模糊后的图片
      */
     public static Bitmap stackBlur(final Bitmap src, final int radius, final boolean recycle) {
+        if (isEmptyBitmap(src) || radius < 1) return null;
         Bitmap ret;
-        if (recycle) {
+        if (recycle && src.isMutable()) {
             ret = src;
         } else {
             ret = src.copy(src.getConfig(), true);
+            if (recycle && !src.isRecycled()) src.recycle();
         }
-
-        if (radius < 1) {
-            return null;
-        }
-
-        int w = ret.getWidth();
-        int h = ret.getHeight();
-
-        int[] pix = new int[w * h];
-        ret.getPixels(pix, 0, w, 0, 0, w, h);
-
-        int wm = w - 1;
-        int hm = h - 1;
-        int wh = w * h;
-        int div = radius + radius + 1;
-
-        int r[] = new int[wh];
-        int g[] = new int[wh];
-        int b[] = new int[wh];
-        int rsum, gsum, bsum, x, y, i, p, yp, yi, yw;
-        int vmin[] = new int[Math.max(w, h)];
-
-        int divsum = (div + 1) >> 1;
-        divsum *= divsum;
-        int dv[] = new int[256 * divsum];
-        for (i = 0; i < 256 * divsum; i++) {
-            dv[i] = (i / divsum);
-        }
-
-        yw = yi = 0;
-
-        int[][] stack = new int[div][3];
-        int stackpointer;
-        int stackstart;
-        int[] sir;
-        int rbs;
-        int r1 = radius + 1;
-        int routsum, goutsum, boutsum;
-        int rinsum, ginsum, binsum;
-
-        for (y = 0; y < h; y++) {
-            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
-            for (i = -radius; i <= radius; i++) {
-                p = pix[yi + Math.min(wm, Math.max(i, 0))];
-                sir = stack[i + radius];
-                sir[0] = (p & 0xff0000) >> 16;
-                sir[1] = (p & 0x00ff00) >> 8;
-                sir[2] = (p & 0x0000ff);
-                rbs = r1 - Math.abs(i);
-                rsum += sir[0] * rbs;
-                gsum += sir[1] * rbs;
-                bsum += sir[2] * rbs;
-                if (i > 0) {
-                    rinsum += sir[0];
-                    ginsum += sir[1];
-                    binsum += sir[2];
-                } else {
-                    routsum += sir[0];
-                    goutsum += sir[1];
-                    boutsum += sir[2];
-                }
-            }
-            stackpointer = radius;
-
-            for (x = 0; x < w; x++) {
-
-                r[yi] = dv[rsum];
-                g[yi] = dv[gsum];
-                b[yi] = dv[bsum];
-
-                rsum -= routsum;
-                gsum -= goutsum;
-                bsum -= boutsum;
-
-                stackstart = stackpointer - radius + div;
-                sir = stack[stackstart % div];
-
-                routsum -= sir[0];
-                goutsum -= sir[1];
-                boutsum -= sir[2];
-
-                if (y == 0) {
-                    vmin[x] = Math.min(x + radius + 1, wm);
-                }
-                p = pix[yw + vmin[x]];
-
-                sir[0] = (p & 0xff0000) >> 16;
-                sir[1] = (p & 0x00ff00) >> 8;
-                sir[2] = (p & 0x0000ff);
-
-                rinsum += sir[0];
-                ginsum += sir[1];
-                binsum += sir[2];
-
-                rsum += rinsum;
-                gsum += ginsum;
-                bsum += binsum;
-
-                stackpointer = (stackpointer + 1) % div;
-                sir = stack[(stackpointer) % div];
-
-                routsum += sir[0];
-                goutsum += sir[1];
-                boutsum += sir[2];
-
-                rinsum -= sir[0];
-                ginsum -= sir[1];
-                binsum -= sir[2];
-
-                yi++;
-            }
-            yw += w;
-        }
-        for (x = 0; x < w; x++) {
-            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
-            yp = -radius * w;
-            for (i = -radius; i <= radius; i++) {
-                yi = Math.max(0, yp) + x;
-
-                sir = stack[i + radius];
-
-                sir[0] = r[yi];
-                sir[1] = g[yi];
-                sir[2] = b[yi];
-
-                rbs = r1 - Math.abs(i);
-
-                rsum += r[yi] * rbs;
-                gsum += g[yi] * rbs;
-                bsum += b[yi] * rbs;
-
-                if (i > 0) {
-                    rinsum += sir[0];
-                    ginsum += sir[1];
-                    binsum += sir[2];
-                } else {
-                    routsum += sir[0];
-                    goutsum += sir[1];
-                    boutsum += sir[2];
-                }
-
-                if (i < hm) {
-                    yp += w;
-                }
-            }
-            yi = x;
-            stackpointer = radius;
-            for (y = 0; y < h; y++) {
-                // Preserve alpha channel: ( 0xff000000 & pix[yi] )
-                pix[yi] = (0xff000000 & pix[yi]) | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
-
-                rsum -= routsum;
-                gsum -= goutsum;
-                bsum -= boutsum;
-
-                stackstart = stackpointer - radius + div;
-                sir = stack[stackstart % div];
-
-                routsum -= sir[0];
-                goutsum -= sir[1];
-                boutsum -= sir[2];
-
-                if (x == 0) {
-                    vmin[y] = Math.min(y + r1, hm) * w;
-                }
-                p = x + vmin[y];
-
-                sir[0] = r[p];
-                sir[1] = g[p];
-                sir[2] = b[p];
-
-                rinsum += sir[0];
-                ginsum += sir[1];
-                binsum += sir[2];
-
-                rsum += rinsum;
-                gsum += ginsum;
-                bsum += binsum;
-
-                stackpointer = (stackpointer + 1) % div;
-                sir = stack[stackpointer];
-
-                routsum += sir[0];
-                goutsum += sir[1];
-                boutsum += sir[2];
-
-                rinsum -= sir[0];
-                ginsum -= sir[1];
-                binsum -= sir[2];
-
-                yi += w;
-            }
-        }
-        ret.setPixels(pix, 0, w, 0, 0, w, h);
+        STACK_BLUR.blur(ret, radius);
         return ret;
     }
 
@@ -1062,21 +949,17 @@ public class BitmapUtils {
                 actualOutHeight = maxHeight;
             }
         }
-        options.inSampleSize = computeSampleSize(options, actualOutWidth, actualOutHeight);
-        options.inJustDecodeBounds = false;
-        Bitmap scaledBitmap = null;
+        // 分段解码并直接缩放到最终输出的大小, 避免同时存在两张接近原图大小的bitmap
+        Bitmap actualOutBitmap = null;
         try {
-            scaledBitmap = BitmapFactory.decodeFile(input.getAbsolutePath(), options);
+            actualOutBitmap = new TiledBitmapDecoder()
+                    .decode(input, Math.max(1, (int) actualOutWidth), Math.max(1, (int) actualOutHeight));
         } catch (OutOfMemoryError e) {
             e.printStackTrace();
         }
-        if (scaledBitmap == null) {
+        if (actualOutBitmap == null) {
             return false;
         }
-        // 生成最终输出的bitmap
-        Bitmap actualOutBitmap = Bitmap.createScaledBitmap(scaledBitmap, (int) actualOutWidth, (int) actualOutHeight, true);
-        if (actualOutBitmap != scaledBitmap)
-            scaledBitmap.recycle();
         return saveBitmap(actualOutBitmap, output, maxFileSize, true);
     }
 
@@ -1163,39 +1046,85 @@ public class BitmapUtils {
     public static boolean saveBitmap(Bitmap bitmap, File output, int maxFileSize, boolean recycle) {
         Bitmap.CompressFormat format = Bitmap.CompressFormat.JPEG;
         if (output.getPath().endsWith(".png")) format = Bitmap.CompressFormat.PNG;
-        // 进行有损压缩
-        int quality = 100;
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        bitmap.compress(format, quality, baos);
-
-        while (baos.toByteArray().length / 1024 > maxFileSize) { // 循环判断如果压缩后图片是否大于maxMemmorrySize,大于继续压缩
-            baos.reset(); // 重置baos即让下一次的写入覆盖之前的内容
-            quality = Math.max(0, quality - 10);//图片质量每次减少10
-            bitmap.compress(format, quality, baos); // 将压缩后的图片保存到baos中
-            if (quality == 0) // 如果图片的质量已降到最低则，不再进行压缩
-                break;
-        }
+        // 进行有损压缩, 选择文件大小 (KB, 向下取整) 不超过 maxFileSize 的最高质量
+        QualityEncoder encoder = new QualityEncoder();
+        int quality = encoder.encode(bitmap, format, maxFileSize * 1024L + 1023);
         if (recycle) {
             bitmap.recycle();
         }
+        if (quality == -1) return false;
 
         // 将bitmap保存到指定路径
         FileOutputStream fos = null;
         try {
             FileUtils.makeParentDirs(output);
             fos = new FileOutputStream(output);
-            // 包装缓冲流,提高写入速度
-            BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fos);
-            bufferedOutputStream.write(baos.toByteArray());
-            bufferedOutputStream.flush();
+            encoder.writeTo(fos);
         } catch (Exception e) {
             return false;
         } finally {
-            IOUtils.close(baos, fos);
+            IOUtils.close(fos);
         }
         return true;
     }
 
+    /**
+     * 释放不再使用的 Bitmap, 代替 {@link Bitmap#recycle()}
+     *
+     * @param bitmap Bitmap 对象
+     * @param pool   Bitmap 缓存池, 为 null 时直接回收
+     */
+    public static void release(Bitmap bitmap, BitmapPool pool) {
+        if (bitmap == null || bitmap.isRecycled()) return;
+        if (pool != null) {
+            pool.put(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * 解码文件或 byte 数组, 结果为可变的 Bitmap, 缓存池不为 null 时通过 inBitmap 复用
+     */
+    private static Bitmap decode(String path, byte[] bytes, int offset, int length,
+                                 BitmapFactory.Options options, BitmapPool pool) {
+        // 不复用时同样解码为可变的 Bitmap, 与复用时的结果一致, 之后可以放回缓存池
+        options.inMutable = true;
+        if (pool == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB || !pool.setInBitmap(options))
+            return decode(path, bytes, offset, length, options);
+        Bitmap candidate = options.inBitmap;
+        Bitmap ret;
+        try {
+            ret = decode(path, bytes, offset, length, options);
+        } catch (IllegalArgumentException e) {
+            ret = null;
+        }
+        if (ret == candidate) return ret;
+        // 复用的 Bitmap 不满足解码要求 (decodeFile 内部捕获异常后返回 null), 放回缓存池后重新解码
+        pool.put(candidate);
+        if (ret != null) return ret;
+        options.inBitmap = null;
+        return decode(path, bytes, offset, length, options);
+    }
+
+    private static Bitmap decode(String path, byte[] bytes, int offset, int length, BitmapFactory.Options options) {
+        return path != null ? BitmapFactory.decodeFile(path, options)
+                : BitmapFactory.decodeByteArray(bytes, offset, length, options);
+    }
+
+    /**
+     * 从缓存池获取 Bitmap, 缓存池为 null 时新建
+     */
+    private static Bitmap obtain(BitmapPool pool, int width, int height, Bitmap.Config config) {
+        if (pool != null) return pool.get(width, height, config);
+        return Bitmap.createBitmap(width, height, config == null ? Bitmap.Config.ARGB_8888 : config);
+    }
+
+    private static void drawBitmap(Bitmap src, Bitmap dest, Matrix matrix) {
+        Canvas canvas = new Canvas(dest);
+        canvas.drawBitmap(src, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+    }
+
     private static int computeSampleSize(BitmapFactory.Options options, float reqWidth, float reqHeight) {
         float srcWidth = options.outWidth;
         float srcHeight = options.outHeight;
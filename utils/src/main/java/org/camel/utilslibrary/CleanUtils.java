@@ -2,6 +2,9 @@ package org.camel.utilslibrary;
 
 import android.os.Environment;
 
+import org.camel.utilslibrary.tools.CacheTrimmer;
+import org.camel.utilslibrary.tools.DirectoryWalker;
+
 import java.io.File;
 
 /**
@@ -101,6 +104,33 @@ public final class CleanUtils {
         return deleteFilesInDir(dir);
     }
 
+    /**
+     * 按容量裁剪内部缓存, 最久未修改的文件优先删除
+     * <p>/data/data/com.xxx.xxx/cache</p>
+     *
+     * @param maxSize 大小上限, 单位: B
+     * @return 裁剪结果
+     */
+    public static CacheTrimmer.Report trimInternalCache(final long maxSize) {
+        return trimCustomCache(ContextUtils.getCacheDir(), maxSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 按容量裁剪自定义目录, 最久未修改的文件优先删除
+     * <p>需要持续维护或定时裁剪时请直接使用 {@link CacheTrimmer}</p>
+     *
+     * @param dir      目录
+     * @param maxSize  大小上限, 单位: B
+     * @param maxCount 文件数上限
+     * @return 裁剪结果
+     */
+    public static CacheTrimmer.Report trimCustomCache(final File dir, final long maxSize, final int maxCount) {
+        return new CacheTrimmer(dir)
+                .setMaxSize(maxSize)
+                .setMaxCount(maxCount)
+                .trim();
+    }
+
     public static boolean deleteFilesInDir(final String dirPath) {
         return deleteFilesInDir(getFileByPath(dirPath));
     }
@@ -111,38 +141,8 @@ public final class CleanUtils {
         if (!dir.exists()) return true;
         // 不是目录返回false
         if (!dir.isDirectory()) return false;
-        // 现在文件存在且是文件夹
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    if (!file.delete()) return false;
-                } else if (file.isDirectory()) {
-                    if (!deleteDir(file)) return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    private static boolean deleteDir(final File dir) {
-        if (dir == null) return false;
-        // 目录不存在返回true
-        if (!dir.exists()) return true;
-        // 不是目录返回false
-        if (!dir.isDirectory()) return false;
-        // 现在文件存在且是文件夹
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    if (!file.delete()) return false;
-                } else if (file.isDirectory()) {
-                    if (!deleteDir(file)) return false;
-                }
-            }
-        }
-        return dir.delete();
+        // 现在文件存在且是文件夹, 并行删除其中的文件和子目录
+        return new DirectoryWalker().delete(dir, false).isSuccess();
     }
 
     private static File getFileByPath(final String filePath) {
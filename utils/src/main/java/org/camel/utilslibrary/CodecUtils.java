@@ -0,0 +1,472 @@
+package org.camel.utilslibrary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 工具类: 16进制及 Base64 编解码相关
+ *             API  : 编码到调用方提供的 char[] / byte[] / ByteBuffer / 查表解码 / Base64 流式编解码 等
+ *
+ *             注: 1.编码结果均为 16 进制大写, Base64 为不换行带填充的格式 (同 android.util.Base64.NO_WRAP)
+ *                 2.解码同时接受大小写及 Base64 的 URL 安全字符, 输入非法时返回 null 或 -1, 不抛出异常
+ * </pre>
+ */
+public final class CodecUtils {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] HEX_DIGIT_BYTES = "0123456789ABCDEF".getBytes();
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    private static final byte[] BASE64_URL_SAFE_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    private static final byte[] BASE64_VALUES = new byte[128];
+    private static final byte BASE64_PAD = '=';
+    private static final int STREAM_BUFFER_SIZE = 3 * 4 * 1024;
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+        }
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        for (int i = 0; i < 64; i++) {
+            BASE64_VALUES[BASE64_ALPHABET[i]] = (byte) i;
+            BASE64_VALUES[BASE64_URL_SAFE_ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private CodecUtils() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 16进制相关
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 字节数组转16进制字符串
+     *
+     * @param bytes 字节数组
+     * @return 16进制字符串, bytes 为 null 时返回 null
+     */
+    public static String bytes2HexString(final byte[] bytes) {
+        if (bytes == null) return null;
+        char[] chars = new char[bytes.length << 1];
+        encodeHex(bytes, 0, bytes.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 16进制编码到指定字符数组
+     *
+     * @param src        源数据
+     * @param srcOffset  源数据起始位置
+     * @param length     源数据长度
+     * @param dest       目标字符数组, 剩余空间不小于 length * 2
+     * @param destOffset 目标起始位置
+     * @return 写入的字符数
+     */
+    public static int encodeHex(final byte[] src, final int srcOffset, final int length,
+                                final char[] dest, final int destOffset) {
+        for (int i = srcOffset, end = srcOffset + length, j = destOffset; i < end; i++) {
+            int v = src[i];
+            dest[j++] = HEX_DIGITS[v >>> 4 & 0x0f];
+            dest[j++] = HEX_DIGITS[v & 0x0f];
+        }
+        return length << 1;
+    }
+
+    /**
+     * 16进制编码到指定字节数组, 每个字符以 ASCII 字节写入
+     *
+     * @param src        源数据
+     * @param srcOffset  源数据起始位置
+     * @param length     源数据长度
+     * @param dest       目标字节数组, 剩余空间不小于 length * 2
+     * @param destOffset 目标起始位置
+     * @return 写入的字节数
+     */
+    public static int encodeHex(final byte[] src, final int srcOffset, final int length,
+                                final byte[] dest, final int destOffset) {
+        for (int i = srcOffset, end = srcOffset + length, j = destOffset; i < end; i++) {
+            int v = src[i];
+            dest[j++] = HEX_DIGIT_BYTES[v >>> 4 & 0x0f];
+            dest[j++] = HEX_DIGIT_BYTES[v & 0x0f];
+        }
+        return length << 1;
+    }
+
+    /**
+     * 将 src 剩余的数据16进制编码后写入 dest, 每个字符以 ASCII 字节写入
+     *
+     * @param src  源数据
+     * @param dest 目标缓冲区, 剩余空间不小于 src.remaining() * 2
+     * @return 写入的字节数
+     */
+    public static int encodeHex(final ByteBuffer src, final ByteBuffer dest) {
+        int length = src.remaining();
+        if (src.hasArray() && dest.hasArray()) {
+            int written = encodeHex(src.array(), src.arrayOffset() + src.position(), length,
+                    dest.array(), dest.arrayOffset() + dest.position());
+            src.position(src.limit());
+            dest.position(dest.position() + written);
+            return written;
+        }
+        while (src.hasRemaining()) {
+            int v = src.get();
+            dest.put(HEX_DIGIT_BYTES[v >>> 4 & 0x0f]);
+            dest.put(HEX_DIGIT_BYTES[v & 0x0f]);
+        }
+        return length << 1;
+    }
+
+    /**
+     * 16进制字符串转字节数组
+     * <p>大小写均可, 长度为奇数时在前面补 0</p>
+     *
+     * @param hex 16进制字符串
+     * @return 字节数组, 为空或包含非法字符时返回 null
+     */
+    public static byte[] hexString2Bytes(final CharSequence hex) {
+        if (hex == null || hex.length() == 0) return null;
+        int length = hex.length();
+        byte[] ret = new byte[(length + 1) >> 1];
+        return decodeHex(hex, 0, length, ret, 0) < 0 ? null : ret;
+    }
+
+    /**
+     * 16进制解码到指定字节数组
+     * <p>大小写均可, 长度为奇数时视为在前面补 0</p>
+     *
+     * @param hex        16进制字符
+     * @param offset     起始位置
+     * @param length     字符数
+     * @param dest       目标字节数组, 剩余空间不小于 (length + 1) / 2
+     * @param destOffset 目标起始位置
+     * @return 写入的字节数, 包含非法字符时返回 -1
+     */
+    public static int decodeHex(final CharSequence hex, final int offset, final int length,
+                                final byte[] dest, final int destOffset) {
+        int i = offset;
+        int end = offset + length;
+        int j = destOffset;
+        if ((length & 1) != 0) {
+            int low = hexValue(hex.charAt(i++));
+            if (low < 0) return -1;
+            dest[j++] = (byte) low;
+        }
+        while (i < end) {
+            int high = hexValue(hex.charAt(i++));
+            int low = hexValue(hex.charAt(i++));
+            if ((high | low) < 0) return -1;
+            dest[j++] = (byte) (high << 4 | low);
+        }
+        return j - destOffset;
+    }
+
+    private static int hexValue(final char c) {
+        return c < 128 ? HEX_VALUES[c] : -1;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Base64相关
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 计算 Base64 编码后的长度
+     *
+     * @param length 源数据长度
+     * @return 编码后的长度
+     */
+    public static int base64EncodedLength(final int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * Base64 编码到指定字节数组
+     *
+     * @param src        源数据
+     * @param srcOffset  源数据起始位置
+     * @param length     源数据长度
+     * @param dest       目标字节数组, 剩余空间不小于 {@link #base64EncodedLength(int)}
+     * @param destOffset 目标起始位置
+     * @param urlSafe    是否使用 URL 安全字符 (- 和 _)
+     * @return 写入的字节数
+     */
+    public static int base64Encode(final byte[] src, final int srcOffset, final int length,
+                                   final byte[] dest, final int destOffset, final boolean urlSafe) {
+        byte[] alphabet = urlSafe ? BASE64_URL_SAFE_ALPHABET : BASE64_ALPHABET;
+        int i = srcOffset;
+        int end = srcOffset + length;
+        int fullEnd = end - length % 3;
+        int j = destOffset;
+        while (i < fullEnd) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dest[j++] = alphabet[bits >>> 18 & 0x3f];
+            dest[j++] = alphabet[bits >>> 12 & 0x3f];
+            dest[j++] = alphabet[bits >>> 6 & 0x3f];
+            dest[j++] = alphabet[bits & 0x3f];
+        }
+        if (i < end) {
+            int bits = (src[i++] & 0xff) << 16;
+            boolean two = i < end;
+            if (two) bits |= (src[i] & 0xff) << 8;
+            dest[j++] = alphabet[bits >>> 18 & 0x3f];
+            dest[j++] = alphabet[bits >>> 12 & 0x3f];
+            dest[j++] = two ? alphabet[bits >>> 6 & 0x3f] : BASE64_PAD;
+            dest[j++] = BASE64_PAD;
+        }
+        return j - destOffset;
+    }
+
+    /**
+     * Base64 编码到指定字符数组
+     *
+     * @param src        源数据
+     * @param srcOffset  源数据起始位置
+     * @param length     源数据长度
+     * @param dest       目标字符数组, 剩余空间不小于 {@link #base64EncodedLength(int)}
+     * @param destOffset 目标起始位置
+     * @param urlSafe    是否使用 URL 安全字符 (- 和 _)
+     * @return 写入的字符数
+     */
+    public static int base64Encode(final byte[] src, final int srcOffset, final int length,
+                                   final char[] dest, final int destOffset, final boolean urlSafe) {
+        byte[] alphabet = urlSafe ? BASE64_URL_SAFE_ALPHABET : BASE64_ALPHABET;
+        int i = srcOffset;
+        int end = srcOffset + length;
+        int fullEnd = end - length % 3;
+        int j = destOffset;
+        while (i < fullEnd) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dest[j++] = (char) alphabet[bits >>> 18 & 0x3f];
+            dest[j++] = (char) alphabet[bits >>> 12 & 0x3f];
+            dest[j++] = (char) alphabet[bits >>> 6 & 0x3f];
+            dest[j++] = (char) alphabet[bits & 0x3f];
+        }
+        if (i < end) {
+            int bits = (src[i++] & 0xff) << 16;
+            boolean two = i < end;
+            if (two) bits |= (src[i] & 0xff) << 8;
+            dest[j++] = (char) alphabet[bits >>> 18 & 0x3f];
+            dest[j++] = (char) alphabet[bits >>> 12 & 0x3f];
+            dest[j++] = two ? (char) alphabet[bits >>> 6 & 0x3f] : (char) BASE64_PAD;
+            dest[j++] = (char) BASE64_PAD;
+        }
+        return j - destOffset;
+    }
+
+    /**
+     * 将 src 剩余的数据 Base64 编码后写入 dest
+     *
+     * @param src     源数据
+     * @param dest    目标缓冲区, 剩余空间不小于 {@link #base64EncodedLength(int)}
+     * @param urlSafe 是否使用 URL 安全字符 (- 和 _)
+     * @return 写入的字节数
+     */
+    public static int base64Encode(final ByteBuffer src, final ByteBuffer dest, final boolean urlSafe) {
+        int length = src.remaining();
+        int written;
+        if (src.hasArray() && dest.hasArray()) {
+            written = base64Encode(src.array(), src.arrayOffset() + src.position(), length,
+                    dest.array(), dest.arrayOffset() + dest.position(), urlSafe);
+            src.position(src.limit());
+            dest.position(dest.position() + written);
+            return written;
+        }
+        byte[] in = new byte[Math.min(length, STREAM_BUFFER_SIZE)];
+        byte[] out = new byte[base64EncodedLength(in.length)];
+        written = 0;
+        while (src.hasRemaining()) {
+            int n = Math.min(src.remaining(), in.length);
+            src.get(in, 0, n);
+            int m = base64Encode(in, 0, n, out, 0, urlSafe);
+            dest.put(out, 0, m);
+            written += m;
+        }
+        return written;
+    }
+
+    /**
+     * Base64 编码为字符串
+     *
+     * @param src     源数据
+     * @param urlSafe 是否使用 URL 安全字符 (- 和 _)
+     * @return Base64 字符串, src 为 null 时返回 null
+     */
+    public static String base64Encode2String(final byte[] src, final boolean urlSafe) {
+        if (src == null) return null;
+        char[] chars = new char[base64EncodedLength(src.length)];
+        base64Encode(src, 0, src.length, chars, 0, urlSafe);
+        return new String(chars);
+    }
+
+    /**
+     * 计算 Base64 解码后的最大长度
+     *
+     * @param length Base64 数据长度
+     * @return 解码后的最大长度
+     */
+    public static int base64DecodedMaxLength(final int length) {
+        return (length + 3) / 4 * 3;
+    }
+
+    /**
+     * Base64 解码到指定字节数组
+     * <p>同时接受标准字符和 URL 安全字符, 忽略空白字符, 填充字符可省略</p>
+     *
+     * @param src        Base64 数据
+     * @param srcOffset  起始位置
+     * @param length     长度
+     * @param dest       目标字节数组, 剩余空间不小于 {@link #base64DecodedMaxLength(int)}
+     * @param destOffset 目标起始位置
+     * @return 写入的字节数, 包含非法字符时返回 -1
+     */
+    public static int base64Decode(final byte[] src, final int srcOffset, final int length,
+                                   final byte[] dest, final int destOffset) {
+        int bits = 0;
+        int count = 0;
+        int j = destOffset;
+        for (int i = srcOffset, end = srcOffset + length; i < end; i++) {
+            int c = src[i] & 0xff;
+            if (c == BASE64_PAD) break;
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') continue;
+            int v = c < 128 ? BASE64_VALUES[c] : -1;
+            if (v < 0) return -1;
+            bits = bits << 6 | v;
+            if (++count == 4) {
+                dest[j++] = (byte) (bits >> 16);
+                dest[j++] = (byte) (bits >> 8);
+                dest[j++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        switch (count) {
+            case 1:
+                return -1;
+            case 2:
+                dest[j++] = (byte) (bits >> 4);
+                break;
+            case 3:
+                dest[j++] = (byte) (bits >> 10);
+                dest[j++] = (byte) (bits >> 2);
+                break;
+        }
+        return j - destOffset;
+    }
+
+    /**
+     * Base64 解码
+     *
+     * @param src Base64 数据
+     * @return 解码后的数据, 包含非法字符时返回 null
+     */
+    public static byte[] base64Decode(final byte[] src) {
+        if (src == null) return null;
+        byte[] out = new byte[base64DecodedMaxLength(src.length)];
+        int length = base64Decode(src, 0, src.length, out, 0);
+        if (length < 0) return null;
+        return length == out.length ? out : Arrays.copyOf(out, length);
+    }
+
+    /**
+     * 流式 Base64 编码, 内存占用固定, 适用于大数据; 不会关闭传入的流
+     *
+     * @param in      源数据输入流
+     * @param out     Base64 输出流
+     * @param urlSafe 是否使用 URL 安全字符 (- 和 _)
+     * @return 是否成功
+     */
+    public static boolean base64Encode(final InputStream in, final OutputStream out, final boolean urlSafe) {
+        if (in == null || out == null) return false;
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        byte[] encoded = new byte[base64EncodedLength(STREAM_BUFFER_SIZE)];
+        try {
+            int filled = 0;
+            int len;
+            while ((len = in.read(buffer, filled, buffer.length - filled)) != -1) {
+                filled += len;
+                // 只有缓冲区满时才编码, 保证中间块的长度为 3 的倍数, 不产生填充字符
+                if (filled == buffer.length) {
+                    out.write(encoded, 0, base64Encode(buffer, 0, filled, encoded, 0, urlSafe));
+                    filled = 0;
+                }
+            }
+            if (filled > 0) {
+                out.write(encoded, 0, base64Encode(buffer, 0, filled, encoded, 0, urlSafe));
+            }
+            out.flush();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 流式 Base64 解码, 内存占用固定, 适用于大数据; 不会关闭传入的流
+     *
+     * @param in  Base64 输入流
+     * @param out 解码后的输出流
+     * @return 是否成功, 包含非法字符时返回 false
+     */
+    public static boolean base64Decode(final InputStream in, final OutputStream out) {
+        if (in == null || out == null) return false;
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        byte[] decoded = new byte[base64DecodedMaxLength(STREAM_BUFFER_SIZE)];
+        try {
+            int filled = 0;
+            int len;
+            while ((len = in.read(buffer, filled, buffer.length - filled)) != -1) {
+                int end = filled + len;
+                // 每次只解码完整的 4 字符组, 剩余字符留到下一轮
+                int complete = 0;
+                int valid = 0;
+                for (int i = 0; i < end; i++) {
+                    int c = buffer[i];
+                    if (c == BASE64_PAD) {
+                        complete = end;
+                        break;
+                    }
+                    if (c != ' ' && c != '\n' && c != '\r' && c != '\t' && ++valid % 4 == 0) {
+                        complete = i + 1;
+                    }
+                }
+                if (valid % 4 == 0) complete = end;
+                int m = base64Decode(buffer, 0, complete, decoded, 0);
+                if (m < 0) return false;
+                out.write(decoded, 0, m);
+                // 剩余字符去掉空白后移到缓冲区开头, 最多 3 个, 避免空白字符占满缓冲区
+                filled = 0;
+                for (int i = complete; i < end; i++) {
+                    byte c = buffer[i];
+                    if (c != ' ' && c != '\n' && c != '\r' && c != '\t') buffer[filled++] = c;
+                }
+            }
+            if (filled > 0) {
+                int m = base64Decode(buffer, 0, filled, decoded, 0);
+                if (m < 0) return false;
+                out.write(decoded, 0, m);
+            }
+            out.flush();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import android.os.Build;
 import android.text.Html;
 import android.util.Base64;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -108,6 +110,40 @@ public final class EncodeUtils {
         return Base64.encodeToString(input, Base64.NO_WRAP);
     }
 
+    /**
+     * Base64编码到指定的字节数组, 不分配新的数组
+     *
+     * @param input        要编码的字节数组
+     * @param output       输出的字节数组, 剩余空间不小于 {@link CodecUtils#base64EncodedLength(int)}
+     * @param outputOffset 输出的起始位置
+     * @return 写入的字节数
+     */
+    public static int base64Encode(final byte[] input, final byte[] output, final int outputOffset) {
+        return CodecUtils.base64Encode(input, 0, input.length, output, outputOffset, false);
+    }
+
+    /**
+     * Base64流式编码, 适用于大数据, 不会关闭传入的流
+     *
+     * @param input  要编码的输入流
+     * @param output Base64编码后的输出流
+     * @return 是否成功
+     */
+    public static boolean base64Encode(final InputStream input, final OutputStream output) {
+        return CodecUtils.base64Encode(input, output, false);
+    }
+
+    /**
+     * Base64流式解码, 适用于大数据, 不会关闭传入的流
+     *
+     * @param input  要解码的输入流
+     * @param output Base64解码后的输出流
+     * @return 是否成功
+     */
+    public static boolean base64Decode(final InputStream input, final OutputStream output) {
+        return CodecUtils.base64Decode(input, output);
+    }
+
     /**
      * Base64解码
      *
@@ -1,15 +1,23 @@
 package org.camel.utilslibrary;
 
+import android.os.Build;
+import android.support.annotation.RequiresApi;
 import android.util.Base64;
 
+import org.camel.utilslibrary.module.ChunkedDigest;
+import org.camel.utilslibrary.tools.ChunkedFileHasher;
+import org.camel.utilslibrary.tools.CryptoPool;
+import org.camel.utilslibrary.tools.FileDigester;
+import org.camel.utilslibrary.tools.FileDigestCache;
+import org.camel.utilslibrary.tools.RecordCipher;
+import org.camel.utilslibrary.tools.StreamCipher;
+
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.Cipher;
 import javax.crypto.Mac;
@@ -160,30 +168,77 @@ public final class EncryptUtils {
      * @return 文件的MD5校验码
      */
     public static byte[] encryptMD5File(final File file) {
-        if (file == null) return null;
-        FileInputStream fis = null;
-        DigestInputStream digestInputStream;
+        Map<String, byte[]> result = encryptFile(file, "MD5");
+        return result == null ? null : result.get("MD5");
+    }
+
+    /**
+     * 使用摘要缓存计算文件摘要, 文件未变化时直接返回缓存结果
+     *
+     * @param file  文件
+     * @param cache 摘要缓存, 摘要算法由缓存决定, 为 null 时直接计算MD5
+     * @return 文件的16进制摘要
+     */
+    public static String encryptCachedFile2String(final File file, final FileDigestCache cache) {
+        if (cache == null) return encryptMD5File2String(file);
+        return cache.getHexDigest(file);
+    }
+
+    /**
+     * 一次读取文件, 同时计算多种摘要
+     * <p>需要同一文件的多种摘要时, 应使用该方法代替分别调用各算法, 避免重复读取文件</p>
+     *
+     * @param file       文件
+     * @param algorithms 摘要算法, 如 MD5 / SHA-1 / SHA-256
+     * @return 以算法名称为 key 的摘要结果, 读取失败或算法不支持时返回 null
+     */
+    public static Map<String, byte[]> encryptFile(final File file, final String... algorithms) {
+        if (file == null || algorithms == null || algorithms.length == 0) return null;
+        FileDigester digester = new FileDigester();
         try {
-            fis = new FileInputStream(file);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            digestInputStream = new DigestInputStream(fis, md);
-            byte[] buffer = new byte[256 * 1024];
-            while (true) {
-                if (!(digestInputStream.read(buffer) > 0)) break;
+            for (String algorithm : algorithms) {
+                digester.addDigest(algorithm);
             }
-            md = digestInputStream.getMessageDigest();
-            return md.digest();
-        } catch (NoSuchAlgorithmException | IOException e) {
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return digester.digest(file);
+    }
+
+    /**
+     * 一次读取文件, 同时计算多种摘要
+     *
+     * @param file       文件
+     * @param algorithms 摘要算法, 如 MD5 / SHA-1 / SHA-256
+     * @return 以算法名称为 key 的16进制摘要结果, 读取失败或算法不支持时返回 null
+     */
+    public static Map<String, String> encryptFile2String(final File file, final String... algorithms) {
+        Map<String, byte[]> result = encryptFile(file, algorithms);
+        if (result == null) return null;
+        Map<String, String> ret = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : result.entrySet()) {
+            ret.put(entry.getKey(), bytes2HexString(entry.getValue()));
+        }
+        return ret;
+    }
+
+    /**
+     * 分块并行计算文件摘要
+     * <p>适用于 GB 级别的大文件, 根摘要与整个文件直接计算的摘要不同, 详见 {@link ChunkedFileHasher}</p>
+     *
+     * @param file      文件
+     * @param algorithm 摘要算法, 如 MD5 / SHA-1 / SHA-256
+     * @param chunkSize 分块大小, 单位: B
+     * @return 分块摘要结果, 读取失败或算法不支持时返回 null
+     */
+    public static ChunkedDigest encryptFileChunked(final File file, final String algorithm, final int chunkSize) {
+        if (file == null || isSpace(algorithm)) return null;
+        try {
+            return new ChunkedFileHasher(algorithm).setChunkSize(chunkSize).hash(file);
+        } catch (IllegalArgumentException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
@@ -347,7 +402,7 @@ public final class EncryptUtils {
     private static byte[] hashTemplate(final byte[] data, final String algorithm) {
         if (data == null || data.length <= 0) return null;
         try {
-            MessageDigest md = MessageDigest.getInstance(algorithm);
+            MessageDigest md = CryptoPool.getMessageDigest(algorithm);
             md.update(data);
             return md.digest();
         } catch (NoSuchAlgorithmException e) {
@@ -556,6 +611,8 @@ public final class EncryptUtils {
 
     /**
      * Hmac加密模板
+     * <p>同一线程使用相同秘钥重复调用时会复用已初始化的 Mac; 大量使用固定秘钥签名时,
+     * 也可通过 {@link CryptoPool#newKeyedMac(String, byte[])} 获取可跨线程共享的句柄</p>
      *
      * @param data      数据
      * @param key       秘钥
@@ -565,9 +622,7 @@ public final class EncryptUtils {
     private static byte[] hmacTemplate(final byte[] data, final byte[] key, final String algorithm) {
         if (data == null || data.length == 0 || key == null || key.length == 0) return null;
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(key, algorithm);
-            Mac mac = Mac.getInstance(algorithm);
-            mac.init(secretKey);
+            Mac mac = CryptoPool.getMac(algorithm, key);
             return mac.doFinal(data);
         } catch (InvalidKeyException | NoSuchAlgorithmException e) {
             e.printStackTrace();
@@ -814,6 +869,75 @@ public final class EncryptUtils {
         return desTemplate(data, key, AES_Algorithm, AES_Transformation, false);
     }
 
+    /**
+     * 准备 AES-GCM 记录加密上下文
+     * <p>适用于大量小记录的加密, 秘钥只准备一次, 支持批量处理, 详见 {@link RecordCipher}; 需要 API 19</p>
+     *
+     * @param key 16、24、32字节秘钥
+     * @return 记录加密上下文, 秘钥无效时返回 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.KITKAT)
+    public static RecordCipher prepareAESRecordCipher(final byte[] key) {
+        try {
+            return new RecordCipher(key);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * AES流式加密转变, 用于文件加密
+     * <p>需要 IV 的模式会在密文开头写入随机 IV, 详见 {@link StreamCipher}</p>
+     */
+    public static String AES_Stream_Transformation = "AES/CBC/PKCS5Padding";
+
+    /**
+     * AES加密文件, 内存占用与文件大小无关
+     *
+     * @param src  明文文件
+     * @param dest 密文文件
+     * @param key  16、24、32字节秘钥
+     * @return 是否成功
+     */
+    public static boolean encryptAESFile(final File src, final File dest, final byte[] key) {
+        return streamTemplate(src, dest, key, AES_Algorithm, AES_Stream_Transformation, true);
+    }
+
+    /**
+     * AES解密文件, 内存占用与文件大小无关
+     *
+     * @param src  密文文件
+     * @param dest 明文文件
+     * @param key  16、24、32字节秘钥
+     * @return 是否成功
+     */
+    public static boolean decryptAESFile(final File src, final File dest, final byte[] key) {
+        return streamTemplate(src, dest, key, AES_Algorithm, AES_Stream_Transformation, false);
+    }
+
+    /**
+     * 文件流式加密模板
+     *
+     * @param src            源文件
+     * @param dest           目标文件, 失败时将被删除
+     * @param key            秘钥
+     * @param algorithm      加密算法
+     * @param transformation 转变, 如 AES/CBC/PKCS5Padding / AES/CTR/NoPadding
+     * @param isEncrypt      {@code true}: 加密 {@code false}: 解密
+     * @return 是否成功, 适用于DES，3DES，AES
+     */
+    public static boolean streamTemplate(final File src, final File dest, final byte[] key, final String algorithm, final String transformation, final boolean isEncrypt) {
+        if (src == null || dest == null || key == null || key.length == 0) return false;
+        try {
+            StreamCipher cipher = new StreamCipher(algorithm, transformation, key);
+            return isEncrypt ? cipher.encrypt(src, dest) : cipher.decrypt(src, dest);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * DES加密模板
      *
@@ -828,9 +952,8 @@ public final class EncryptUtils {
         if (data == null || data.length == 0 || key == null || key.length == 0) return null;
         try {
             SecretKeySpec keySpec = new SecretKeySpec(key, algorithm);
-            Cipher cipher = Cipher.getInstance(transformation);
-            SecureRandom random = new SecureRandom();
-            cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, keySpec, random);
+            Cipher cipher = CryptoPool.getCipher(transformation);
+            cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, keySpec, CryptoPool.getSecureRandom());
             return cipher.doFinal(data);
         } catch (Throwable e) {
             e.printStackTrace();
@@ -838,43 +961,14 @@ public final class EncryptUtils {
         }
     }
 
-    private static final char hexDigits[] = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
-
     private static String bytes2HexString(final byte[] bytes) {
-        if (bytes == null) return null;
-        int len = bytes.length;
-        if (len <= 0) return null;
-        char[] ret = new char[len << 1];
-        for (int i = 0, j = 0; i < len; i++) {
-            ret[j++] = hexDigits[bytes[i] >>> 4 & 0x0f];
-            ret[j++] = hexDigits[bytes[i] & 0x0f];
-        }
-        return new String(ret);
+        if (bytes == null || bytes.length <= 0) return null;
+        return CodecUtils.bytes2HexString(bytes);
     }
 
-    private static byte[] hexString2Bytes(String hexString) {
+    private static byte[] hexString2Bytes(final String hexString) {
         if (isSpace(hexString)) return null;
-        int len = hexString.length();
-        if (len % 2 != 0) {
-            hexString = "0" + hexString;
-            len = len + 1;
-        }
-        char[] hexBytes = hexString.toUpperCase().toCharArray();
-        byte[] ret = new byte[len >> 1];
-        for (int i = 0; i < len; i += 2) {
-            ret[i >> 1] = (byte) (hex2Dec(hexBytes[i]) << 4 | hex2Dec(hexBytes[i + 1]));
-        }
-        return ret;
-    }
-
-    private static int hex2Dec(final char hexChar) {
-        if (hexChar >= '0' && hexChar <= '9') {
-            return hexChar - '0';
-        } else if (hexChar >= 'A' && hexChar <= 'F') {
-            return hexChar - 'A' + 10;
-        } else {
-            throw new IllegalArgumentException();
-        }
+        return CodecUtils.hexString2Bytes(hexString);
     }
 
     private static byte[] base64Encode(final byte[] input) {
@@ -4,20 +4,26 @@ import android.Manifest;
 import android.app.Activity;
 import android.os.Environment;
 import android.text.format.Formatter;
+import org.camel.utilslibrary.interfaces.LineCallback;
 import org.camel.utilslibrary.module.unit.FileSize;
 import org.camel.utilslibrary.module.unit.Unit;
+import org.camel.utilslibrary.tools.DirectoryWalker;
+import org.camel.utilslibrary.tools.FileAppender;
 import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.Arrays;
 import java.util.List;
 
@@ -32,6 +38,12 @@ import java.util.List;
  */
 public class FileUtils {
 
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    // transferTo 连续返回 0 时的重试次数, 超过后改用缓冲区复制
+    private static final int MAX_TRANSFER_RETRIES = 3;
+    // 每个线程缓存最近使用的解码器
+    private static final ThreadLocal<CharsetDecoder> DECODER = new ThreadLocal<>();
+
     private FileUtils() {
     }
 
@@ -179,30 +191,197 @@ public class FileUtils {
             return null;
         }
 
-        StringBuilder fileContent = new StringBuilder("");
-        BufferedReader reader = null;
-        try {
-            InputStreamReader is = new InputStreamReader(new FileInputStream(file), charsetName);
-            reader = new BufferedReader(is);
-            String line = null;
-            while ((line = reader.readLine()) != null) {
-                if (!fileContent.toString().equals("")) {
+        final StringBuilder fileContent = new StringBuilder((int) Math.min(file.length() + 16, Integer.MAX_VALUE - 8));
+        readLines(file, charsetName, new LineCallback() {
+            @Override
+            public boolean onLine(String line) {
+                // 仅检查长度, 避免每行复制全部内容
+                if (fileContent.length() > 0) {
                     fileContent.append("\r\n");
                 }
                 fileContent.append(line);
+                return true;
             }
-            return fileContent;
+        });
+        return fileContent;
+    }
+
+    /**
+     * 读取文本文件, 默认编码 UTF-8
+     *
+     * @param file 文件对象
+     * @return 文本内容, 保留原有的换行符, 读取失败返回 null
+     */
+    public static String readText(File file) {
+        return readText(file, "UTF-8", false);
+    }
+
+    /**
+     * 读取文本文件
+     *
+     * @param file        文件对象
+     * @param charsetName 编码名称
+     * @return 文本内容, 保留原有的换行符, 读取失败返回 null
+     */
+    public static String readText(File file, String charsetName) {
+        return readText(file, charsetName, false);
+    }
+
+    /**
+     * 读取文本文件
+     * <p>通过 FileChannel 一次性解码, 不按行拆分, 换行符保持原样</p>
+     *
+     * @param file        文件对象
+     * @param charsetName 编码名称
+     * @param mapped      是否使用内存映射, 适用于较大的文件; 映射在 GC 回收前不会释放
+     * @return 文本内容, 读取失败返回 null
+     */
+    public static String readText(File file, String charsetName, boolean mapped) {
+        if (!checkFile(file) || !file.isFile()) {
+            return null;
+        }
+        CharsetDecoder decoder = obtainDecoder(Charset.forName(charsetName));
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            FileChannel channel = fis.getChannel();
+            long capacity = (long) (channel.size() * (double) decoder.averageCharsPerByte()) + 16;
+            final StringBuilder text = new StringBuilder((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+            decode(channel, mapped, decoder, new TextSink() {
+                @Override
+                boolean append(char[] chars, int offset, int length) {
+                    text.append(chars, offset, length);
+                    return true;
+                }
+            });
+            return text.toString();
         } catch (IOException e) {
             throw new RuntimeException("IOException occurred. ", e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+            IOUtils.close(fis);
+            releaseDecoder(decoder);
+        }
+    }
+
+    /**
+     * 逐行读取文本文件, 不保存全部内容
+     * <p>换行符规则与 {@link java.io.BufferedReader#readLine()} 相同: "\n", "\r" 或 "\r\n"</p>
+     *
+     * @param file        文件对象
+     * @param charsetName 编码名称
+     * @param callback    行回调, 返回 false 时停止读取
+     * @return 回调的行数, 读取失败返回 -1
+     */
+    public static long readLines(File file, String charsetName, final LineCallback callback) {
+        if (!checkFile(file) || !file.isFile() || callback == null) {
+            return -1;
+        }
+        CharsetDecoder decoder = obtainDecoder(Charset.forName(charsetName));
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            final StringBuilder line = new StringBuilder(128);
+            final long[] count = new long[1];
+            TextSink sink = new TextSink() {
+                boolean mLastCR;
+
+                @Override
+                boolean append(char[] chars, int offset, int length) {
+                    int start = offset;
+                    for (int i = offset, end = offset + length; i < end; i++) {
+                        char c = chars[i];
+                        if (c != '\n' && c != '\r') {
+                            mLastCR = false;
+                            continue;
+                        }
+                        if (c == '\n' && mLastCR) {
+                            // "\r\n" 只算一次换行
+                            mLastCR = false;
+                            start = i + 1;
+                            continue;
+                        }
+                        line.append(chars, start, i - start);
+                        count[0]++;
+                        if (!callback.onLine(line.toString())) return false;
+                        line.setLength(0);
+                        mLastCR = c == '\r';
+                        start = i + 1;
+                    }
+                    line.append(chars, start, offset + length - start);
+                    return true;
                 }
+            };
+            if (decode(fis.getChannel(), false, decoder, sink) && line.length() > 0) {
+                count[0]++;
+                callback.onLine(line.toString());
+            }
+            return count[0];
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        } finally {
+            IOUtils.close(fis);
+            releaseDecoder(decoder);
+        }
+    }
+
+    /**
+     * 解码后的文本接收者
+     */
+    private static abstract class TextSink {
+
+        /**
+         * @return true 继续解码; false 停止
+         */
+        abstract boolean append(char[] chars, int offset, int length);
+    }
+
+    private static boolean decode(FileChannel channel, boolean mapped, CharsetDecoder decoder, TextSink sink)
+            throws IOException {
+        ByteBuffer in = mapped
+                ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                : ByteBuffer.allocate((int) Math.max(64, Math.min(READ_BUFFER_SIZE, channel.size())));
+        CharBuffer out = CharBuffer.allocate(READ_BUFFER_SIZE);
+        boolean eof = mapped;
+        while (true) {
+            if (!mapped) {
+                eof = channel.read(in) == -1;
+                in.flip();
             }
+            // 出错时替换为默认字符, 只会返回 UNDERFLOW 或 OVERFLOW
+            while (decoder.decode(in, out, eof).isOverflow()) {
+                if (!drain(out, sink)) return false;
+            }
+            if (eof) break;
+            in.compact();
+        }
+        while (decoder.flush(out).isOverflow()) {
+            if (!drain(out, sink)) return false;
+        }
+        return drain(out, sink);
+    }
+
+    private static boolean drain(CharBuffer out, TextSink sink) {
+        out.flip();
+        boolean proceed = !out.hasRemaining() || sink.append(out.array(), out.arrayOffset() + out.position(), out.remaining());
+        out.clear();
+        return proceed;
+    }
+
+    private static CharsetDecoder obtainDecoder(Charset charset) {
+        CharsetDecoder decoder = DECODER.get();
+        if (decoder == null || !decoder.charset().equals(charset)) {
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } else {
+            // 使用期间移出缓存, 回调中再次读取时不会共用同一个解码器
+            DECODER.set(null);
         }
+        return decoder.reset();
+    }
+
+    private static void releaseDecoder(CharsetDecoder decoder) {
+        DECODER.set(decoder);
     }
 
     //================================================ 写入文件 ================================================//
@@ -388,6 +567,24 @@ public class FileUtils {
         }
     }
 
+    /**
+     * 打开批量追加写入器
+     * <p>适用于高频追加 (如日志、事件记录), 文件只打开一次, 记录批量写入, 见 {@link FileAppender}</p>
+     *
+     * @param file 文件
+     * @return 追加写入器, 使用完毕后需调用 close(); 打开失败返回 null
+     */
+    public static FileAppender openAppender(File file) {
+        if (!checkFileAndMakeDirs(file)) return null;
+
+        try {
+            return new FileAppender(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     //================================================ 其他文件操作 ================================================//
 
     /**
@@ -412,28 +609,7 @@ public class FileUtils {
     public static boolean deleteDir(File dir) {
         if (!checkFile(dir) || !dir.exists() || !dir.isDirectory())
             return false;
-        if (!executeDeleteDir(dir))
-            return false;
-        return dir.delete();
-    }
-
-    /**
-     * 递归执行删除文件夹操作
-     */
-    private static boolean executeDeleteDir(File dir) {
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    if (!file.delete())
-                        return false;
-                } else if (file.isDirectory()) {
-                    if (!deleteDir(file))
-                        return false;
-                }
-            }
-        }
-        return true;
+        return new DirectoryWalker().delete(dir, true).isSuccess();
     }
 
     /**
@@ -475,17 +651,108 @@ public class FileUtils {
         return copyOrMoveFile(srcFile, destFile, true);
     }
 
+    /**
+     * 复制或移动文件
+     *
+     * @param srcFile  原文件对象
+     * @param destFile 目标文件对象, 已存在时返回 false
+     * @param isMove   是否为移动
+     * @return 是否成功
+     */
     public static boolean copyOrMoveFile(File srcFile, File destFile, boolean isMove) {
+        return copyOrMoveFile(srcFile, destFile, isMove, false, false);
+    }
+
+    /**
+     * 复制或移动文件
+     * <p>移动时先尝试直接重命名, 同一文件系统内不需要复制数据; 重命名失败 (如跨挂载点) 时再复制后删除原文件</p>
+     * <p>复制通过 {@link FileChannel#transferTo} 在内核中完成, 不经过 Java 层缓冲区</p>
+     *
+     * @param srcFile  原文件对象
+     * @param destFile 目标文件对象, 已存在时返回 false
+     * @param isMove   是否为移动
+     * @param sync     复制完成前是否将数据同步到磁盘 (fsync)
+     * @param atomic   是否先复制到同目录下的临时文件再重命名, 保证目标文件要么不存在要么完整
+     * @return 是否成功
+     */
+    public static boolean copyOrMoveFile(File srcFile, File destFile, boolean isMove, boolean sync, boolean atomic) {
         if (srcFile == null || !srcFile.exists() || !srcFile.isFile())
             return false;
         if (destFile == null || destFile.exists())
             return false;
+        if (!checkFileAndMakeDirs(destFile))
+            return false;
+        if (isMove && srcFile.renameTo(destFile))
+            return true;
 
+        File target = destFile;
+        if (atomic) {
+            // 临时文件名唯一, 同时复制到同一目标文件时互不影响
+            try {
+                target = File.createTempFile("." + destFile.getName() + ".", ".tmp",
+                        destFile.getAbsoluteFile().getParentFile());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+        if (!transferFile(srcFile, target, sync) || atomic && !target.renameTo(destFile)) {
+            target.delete();
+            return false;
+        }
+        if (!isMove)
+            return true;
+        destFile.setLastModified(srcFile.lastModified());
+        return deleteFile(srcFile);
+    }
+
+    /**
+     * 使用 FileChannel 复制文件数据, 复制的长度与开始时的文件大小不一致时返回 false
+     */
+    private static boolean transferFile(File srcFile, File destFile, boolean sync) {
+        FileInputStream fis = null;
+        FileOutputStream fos = null;
         try {
-            return writeFile(destFile, new FileInputStream(srcFile), false) && !(isMove && !deleteFile(srcFile));
-        } catch (FileNotFoundException e) {
+            fis = new FileInputStream(srcFile);
+            fos = new FileOutputStream(destFile);
+            FileChannel in = fis.getChannel();
+            FileChannel out = fos.getChannel();
+            long size = in.size();
+            long position = 0;
+            int retries = 0;
+            // 单次传输的数据量可能受限, 循环直到完成
+            while (position < size) {
+                long count = in.transferTo(position, size - position, out);
+                if (count > 0) {
+                    position += count;
+                    retries = 0;
+                } else if (++retries > MAX_TRANSFER_RETRIES) {
+                    break;
+                }
+            }
+            if (position < size) {
+                // transferTo 无法继续传输, 改用缓冲区复制剩余数据; 读到文件末尾说明文件在复制期间被截断
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+                while (position < size) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), size - position));
+                    int len = in.read(buffer, position);
+                    if (len == -1) break;
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    position += len;
+                }
+            }
+            if (position != size) return false;
+            if (sync) fos.getFD().sync();
+            return true;
+        } catch (IOException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            IOUtils.close(fis, fos);
         }
     }
 
@@ -506,29 +773,7 @@ public class FileUtils {
         if (destDir.getAbsolutePath().contains(srcDir.getAbsolutePath()))
             return false;
 
-        if (!executeCopyOrMoveDir(srcDir, destDir, isMove))
-            return false;
-        return !isMove || deleteDir(srcDir);
-    }
-
-    /**
-     * 递归执行复制或移动文件夹的操作
-     */
-    private static boolean executeCopyOrMoveDir(File srcDir, File destDir, boolean isMove) {
-        File[] files = srcDir.listFiles();
-        for (File file : files) {
-            File oneDestFile = new File(destDir, file.getName());
-            if (file.isFile()) {
-                // 如果操作失败返回false
-                if (!copyOrMoveFile(file, oneDestFile, isMove))
-                    return false;
-            } else if (file.isDirectory()) {
-                // 如果操作失败返回false
-                if (!copyOrMoveDir(file, oneDestFile, isMove))
-                    return false;
-            }
-        }
-        return true;
+        return new DirectoryWalker().copy(srcDir, destDir, isMove).isSuccess();
     }
 
     /**
@@ -628,11 +873,7 @@ public class FileUtils {
         if (file.isFile()) {
             return file.length();
         }
-        long size = 0;
-        for (File childFile : file.listFiles()) {
-            size += getFileSize(childFile);
-        }
-        return size;
+        return new DirectoryWalker().size(file).getByteCount();
     }
 
     /**
@@ -1,6 +1,9 @@
 package org.camel.utilslibrary;
 
+import org.camel.utilslibrary.tools.ImageBatchCompressor;
+
 import java.io.File;
+import java.util.List;
 
 /**
  * <pre>
@@ -30,4 +33,20 @@ public class ImageUtils {
     public static boolean compressImage(File input, File output, int outWidth, int outHeight, int maxFileSize) {
         return BitmapUtils.compressBitmap(input, output, outWidth, outHeight, maxFileSize);
     }
+
+    /**
+     * 批量并行压缩图片文件到指定目录, 输出文件与源图片同名, 重名时加上 _1, _2 ... 后缀
+     * <p>需要回调、顺序或内存预算等设置时请直接使用 {@link ImageBatchCompressor}</p>
+     *
+     * @param inputs      源图片文件
+     * @param outputDir   输出目录
+     * @param outWidth    期望的输出图片的宽度
+     * @param outHeight   期望的输出图片的高度
+     * @param maxFileSize 期望的输出图片的最大占用的存储空间, 单位: Kb
+     * @return 压缩结果
+     */
+    public static ImageBatchCompressor.Result compressImages(List<File> inputs, File outputDir,
+                                                             int outWidth, int outHeight, int maxFileSize) {
+        return new ImageBatchCompressor().compress(inputs, outputDir, outWidth, outHeight, maxFileSize);
+    }
 }
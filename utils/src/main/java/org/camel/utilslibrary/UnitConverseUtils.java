@@ -78,8 +78,6 @@ public class UnitConverseUtils {
         return Integer.toHexString(value);
     }
 
-    private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
-
     /**
      * byte 数组 转 十六进制字符串
      *
@@ -87,12 +85,6 @@ public class UnitConverseUtils {
      * @return 十六进制字符串
      */
     public static String bytesToHexString(byte[] bytes) {
-        char[] hexChars = new char[bytes.length * 2];
-        for (int j = 0; j < bytes.length; j++) {
-            int v = bytes[j] & 0xFF;
-            hexChars[j * 2] = hexArray[v >>> 4];
-            hexChars[j * 2 + 1] = hexArray[v & 0x0F];
-        }
-        return new String(hexChars);
+        return CodecUtils.bytes2HexString(bytes);
     }
 }
@@ -1,7 +1,11 @@
 package org.camel.utilslibrary;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import org.camel.utilslibrary.tools.CompressionPolicy;
+import org.camel.utilslibrary.tools.ParallelUnzipper;
+import org.camel.utilslibrary.tools.ParallelZipper;
+import org.camel.utilslibrary.tools.StreamingZipper;
+import org.camel.utilslibrary.tools.ZipIndex;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -10,8 +14,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -29,6 +35,7 @@ import java.util.zip.ZipOutputStream;
 public final class ZipUtils {
 
     private static final int KB = 1024;
+    private static final int BUFFER_SIZE = 64 * KB;
 
     private ZipUtils() {
     }
@@ -201,13 +208,13 @@ public final class ZipUtils {
         } else {
             InputStream is = null;
             try {
-                is = new BufferedInputStream(new FileInputStream(resFile));
+                is = new FileInputStream(resFile);
                 ZipEntry entry = new ZipEntry(rootPath);
                 if (!StringUtils.isEmpty(comment)) entry.setComment(comment);
                 zos.putNextEntry(entry);
-                byte buffer[] = new byte[KB];
+                byte buffer[] = new byte[BUFFER_SIZE];
                 int len;
-                while ((len = is.read(buffer, 0, KB)) != -1) {
+                while ((len = is.read(buffer, 0, BUFFER_SIZE)) != -1) {
                     zos.write(buffer, 0, len);
                 }
                 zos.closeEntry();
@@ -224,6 +231,99 @@ public final class ZipUtils {
         return true;
     }
 
+    /**
+     * 多线程批量压缩文件
+     * <p>适用于文件数量多或单个文件较大的情况, 条目命名规则与 {@link #zipFiles(Collection, File, String)} 相同</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件
+     * @param comment  压缩文件的注释
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败
+     * @throws IOException IO错误时抛出
+     */
+    public static boolean zipFilesParallel(final Collection<File> resFiles, final File zipFile, final String comment)
+            throws IOException {
+        return zipFilesParallel(resFiles, zipFile, comment, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * 多线程批量压缩文件
+     * <p>更多配置 (线程数、分块大小、进度监听等) 请直接使用 {@link ParallelZipper}</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件
+     * @param comment  压缩文件的注释
+     * @param level    压缩级别 0-9
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败
+     * @throws IOException IO错误时抛出
+     */
+    public static boolean zipFilesParallel(final Collection<File> resFiles, final File zipFile, final String comment,
+                                           final int level)
+            throws IOException {
+        if (resFiles == null || zipFile == null) return false;
+        return new ParallelZipper()
+                .setLevel(level)
+                .setEntryComment(comment)
+                .zip(resFiles, zipFile);
+    }
+
+    /**
+     * 多线程批量压缩文件, 按压缩策略决定各条目原样存储或压缩
+     * <p>适用于包含大量图片、音视频等已压缩文件的情况, 见 {@link CompressionPolicy}</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件
+     * @param comment  压缩文件的注释
+     * @param policy   压缩策略
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败
+     * @throws IOException IO错误时抛出
+     */
+    public static boolean zipFilesParallel(final Collection<File> resFiles, final File zipFile, final String comment,
+                                           final CompressionPolicy policy)
+            throws IOException {
+        if (resFiles == null || zipFile == null) return false;
+        return new ParallelZipper()
+                .setCompressionPolicy(policy)
+                .setEntryComment(comment)
+                .zip(resFiles, zipFile);
+    }
+
+    /**
+     * 批量压缩文件并直接写入输出流
+     * <p>适用于上传等场景, 无需先写入临时文件, 见 {@link StreamingZipper}</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param out      输出流, 不会被关闭
+     * @param comment  压缩文件的注释
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败
+     * @throws IOException IO错误时抛出
+     */
+    public static boolean zipFiles(final Collection<File> resFiles, final OutputStream out, final String comment)
+            throws IOException {
+        if (resFiles == null || out == null) return false;
+        return new StreamingZipper()
+                .setEntryComment(comment)
+                .zip(resFiles, out);
+    }
+
+    /**
+     * 增量更新压缩文件
+     * <p>与已有压缩文件相比大小、修改时间和 CRC 均未变化的条目直接拷贝压缩数据, 只压缩新增或变化的文件, 已删除的文件不再保留</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件, 不存在时直接压缩
+     * @param comment  压缩文件的注释
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败
+     * @throws IOException IO错误时抛出
+     */
+    public static boolean updateZipFiles(final Collection<File> resFiles, final File zipFile, final String comment)
+            throws IOException {
+        if (resFiles == null || zipFile == null) return false;
+        return new ParallelZipper()
+                .setEntryComment(comment)
+                .update(resFiles, zipFile);
+    }
+
     /**
      * 批量解压文件
      *
@@ -307,39 +407,72 @@ public final class ZipUtils {
     public static List<File> unzipFileByKeyword(final File zipFile, final File destDir, final String keyword)
             throws IOException {
         if (zipFile == null || destDir == null) return null;
+        ZipIndex index = getIndex(zipFile);
+        if (index == null) return unzipByZipFile(zipFile, destDir, keyword);
         List<File> files = new ArrayList<>();
-        ZipFile zf = new ZipFile(zipFile);
-        Enumeration<?> entries = zf.entries();
-        while (entries.hasMoreElements()) {
-            ZipEntry entry = ((ZipEntry) entries.nextElement());
-            String entryName = entry.getName();
-            if (StringUtils.isEmpty(keyword) || FileUtils.getFileName(entryName).toLowerCase().contains(keyword.toLowerCase())) {
-                String filePath = destDir + File.separator + entryName;
-                File file = new File(filePath);
-                files.add(file);
-                if (entry.isDirectory()) {
-                    if (!FileUtils.checkDirAndMakeDirs(file)) return null;
-                } else {
-                    if (!FileUtils.checkFileAndMakeDirs(file)) return null;
-                    InputStream in = null;
-                    OutputStream out = null;
-                    try {
-                        in = new BufferedInputStream(zf.getInputStream(entry));
-                        out = new BufferedOutputStream(new FileOutputStream(file));
-                        byte buffer[] = new byte[KB];
-                        int len;
-                        while ((len = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, len);
-                        }
-                    } finally {
-                        IOUtils.close(in, out);
-                    }
-                }
+        for (int i : index.findByKeyword(keyword)) {
+            String entryName = index.getName(i);
+            // 防止条目名称包含 "../" 时写入目标目录之外 (zip-slip)
+            ParallelUnzipper.checkEntryName(entryName);
+            String filePath = destDir + File.separator + entryName;
+            File file = new File(filePath);
+            files.add(file);
+            if (index.isDirectory(i)) {
+                if (!FileUtils.checkDirAndMakeDirs(file)) return null;
+            } else {
+                if (!FileUtils.checkFileAndMakeDirs(file)) return null;
+                index.extract(i, file);
             }
         }
         return files;
     }
 
+    /**
+     * 多线程解压文件
+     * <p>适用于包含大量条目的压缩文件, 更多配置 (线程数、进度监听等) 请直接使用 {@link ParallelUnzipper}</p>
+     *
+     * @param zipFile 待解压文件
+     * @param destDir 目标目录
+     * @return 返回解压出的文件链表
+     * @throws IOException IO错误时抛出
+     */
+    public static List<File> unzipFileParallel(final File zipFile, final File destDir)
+            throws IOException {
+        return unzipFileParallel(zipFile, destDir, null);
+    }
+
+    /**
+     * 多线程解压带有关键字的文件
+     *
+     * @param zipFile 待解压文件
+     * @param destDir 目标目录
+     * @param keyword 关键字
+     * @return 返回带有关键字的文件链表
+     * @throws IOException IO错误时抛出
+     */
+    public static List<File> unzipFileParallel(final File zipFile, final File destDir, final String keyword)
+            throws IOException {
+        if (zipFile == null || destDir == null) return null;
+        return new ParallelUnzipper()
+                .setKeyword(keyword)
+                .unzip(zipFile, destDir);
+    }
+
+    /**
+     * 从输入流解压
+     * <p>适用于下载等场景, 无需先写入临时文件</p>
+     *
+     * @param in      zip 数据输入流, 不会被关闭
+     * @param destDir 目标目录
+     * @return 返回解压出的文件链表
+     * @throws IOException IO错误或条目路径非法时抛出
+     */
+    public static List<File> unzipStream(final InputStream in, final File destDir)
+            throws IOException {
+        if (in == null || destDir == null) return null;
+        return new StreamingZipper().unzip(in, destDir);
+    }
+
     /**
      * 获取压缩文件中的文件路径链表
      *
@@ -362,10 +495,17 @@ public final class ZipUtils {
     public static List<String> getFilesPath(final File zipFile)
             throws IOException {
         if (zipFile == null) return null;
+        ZipIndex index = getIndex(zipFile);
+        if (index != null) return index.getNames();
         List<String> paths = new ArrayList<>();
-        Enumeration<?> entries = getEntries(zipFile);
-        while (entries.hasMoreElements()) {
-            paths.add(((ZipEntry) entries.nextElement()).getName());
+        ZipFile zf = new ZipFile(zipFile);
+        try {
+            Enumeration<? extends ZipEntry> entries = zf.entries();
+            while (entries.hasMoreElements()) {
+                paths.add(entries.nextElement().getName());
+            }
+        } finally {
+            zf.close();
         }
         return paths;
     }
@@ -392,11 +532,17 @@ public final class ZipUtils {
     public static List<String> getComments(final File zipFile)
             throws IOException {
         if (zipFile == null) return null;
+        ZipIndex index = getIndex(zipFile);
+        if (index != null) return index.getComments();
         List<String> comments = new ArrayList<>();
-        Enumeration<?> entries = getEntries(zipFile);
-        while (entries.hasMoreElements()) {
-            ZipEntry entry = ((ZipEntry) entries.nextElement());
-            comments.add(entry.getComment());
+        ZipFile zf = new ZipFile(zipFile);
+        try {
+            Enumeration<? extends ZipEntry> entries = zf.entries();
+            while (entries.hasMoreElements()) {
+                comments.add(entries.nextElement().getComment());
+            }
+        } finally {
+            zf.close();
         }
         return comments;
     }
@@ -423,7 +569,70 @@ public final class ZipUtils {
     public static Enumeration<?> getEntries(final File zipFile)
             throws IOException {
         if (zipFile == null) return null;
-        return new ZipFile(zipFile).entries();
+        ZipIndex index = getIndex(zipFile);
+        if (index != null) return Collections.enumeration(index.getEntries());
+        ZipFile zf = new ZipFile(zipFile);
+        try {
+            return Collections.enumeration(Collections.list(zf.entries()));
+        } finally {
+            zf.close();
+        }
+    }
+
+    /**
+     * 获取压缩文件的索引
+     *
+     * @return 索引; Zip64 等索引不支持的格式返回 null, 由调用方改用 ZipFile
+     */
+    private static ZipIndex getIndex(final File zipFile) throws IOException {
+        try {
+            return ZipIndex.get(zipFile);
+        } catch (ZipIndex.UnsupportedFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 通过 ZipFile 解压带有关键字的文件, 用于索引不支持的格式
+     */
+    private static List<File> unzipByZipFile(final File zipFile, final File destDir, final String keyword)
+            throws IOException {
+        List<File> files = new ArrayList<>();
+        String lowerKeyword = keyword == null ? "" : keyword.toLowerCase();
+        ZipFile zf = new ZipFile(zipFile);
+        try {
+            Enumeration<? extends ZipEntry> entries = zf.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (lowerKeyword.length() > 0 && !entryName.substring(entryName.lastIndexOf('/') + 1)
+                        .toLowerCase().contains(lowerKeyword)) continue;
+                ParallelUnzipper.checkEntryName(entryName);
+                File file = new File(destDir + File.separator + entryName);
+                files.add(file);
+                if (entry.isDirectory()) {
+                    if (!FileUtils.checkDirAndMakeDirs(file)) return null;
+                } else {
+                    if (!FileUtils.checkFileAndMakeDirs(file)) return null;
+                    InputStream in = null;
+                    OutputStream out = null;
+                    try {
+                        in = zf.getInputStream(entry);
+                        out = new FileOutputStream(file);
+                        byte[] buffer = new byte[BUFFER_SIZE];
+                        int len;
+                        while ((len = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, len);
+                        }
+                    } finally {
+                        IOUtils.close(in, out);
+                    }
+                }
+            }
+        } finally {
+            zf.close();
+        }
+        return files;
     }
 
     private static boolean isSpace(final String s) {
@@ -0,0 +1,20 @@
+package org.camel.utilslibrary.interfaces;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 逐行读取文本的回调, 可通过返回值停止读取
+ * </pre>
+ */
+public interface LineCallback {
+
+    /**
+     * 读取到一行
+     *
+     * @param line 行内容, 不包含换行符
+     * @return true 继续读取; false 停止读取
+     */
+    boolean onLine(String line);
+}
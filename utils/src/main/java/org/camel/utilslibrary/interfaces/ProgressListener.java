@@ -0,0 +1,22 @@
+package org.camel.utilslibrary.interfaces;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 耗时任务的进度回调, 可通过返回值取消任务
+ * </pre>
+ */
+public interface ProgressListener {
+
+    /**
+     * 进度回调
+     *
+     * @param current 已处理的字节数
+     * @param total   总字节数, 未知时为 -1
+     * @param speed   平均速度, 单位: B/s
+     * @return true 继续执行; false 取消任务
+     */
+    boolean onProgress(long current, long total, long speed);
+}
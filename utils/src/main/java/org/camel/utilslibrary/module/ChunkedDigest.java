@@ -0,0 +1,138 @@
+package org.camel.utilslibrary.module;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 分块摘要结果
+ *             文件按固定大小分块, 每块单独计算摘要, 根摘要为所有分块摘要按顺序拼接后再计算的摘要
+ * </pre>
+ */
+public class ChunkedDigest {
+
+    private final String mAlgorithm;
+    private final int mChunkSize;
+    private final long mLength;
+    private final byte[][] mChunkDigests;
+    private final byte[] mRootDigest;
+
+    private ChunkedDigest(String algorithm, int chunkSize, long length, byte[][] chunkDigests, byte[] rootDigest) {
+        mAlgorithm = algorithm;
+        mChunkSize = chunkSize;
+        mLength = length;
+        mChunkDigests = chunkDigests;
+        mRootDigest = rootDigest;
+    }
+
+    /**
+     * 由分块摘要组装结果, 并计算根摘要
+     * <p>可用于断点续传: 保存已完成分块的摘要, 补齐剩余分块后再组装</p>
+     *
+     * @param algorithm    摘要算法
+     * @param chunkSize    分块大小
+     * @param length       文件总长度
+     * @param chunkDigests 按顺序排列的全部分块摘要
+     * @return 分块摘要结果, 分块数量与文件长度不符或算法不支持时返回 null
+     */
+    public static ChunkedDigest create(String algorithm, int chunkSize, long length, byte[][] chunkDigests) {
+        if (chunkDigests == null || chunkSize <= 0 || chunkDigests.length != getChunkCount(length, chunkSize))
+            return null;
+        try {
+            MessageDigest md = MessageDigest.getInstance(algorithm);
+            for (byte[] digest : chunkDigests) {
+                if (digest == null) return null;
+                md.update(digest);
+            }
+            return new ChunkedDigest(algorithm, chunkSize, length, chunkDigests, md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 计算分块数量, 空文件视为一个空分块
+     *
+     * @param length    文件长度
+     * @param chunkSize 分块大小
+     * @return 分块数量
+     */
+    public static int getChunkCount(long length, int chunkSize) {
+        if (length <= 0) return 1;
+        return (int) ((length + chunkSize - 1) / chunkSize);
+    }
+
+    public String getAlgorithm() {
+        return mAlgorithm;
+    }
+
+    public int getChunkSize() {
+        return mChunkSize;
+    }
+
+    public long getLength() {
+        return mLength;
+    }
+
+    public int getChunkCount() {
+        return mChunkDigests.length;
+    }
+
+    /**
+     * 获取根摘要
+     */
+    public byte[] getRootDigest() {
+        return mRootDigest.clone();
+    }
+
+    /**
+     * 获取指定分块的摘要
+     *
+     * @param index 分块序号
+     * @return 分块摘要
+     */
+    public byte[] getChunkDigest(int index) {
+        return mChunkDigests[index].clone();
+    }
+
+    /**
+     * 获取指定分块在文件中的起始位置
+     *
+     * @param index 分块序号
+     * @return 起始位置
+     */
+    public long getChunkOffset(int index) {
+        return (long) index * mChunkSize;
+    }
+
+    /**
+     * 校验指定分块的摘要
+     *
+     * @param index  分块序号
+     * @param digest 待校验的摘要
+     * @return true 一致; false 不一致
+     */
+    public boolean verifyChunk(int index, byte[] digest) {
+        return index >= 0 && index < mChunkDigests.length && MessageDigest.isEqual(mChunkDigests[index], digest);
+    }
+
+    /**
+     * 对比另一份分块摘要, 找出第一个不一致的分块
+     *
+     * @param other 另一份分块摘要
+     * @return 第一个不一致的分块序号, 完全一致返回 -1
+     */
+    public int firstMismatch(ChunkedDigest other) {
+        if (other == null || !mAlgorithm.equals(other.mAlgorithm) || mChunkSize != other.mChunkSize) return 0;
+        int count = Math.min(mChunkDigests.length, other.mChunkDigests.length);
+        for (int i = 0; i < count; i++) {
+            if (!Arrays.equals(mChunkDigests[i], other.mChunkDigests[i])) return i;
+        }
+        return mChunkDigests.length == other.mChunkDigests.length ? -1 : count;
+    }
+}
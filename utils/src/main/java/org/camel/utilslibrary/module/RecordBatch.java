@@ -0,0 +1,88 @@
+package org.camel.utilslibrary.module;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 批量记录
+ *             所有记录连续存放在同一个字节数组中, 通过偏移表定位, 避免为每条记录单独分配数组
+ * </pre>
+ */
+public class RecordBatch {
+
+    private final byte[] mData;
+    private final int[] mOffsets;
+
+    /**
+     * @param data    连续存放的记录数据
+     * @param offsets 偏移表, 长度为记录数 + 1, 第 i 条记录位于 [offsets[i], offsets[i + 1])
+     */
+    public RecordBatch(byte[] data, int[] offsets) {
+        if (data == null || offsets == null || offsets.length == 0 || offsets[offsets.length - 1] > data.length)
+            throw new IllegalArgumentException("Invalid record batch");
+        mData = data;
+        mOffsets = offsets;
+    }
+
+    /**
+     * 将多条记录拷贝到连续的字节数组中
+     *
+     * @param records 记录
+     * @return 批量记录
+     */
+    public static RecordBatch of(byte[]... records) {
+        int total = 0;
+        for (byte[] record : records) {
+            total += record.length;
+        }
+        byte[] data = new byte[total];
+        int[] offsets = new int[records.length + 1];
+        for (int i = 0; i < records.length; i++) {
+            System.arraycopy(records[i], 0, data, offsets[i], records[i].length);
+            offsets[i + 1] = offsets[i] + records[i].length;
+        }
+        return new RecordBatch(data, offsets);
+    }
+
+    /**
+     * 记录数量
+     */
+    public int size() {
+        return mOffsets.length - 1;
+    }
+
+    /**
+     * 获取底层字节数组, 不进行拷贝
+     */
+    public byte[] getData() {
+        return mData;
+    }
+
+    /**
+     * 获取偏移表, 不进行拷贝
+     */
+    public int[] getOffsets() {
+        return mOffsets;
+    }
+
+    public int getOffset(int index) {
+        return mOffsets[index];
+    }
+
+    public int getLength(int index) {
+        return mOffsets[index + 1] - mOffsets[index];
+    }
+
+    /**
+     * 拷贝出指定记录
+     *
+     * @param index 记录序号
+     * @return 记录数据
+     */
+    public byte[] getRecord(int index) {
+        byte[] record = new byte[getLength(index)];
+        System.arraycopy(mData, mOffsets[index], record, 0, record.length);
+        return record;
+    }
+}
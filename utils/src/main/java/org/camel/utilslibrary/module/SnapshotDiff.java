@@ -0,0 +1,62 @@
+package org.camel.utilslibrary.module;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 目录快照的差异
+ *             路径均为相对于快照根目录的路径, 以 '/' 分隔, 只包含文件
+ * </pre>
+ */
+public class SnapshotDiff {
+
+    private final List<String> mAdded;
+    private final List<String> mRemoved;
+    private final List<String> mModified;
+
+    public SnapshotDiff(List<String> added, List<String> removed, List<String> modified) {
+        Collections.sort(added);
+        Collections.sort(removed);
+        Collections.sort(modified);
+        mAdded = added;
+        mRemoved = removed;
+        mModified = modified;
+    }
+
+    /**
+     * 新增的文件
+     */
+    public List<String> getAdded() {
+        return mAdded;
+    }
+
+    /**
+     * 删除的文件
+     */
+    public List<String> getRemoved() {
+        return mRemoved;
+    }
+
+    /**
+     * 大小或修改时间发生变化的文件
+     */
+    public List<String> getModified() {
+        return mModified;
+    }
+
+    /**
+     * 是否没有任何变化
+     */
+    public boolean isEmpty() {
+        return mAdded.isEmpty() && mRemoved.isEmpty() && mModified.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotDiff{added=" + mAdded + ", removed=" + mRemoved + ", modified=" + mModified + '}';
+    }
+}
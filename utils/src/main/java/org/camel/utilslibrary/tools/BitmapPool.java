@@ -0,0 +1,321 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Build;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : Bitmap 缓存池
+ *             不再使用的 Bitmap 通过 {@link #put(Bitmap)} 放回池中, 解码和变换时优先复用, 减少大块内存的分配和 GC
+ *             API 19 及以上按分配的内存大小分组, 通过 reconfigure 复用任意不小于所需大小的 Bitmap;
+ *             API 19 以下按宽、高和 Config 精确分组
+ *             池中 Bitmap 的总内存不超过上限, 超出时按最久未使用优先回收
+ *
+ *             使用:
+ *             BitmapPool pool = new BitmapPool(16 * 1024 * 1024);
+ *             Bitmap bitmap = BitmapUtils.getBitmap(file, 400, 400, pool);
+ *             ...
+ *             BitmapUtils.release(bitmap, pool);
+ *
+ *             注: 1.放回池中的 Bitmap 不能再被使用, 也不要再调用 recycle()
+ *                 2.只有可变 (isMutable) 的 Bitmap 能放回池中, 通过本类解码的 Bitmap 都是可变的
+ *                 3.API 19 以下解码时只有 inSampleSize 为 1 且宽高完全相同才能复用
+ * </pre>
+ */
+public class BitmapPool {
+
+    // 复用的 Bitmap 最多为所需大小的倍数, 避免小图长期占用大块内存
+    private static final int MAX_SIZE_MULTIPLE = 4;
+
+    private final long mMaxSize;
+    private final boolean mReconfigurable = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+    // API 19 及以上: 分配大小 -> Bitmap
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> mSizeGroups = new TreeMap<>();
+    // API 19 以下: 宽x高:Config -> Bitmap
+    private final Map<String, ArrayDeque<Bitmap>> mKeyGroups = new HashMap<>();
+    // 按放入顺序排列, 最久未使用的在最前
+    private final LinkedHashSet<Bitmap> mLru = new LinkedHashSet<>();
+    private long mCurrentSize;
+    private long mHitCount;
+    private long mMissCount;
+    private long mPutCount;
+    private long mEvictionCount;
+
+    /**
+     * @param maxSize 池中 Bitmap 的总内存上限, 单位: B
+     */
+    public BitmapPool(long maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * 获取指定大小的 Bitmap, 像素已清空为透明
+     * <p>池中没有可复用的 Bitmap 时新建</p>
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @param config Config, 为 null 时使用 ARGB_8888
+     * @return 可变的 Bitmap
+     */
+    public Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = obtain(width, height, config);
+        if (bitmap == null) return Bitmap.createBitmap(width, height, config == null ? Bitmap.Config.ARGB_8888 : config);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * 获取指定大小的 Bitmap, 复用时不清空像素, 适用于会覆盖全部像素的场景
+     * <p>池中没有可复用的 Bitmap 时新建</p>
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @param config Config, 为 null 时使用 ARGB_8888
+     * @return 可变的 Bitmap, 像素内容不确定
+     */
+    public Bitmap getDirty(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = obtain(width, height, config);
+        if (bitmap == null) return Bitmap.createBitmap(width, height, config == null ? Bitmap.Config.ARGB_8888 : config);
+        return bitmap;
+    }
+
+    /**
+     * 将不再使用的 Bitmap 放回池中
+     * <p>不可复用 (已回收、不可变或超过上限) 的 Bitmap 直接回收</p>
+     *
+     * @param bitmap Bitmap 对象
+     * @return {@code true}: 已放入池中<br>{@code false}: 已回收
+     */
+    public boolean put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) return false;
+        synchronized (this) {
+            if (mLru.contains(bitmap)) return true;
+            int size = sizeOf(bitmap);
+            if (bitmap.isMutable() && size > 0 && size <= mMaxSize) {
+                group(bitmap, true).addLast(bitmap);
+                mLru.add(bitmap);
+                mCurrentSize += size;
+                mPutCount++;
+                evict(mMaxSize);
+                return true;
+            }
+        }
+        bitmap.recycle();
+        return false;
+    }
+
+    /**
+     * 为解码设置 {@link BitmapFactory.Options#inBitmap}
+     * <p>需先以 inJustDecodeBounds 解码得到原图宽高并设置好 inSampleSize; 同时设置 inMutable, 解码结果可放回池中</p>
+     * <p>解码抛出 IllegalArgumentException 或返回 null (decodeFile / decodeStream 会捕获异常) 时,
+     * 应将 inBitmap 放回池中并置为 null 后重新解码</p>
+     *
+     * @param options 解码参数
+     * @return {@code true}: 已设置复用的 Bitmap<br>{@code false}: 没有可复用的 Bitmap
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public boolean setInBitmap(BitmapFactory.Options options) {
+        options.inMutable = true;
+        options.inBitmap = null;
+        if (options.outWidth <= 0 || options.outHeight <= 0) return false;
+        // 解码器会将 inSampleSize 向下取整到 2 的幂次, 按取整后的值计算解码结果的大小
+        int sampleSize = Integer.highestOneBit(Math.max(1, options.inSampleSize));
+        if (!mReconfigurable && sampleSize != 1) {
+            synchronized (this) {
+                mMissCount++;
+            }
+            return false;
+        }
+        // 向上取整, 保证不小于解码结果
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+        options.inBitmap = obtain(width, height, options.inPreferredConfig);
+        return options.inBitmap != null;
+    }
+
+    /**
+     * 回收池中的 Bitmap, 直到总内存不超过指定大小
+     *
+     * @param size 目标大小, 单位: B
+     */
+    public synchronized void trimToSize(long size) {
+        evict(Math.max(0, size));
+    }
+
+    /**
+     * 回收池中所有 Bitmap
+     */
+    public synchronized void clear() {
+        evict(0);
+    }
+
+    /**
+     * @return 总内存上限, 单位: B
+     */
+    public long getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * @return 池中 Bitmap 占用的内存, 单位: B
+     */
+    public synchronized long getCurrentSize() {
+        return mCurrentSize;
+    }
+
+    /**
+     * @return 池中 Bitmap 的数量
+     */
+    public synchronized int getCount() {
+        return mLru.size();
+    }
+
+    /**
+     * @return 获取时复用成功的次数
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return 获取时没有可复用 Bitmap 的次数
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * @return 放入池中的次数
+     */
+    public synchronized long getPutCount() {
+        return mPutCount;
+    }
+
+    /**
+     * @return 因超出上限被回收的次数
+     */
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BitmapPool{size=" + mCurrentSize + "/" + mMaxSize + ", count=" + mLru.size()
+                + ", hits=" + mHitCount + ", misses=" + mMissCount + ", puts=" + mPutCount
+                + ", evictions=" + mEvictionCount + "}";
+    }
+
+    private synchronized Bitmap obtain(int width, int height, Bitmap.Config config) {
+        if (config == null) config = Bitmap.Config.ARGB_8888;
+        Bitmap bitmap = null;
+        if (mReconfigurable) {
+            int required = width * height * bytesPerPixel(config);
+            Map.Entry<Integer, ArrayDeque<Bitmap>> entry = mSizeGroups.ceilingEntry(required);
+            if (entry != null && entry.getKey() <= (long) required * MAX_SIZE_MULTIPLE) {
+                bitmap = entry.getValue().pollLast();
+            }
+        } else {
+            ArrayDeque<Bitmap> group = mKeyGroups.get(keyOf(width, height, config));
+            if (group != null) bitmap = group.pollLast();
+        }
+        if (bitmap == null) {
+            mMissCount++;
+            return null;
+        }
+        removeEmptyGroup(bitmap);
+        mLru.remove(bitmap);
+        mCurrentSize -= sizeOf(bitmap);
+        if (mReconfigurable) {
+            try {
+                reconfigure(bitmap, width, height, config);
+            } catch (IllegalArgumentException e) {
+                bitmap.recycle();
+                mMissCount++;
+                return null;
+            }
+        }
+        mHitCount++;
+        return bitmap;
+    }
+
+    private void evict(long maxSize) {
+        Iterator<Bitmap> iterator = mLru.iterator();
+        while (mCurrentSize > maxSize && iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            iterator.remove();
+            group(bitmap, false).remove(bitmap);
+            removeEmptyGroup(bitmap);
+            mCurrentSize -= sizeOf(bitmap);
+            mEvictionCount++;
+            bitmap.recycle();
+        }
+    }
+
+    private ArrayDeque<Bitmap> group(Bitmap bitmap, boolean create) {
+        ArrayDeque<Bitmap> group;
+        if (mReconfigurable) {
+            int size = sizeOf(bitmap);
+            group = mSizeGroups.get(size);
+            if (group == null && create) mSizeGroups.put(size, group = new ArrayDeque<Bitmap>());
+        } else {
+            String key = keyOf(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+            group = mKeyGroups.get(key);
+            if (group == null && create) mKeyGroups.put(key, group = new ArrayDeque<Bitmap>());
+        }
+        return group;
+    }
+
+    private void removeEmptyGroup(Bitmap bitmap) {
+        ArrayDeque<Bitmap> group = group(bitmap, false);
+        if (group == null || !group.isEmpty()) return;
+        if (mReconfigurable) {
+            mSizeGroups.remove(sizeOf(bitmap));
+        } else {
+            mKeyGroups.remove(keyOf(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig()));
+        }
+    }
+
+    private int sizeOf(Bitmap bitmap) {
+        return mReconfigurable ? allocationByteCount(bitmap) : bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int allocationByteCount(Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static void reconfigure(Bitmap bitmap, int width, int height, Bitmap.Config config) {
+        bitmap.reconfigure(width, height, config);
+        bitmap.setHasAlpha(true);
+    }
+
+    private static String keyOf(int width, int height, Bitmap.Config config) {
+        return width + "x" + height + ":" + config;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+}
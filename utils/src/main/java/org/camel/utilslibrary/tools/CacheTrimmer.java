@@ -0,0 +1,375 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.system.ErrnoException;
+import android.system.Os;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 缓存目录按容量裁剪
+ *             扫描目录建立文件索引 (大小和最后使用时间), 按最久未使用优先删除, 直到总大小和文件数都不超过限制
+ *             索引在内存中增量维护, 写入或读取缓存文件后调用 {@link #record(File)} 更新, 无需每次重新扫描;
+ *             索引以相对于缓存目录的路径为键, 同一文件以不同形式的路径 (相对路径、含 ".." 等) 传入时对应同一索引项
+ *             支持后台定时裁剪, 每次裁剪的结果通过 {@link Report} 返回
+ *
+ *             使用:
+ *             CacheTrimmer trimmer = new CacheTrimmer(cacheDir)
+ *                     .setMaxSize(50 * 1024 * 1024)
+ *                     .setMaxCount(2000);
+ *             trimmer.record(file);
+ *             CacheTrimmer.Report report = trimmer.trim();
+ *
+ *             注: 1.最后使用时间默认为修改时间, record() 会将其更新为当前时间; 也可开启访问时间 (API 21)
+ *                 2.多数设备以 relatime 挂载, 访问时间最多每天更新一次, 仅适合粗略判断
+ * </pre>
+ */
+public class CacheTrimmer {
+
+    private final File mDir;
+    private long mMaxSize = Long.MAX_VALUE;
+    private int mMaxCount = Integer.MAX_VALUE;
+    private boolean mUseAccessTime;
+    private OnTrimListener mListener;
+    // 缓存目录的规范路径
+    private String mDirPath;
+    // 相对于缓存目录的路径 -> 索引项, 为 null 时表示尚未扫描
+    private Map<String, Entry> mIndex;
+    private long mSize;
+    private ScheduledExecutorService mScheduler;
+
+    /**
+     * 定时裁剪的回调
+     */
+    public interface OnTrimListener {
+
+        /**
+         * 一次裁剪完成, 在后台线程中回调
+         *
+         * @param report 裁剪结果
+         */
+        void onTrimmed(Report report);
+    }
+
+    /**
+     * 裁剪结果
+     */
+    public static class Report {
+
+        private final List<File> mEvicted;
+        private final long mFreedSize;
+        private final long mSize;
+        private final int mCount;
+        private final List<IOException> mErrors;
+
+        Report(List<File> evicted, long freedSize, long size, int count, List<IOException> errors) {
+            mEvicted = evicted;
+            mFreedSize = freedSize;
+            mSize = size;
+            mCount = count;
+            mErrors = errors;
+        }
+
+        /**
+         * @return 被删除的文件, 按使用时间从旧到新排列
+         */
+        public List<File> getEvictedFiles() {
+            return mEvicted;
+        }
+
+        /**
+         * @return 释放的空间, 单位: B
+         */
+        public long getFreedSize() {
+            return mFreedSize;
+        }
+
+        /**
+         * @return 裁剪后的总大小, 单位: B
+         */
+        public long getSize() {
+            return mSize;
+        }
+
+        /**
+         * @return 裁剪后的文件数
+         */
+        public int getCount() {
+            return mCount;
+        }
+
+        /**
+         * @return 扫描或删除时的错误
+         */
+        public List<IOException> getErrors() {
+            return mErrors;
+        }
+    }
+
+    /**
+     * @param dir 缓存目录
+     */
+    public CacheTrimmer(File dir) {
+        mDir = dir;
+    }
+
+    /**
+     * 设置总大小上限, 默认不限制
+     *
+     * @param maxSize 大小上限, 单位: B
+     * @return CacheTrimmer
+     */
+    public synchronized CacheTrimmer setMaxSize(long maxSize) {
+        if (maxSize >= 0) mMaxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * 设置文件数上限, 默认不限制
+     *
+     * @param maxCount 文件数上限
+     * @return CacheTrimmer
+     */
+    public synchronized CacheTrimmer setMaxCount(int maxCount) {
+        if (maxCount >= 0) mMaxCount = maxCount;
+        return this;
+    }
+
+    /**
+     * 设置是否使用文件的访问时间作为最后使用时间, 仅 API 21 及以上有效, 修改后重新扫描
+     *
+     * @param useAccessTime 是否使用访问时间
+     * @return CacheTrimmer
+     */
+    public synchronized CacheTrimmer setUseAccessTime(boolean useAccessTime) {
+        mUseAccessTime = useAccessTime && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+        mIndex = null;
+        return this;
+    }
+
+    /**
+     * 设置定时裁剪的回调
+     *
+     * @param listener 回调
+     * @return CacheTrimmer
+     */
+    public synchronized CacheTrimmer setOnTrimListener(OnTrimListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 记录缓存文件被写入或使用, 将修改时间设为当前时间并更新索引
+     * <p>修改时间即最后使用时间, 因此索引尚未建立时也会更新修改时间, 之后扫描时生效;
+     * 不在缓存目录中的文件忽略, 不修改其修改时间</p>
+     *
+     * @param file 缓存文件
+     * @return {@code true}: 已记录<br>{@code false}: 文件不在缓存目录中
+     */
+    public synchronized boolean record(File file) {
+        String key = relativePath(file);
+        if (key == null) return false;
+        long now = System.currentTimeMillis();
+        file.setLastModified(now);
+        if (mIndex == null) return true;
+        Entry old = mIndex.remove(key);
+        if (old != null) mSize -= old.length;
+        if (file.isFile()) {
+            Entry entry = new Entry(key, new File(mDir, key), file.length(), now);
+            mIndex.put(key, entry);
+            mSize += entry.length;
+        }
+        return true;
+    }
+
+    /**
+     * 清除索引, 下次裁剪时重新扫描目录
+     */
+    public synchronized void invalidate() {
+        mIndex = null;
+    }
+
+    /**
+     * @return 缓存目录的总大小, 索引尚未建立时扫描目录
+     */
+    public synchronized long getSize() {
+        ensureIndex(new ArrayList<IOException>());
+        return mSize;
+    }
+
+    /**
+     * 按最久未使用优先删除文件, 直到总大小和文件数都不超过上限
+     *
+     * @return 裁剪结果
+     */
+    public synchronized Report trim() {
+        List<IOException> errors = new ArrayList<>();
+        ensureIndex(errors);
+        List<File> evicted = new ArrayList<>();
+        long freed = 0;
+        if (mSize > mMaxSize || mIndex.size() > mMaxCount) {
+            List<Entry> entries = new ArrayList<>(mIndex.values());
+            Collections.sort(entries, new Comparator<Entry>() {
+                @Override
+                public int compare(Entry lhs, Entry rhs) {
+                    return lhs.time < rhs.time ? -1 : (lhs.time == rhs.time ? 0 : 1);
+                }
+            });
+            for (Entry entry : entries) {
+                if (mSize <= mMaxSize && mIndex.size() <= mMaxCount) break;
+                if (!entry.file.delete() && entry.file.exists()) {
+                    errors.add(new IOException("Delete file failed: " + entry.file));
+                    continue;
+                }
+                mIndex.remove(entry.key);
+                mSize -= entry.length;
+                freed += entry.length;
+                evicted.add(entry.file);
+            }
+        }
+        return new Report(evicted, freed, mSize, mIndex.size(), errors);
+    }
+
+    /**
+     * 开始后台定时裁剪, 每次裁剪前重新扫描目录以发现其他途径写入的文件
+     *
+     * @param period 间隔
+     * @param unit   时间单位
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        mScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "CacheTrimmer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        mScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                Report report;
+                OnTrimListener listener;
+                synchronized (CacheTrimmer.this) {
+                    invalidate();
+                    report = trim();
+                    listener = mListener;
+                }
+                if (listener != null) listener.onTrimmed(report);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 停止后台定时裁剪
+     */
+    public synchronized void stop() {
+        if (mScheduler != null) {
+            mScheduler.shutdownNow();
+            mScheduler = null;
+        }
+    }
+
+    private void ensureIndex(List<IOException> errors) {
+        if (mIndex != null) return;
+        final Map<String, Entry> index = new HashMap<>();
+        if (mDir != null && mDir.isDirectory()) {
+            final int prefixLength = mDir.getPath().length() + 1;
+            DirectoryWalker.Result result = new DirectoryWalker().walk(mDir, new DirectoryWalker.Visitor() {
+                @Override
+                public void preVisitDirectory(File dir) {
+                }
+
+                @Override
+                public long visitFile(File file) {
+                    // 遍历得到的路径均为 mDir + 分隔符 + 相对路径
+                    String key = file.getPath().substring(prefixLength);
+                    Entry entry = new Entry(key, file, file.length(), lastUsed(file));
+                    synchronized (index) {
+                        index.put(key, entry);
+                    }
+                    return entry.length;
+                }
+
+                @Override
+                public void postVisitDirectory(File dir) {
+                }
+            });
+            errors.addAll(result.getErrors());
+            mSize = result.getByteCount();
+        } else {
+            mSize = 0;
+        }
+        mIndex = index;
+    }
+
+    /**
+     * 文件相对于缓存目录的路径
+     *
+     * @return 相对路径; 文件不在缓存目录中时返回 null
+     */
+    private String relativePath(File file) {
+        if (mDir == null || file == null) return null;
+        try {
+            if (mDirPath == null) mDirPath = mDir.getCanonicalPath();
+            // 只规范化父目录, 文件本身为符号链接时不解析
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent == null) return null;
+            String parentPath = parent.getCanonicalPath();
+            String name = file.getName();
+            if (name.isEmpty() || name.equals(".") || name.equals("..")) return null;
+            if (parentPath.equals(mDirPath)) return name;
+            if (!parentPath.startsWith(mDirPath + File.separator)) return null;
+            return parentPath.substring(mDirPath.length() + 1) + File.separator + name;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long lastUsed(File file) {
+        long modified = file.lastModified();
+        return mUseAccessTime ? Math.max(modified, accessTime(file)) : modified;
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static long accessTime(File file) {
+        try {
+            return Os.stat(file.getPath()).st_atime * 1000;
+        } catch (ErrnoException e) {
+            return 0;
+        }
+    }
+
+    private static class Entry {
+        // 相对于缓存目录的路径
+        final String key;
+        final File file;
+        final long length;
+        final long time;
+
+        Entry(String key, File file, long length, long time) {
+            this.key = key;
+            this.file = file;
+            this.length = length;
+            this.time = time;
+        }
+    }
+}
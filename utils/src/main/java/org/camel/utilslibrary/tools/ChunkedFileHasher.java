@@ -0,0 +1,219 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+import org.camel.utilslibrary.module.ChunkedDigest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 分块并行计算文件摘要
+ *             文件按固定大小分块, 由多个线程并行计算各分块摘要, 再合并为根摘要, 结果见 {@link ChunkedDigest}
+ *             适用于 GB 级别的大文件; 注意根摘要与整个文件直接计算的摘要不同, 两端需使用相同的算法和分块大小
+ *
+ *             使用:
+ *             ChunkedDigest digest = new ChunkedFileHasher("SHA-256")
+ *                     .setChunkSize(4 * 1024 * 1024)
+ *                     .hash(file);
+ * </pre>
+ */
+public class ChunkedFileHasher {
+
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    private final String mAlgorithm;
+    private int mChunkSize = DEFAULT_CHUNK_SIZE;
+    private int mThreadCount = Runtime.getRuntime().availableProcessors();
+    private ExecutorService mExecutor;
+    private ProgressListener mListener;
+
+    /**
+     * @param algorithm 摘要算法, 如 MD5 / SHA-1 / SHA-256
+     * @throws IllegalArgumentException 不支持该算法时抛出
+     */
+    public ChunkedFileHasher(String algorithm) {
+        try {
+            MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm, e);
+        }
+        mAlgorithm = algorithm;
+    }
+
+    /**
+     * 设置分块大小, 默认 4MB
+     *
+     * @param chunkSize 分块大小, 单位: B
+     * @return ChunkedFileHasher
+     */
+    public ChunkedFileHasher setChunkSize(int chunkSize) {
+        if (chunkSize > 0) mChunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * 设置并行线程数, 默认为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return ChunkedFileHasher
+     */
+    public ChunkedFileHasher setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行计算的线程池, 未设置时每次计算临时创建线程池并在结束后关闭
+     *
+     * @param executor 线程池
+     * @return ChunkedFileHasher
+     */
+    public ChunkedFileHasher setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置进度监听, 可通过监听的返回值取消计算
+     * <p>注: 回调在计算线程中执行</p>
+     *
+     * @param listener 进度监听
+     * @return ChunkedFileHasher
+     */
+    public ChunkedFileHasher setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 计算整个文件的分块摘要
+     *
+     * @param file 文件
+     * @return 分块摘要结果, 读取失败或被取消时返回 null
+     */
+    public ChunkedDigest hash(File file) {
+        if (file == null || !file.isFile()) return null;
+        int count = ChunkedDigest.getChunkCount(file.length(), mChunkSize);
+        byte[][] digests = hashChunks(file, 0, count);
+        if (digests == null) return null;
+        return ChunkedDigest.create(mAlgorithm, mChunkSize, file.length(), digests);
+    }
+
+    /**
+     * 计算指定范围内分块的摘要, 用于续传或校验部分数据
+     *
+     * @param file      文件
+     * @param fromIndex 起始分块序号 (包含)
+     * @param toIndex   结束分块序号 (不包含)
+     * @return 分块摘要数组, 下标 0 对应 fromIndex; 读取失败或被取消时返回 null
+     */
+    public byte[][] hashChunks(File file, final int fromIndex, final int toIndex) {
+        if (file == null || !file.isFile() || fromIndex < 0 || fromIndex >= toIndex) return null;
+        FileInputStream fis = null;
+        ExecutorService executor = mExecutor;
+        boolean ownExecutor = executor == null;
+        try {
+            fis = new FileInputStream(file);
+            final FileChannel channel = fis.getChannel();
+            final long length = channel.size();
+            if (toIndex > ChunkedDigest.getChunkCount(length, mChunkSize)) return null;
+
+            final byte[][] digests = new byte[toIndex - fromIndex][];
+            final AtomicInteger nextIndex = new AtomicInteger(fromIndex);
+            final AtomicLong hashedBytes = new AtomicLong();
+            final AtomicBoolean cancelled = new AtomicBoolean();
+            final long total = Math.min(length, (long) toIndex * mChunkSize) - (long) fromIndex * mChunkSize;
+            final long startTime = System.nanoTime();
+            int workers = Math.min(mThreadCount, digests.length);
+            if (ownExecutor) executor = Executors.newFixedThreadPool(workers);
+
+            // 每个线程持有自己的缓冲区和 MessageDigest, 循环领取下一个分块, 避免分块大小不均时线程空闲
+            List<Future<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        try {
+                            hashRemainingChunks();
+                        } catch (Exception e) {
+                            cancelled.set(true);
+                            throw e;
+                        }
+                        return null;
+                    }
+
+                    private void hashRemainingChunks() throws Exception {
+                        MessageDigest md = MessageDigest.getInstance(mAlgorithm);
+                        ByteBuffer buffer = ByteBuffer.allocate(Math.min(mChunkSize, READ_BUFFER_SIZE));
+                        int index;
+                        while (!cancelled.get() && (index = nextIndex.getAndIncrement()) < toIndex) {
+                            long position = (long) index * mChunkSize;
+                            long end = Math.min(length, position + mChunkSize);
+                            while (position < end) {
+                                buffer.clear();
+                                if (end - position < buffer.capacity()) buffer.limit((int) (end - position));
+                                int len = channel.read(buffer, position);
+                                if (len < 0) throw new IOException("Unexpected end of file");
+                                md.update(buffer.array(), 0, len);
+                                position += len;
+                                long current = hashedBytes.addAndGet(len);
+                                if (!notifyProgress(current, total, startTime)) {
+                                    cancelled.set(true);
+                                    return;
+                                }
+                            }
+                            digests[index - fromIndex] = md.digest();
+                        }
+                    }
+                }));
+            }
+            // 等待全部线程结束后再关闭文件, 出错的线程会通知其他线程尽快停止
+            ExecutionException error = null;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (error == null) error = e;
+                }
+            }
+            if (error != null) throw error;
+            return cancelled.get() ? null : digests;
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            if (ownExecutor && executor != null) executor.shutdownNow();
+            IOUtils.close(fis);
+        }
+    }
+
+    private boolean notifyProgress(long current, long total, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        synchronized (this) {
+            return mListener.onProgress(current, total, speed);
+        }
+    }
+}
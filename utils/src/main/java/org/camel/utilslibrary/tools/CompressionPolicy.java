@@ -0,0 +1,199 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.MimeTypeUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : zip 压缩策略
+ *             决定每个条目使用 STORED (原样存储) 还是 DEFLATED (压缩), 以及压缩级别
+ *             JPEG/PNG/MP4/ZIP 等已压缩的格式再次压缩几乎没有收益, 原样存储可节省大量 CPU 时间
+ *             判断依据依次为: 内置及自定义的扩展名, MimeType (图片、音频、视频), 文件开头数据的信息熵
+ *
+ *             使用:
+ *             new ParallelZipper()
+ *                     .setCompressionPolicy(CompressionPolicy.auto(Deflater.BEST_SPEED))
+ *                     .zip(files, zipFile);
+ * </pre>
+ */
+public class CompressionPolicy {
+
+    /**
+     * 熵采样的数据量
+     */
+    public static final int SAMPLE_SIZE = 16 * 1024;
+
+    private static final Set<String> STORED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "heif",
+            "mp3", "m4a", "aac", "ogg", "oga", "opus", "amr", "flac",
+            "mp4", "m4v", "3gp", "mkv", "webm", "mov", "avi",
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "br", "lz4",
+            "apk", "jar", "aar", "epub"));
+    // MimeType 属于图片、音频、视频但数据未压缩的格式
+    private static final Set<String> RAW_MEDIA_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "bmp", "svg", "tif", "tiff", "wav", "aif", "aiff", "pcm", "yuv", "raw"));
+
+    private final boolean mAuto;
+    private final int mLevel;
+    private final Set<String> mStoredExtensions = new HashSet<>();
+    private double mEntropyThreshold = 7.5;
+    private boolean mSampling = true;
+
+    /**
+     * @param auto  是否自动判断原样存储的条目, false 时全部压缩
+     * @param level 压缩级别 0-9, 或 {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public CompressionPolicy(boolean auto, int level) {
+        mAuto = auto;
+        mLevel = level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION
+                ? Deflater.DEFAULT_COMPRESSION : level;
+    }
+
+    /**
+     * 全部压缩
+     *
+     * @param level 压缩级别
+     * @return CompressionPolicy
+     */
+    public static CompressionPolicy deflateAll(int level) {
+        return new CompressionPolicy(false, level);
+    }
+
+    /**
+     * 已压缩的格式原样存储, 其余压缩
+     *
+     * @param level 压缩级别
+     * @return CompressionPolicy
+     */
+    public static CompressionPolicy auto(int level) {
+        return new CompressionPolicy(true, level);
+    }
+
+    /**
+     * 添加需要原样存储的扩展名
+     *
+     * @param extensions 扩展名, 不带 "."
+     * @return CompressionPolicy
+     */
+    public CompressionPolicy addStoredExtensions(String... extensions) {
+        for (String extension : extensions) {
+            mStoredExtensions.add(extension.toLowerCase(Locale.US));
+        }
+        return this;
+    }
+
+    /**
+     * 设置是否对扩展名无法判断的文件进行熵采样, 默认开启
+     *
+     * @param sampling 是否采样
+     * @return CompressionPolicy
+     */
+    public CompressionPolicy setSampling(boolean sampling) {
+        mSampling = sampling;
+        return this;
+    }
+
+    /**
+     * 设置信息熵阈值, 采样数据的熵 (每字节比特数) 不低于该值时原样存储, 默认 7.5
+     *
+     * @param threshold 阈值, 0-8
+     * @return CompressionPolicy
+     */
+    public CompressionPolicy setEntropyThreshold(double threshold) {
+        mEntropyThreshold = threshold;
+        return this;
+    }
+
+    public int getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * 根据文件名判断是否原样存储
+     *
+     * @param fileName 文件名
+     * @return true 原样存储; false 无法判断或需要压缩
+     */
+    public boolean isStoredByName(String fileName) {
+        if (!mAuto || fileName == null) return false;
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) return false;
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.US);
+        if (STORED_EXTENSIONS.contains(extension) || mStoredExtensions.contains(extension)) return true;
+        if (RAW_MEDIA_EXTENSIONS.contains(extension)) return false;
+        String mimeType = MimeTypeUtils.getMimeTypeFromExtension(extension);
+        return mimeType != null
+                && (mimeType.startsWith("image/") || mimeType.startsWith("audio/") || mimeType.startsWith("video/"));
+    }
+
+    /**
+     * 根据采样数据的信息熵判断是否原样存储
+     *
+     * @param data   采样数据, 通常为文件开头的 {@link #SAMPLE_SIZE} 字节
+     * @param offset 起始位置
+     * @param length 长度
+     * @return true 原样存储; false 需要压缩
+     */
+    public boolean isStoredBySample(byte[] data, int offset, int length) {
+        if (!mAuto || !mSampling || length < 1024) return false;
+        return entropy(data, offset, Math.min(length, SAMPLE_SIZE)) >= mEntropyThreshold;
+    }
+
+    /**
+     * 判断文件是否原样存储, 扩展名无法判断时读取文件开头数据采样
+     *
+     * @param file 文件
+     * @return true 原样存储; false 需要压缩
+     */
+    public boolean isStored(File file) {
+        if (!mAuto) return false;
+        if (isStoredByName(file.getName())) return true;
+        if (!mSampling) return false;
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            byte[] sample = new byte[SAMPLE_SIZE];
+            int length = 0;
+            int len;
+            while (length < sample.length && (len = fis.read(sample, length, sample.length - length)) != -1) {
+                length += len;
+            }
+            return isStoredBySample(sample, 0, length);
+        } catch (IOException e) {
+            return false;
+        } finally {
+            IOUtils.close(fis);
+        }
+    }
+
+    /**
+     * 计算数据的香农熵
+     *
+     * @return 每字节的比特数, 0-8
+     */
+    private static double entropy(byte[] data, int offset, int length) {
+        int[] counts = new int[256];
+        for (int i = offset, end = offset + length; i < end; i++) {
+            counts[data[i] & 0xff]++;
+        }
+        double entropy = 0;
+        for (int count : counts) {
+            if (count == 0) continue;
+            double p = (double) count / length;
+            entropy -= p * Math.log(p);
+        }
+        return entropy / Math.log(2);
+    }
+}
@@ -0,0 +1,224 @@
+package org.camel.utilslibrary.tools;
+
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 加密对象池
+ *             按线程缓存 MessageDigest / Mac / Cipher 实例, 避免每次调用都进行 Provider 查找和对象创建;
+ *             Mac 额外缓存最近一次使用的秘钥, 相同秘钥的重复调用不再执行 init
+ *
+ *             注: 取得的实例只能在当前线程内立即使用, 不要跨线程传递或长期持有,
+ *                 也不要在使用过程中再次获取同一算法的实例
+ * </pre>
+ */
+public final class CryptoPool {
+
+    private static final ThreadLocal<Map<String, MessageDigest>> sDigests = new ThreadLocal<Map<String, MessageDigest>>() {
+        @Override
+        protected Map<String, MessageDigest> initialValue() {
+            return new HashMap<>();
+        }
+    };
+    private static final ThreadLocal<Map<String, KeyedInstance<Mac>>> sMacs = new ThreadLocal<Map<String, KeyedInstance<Mac>>>() {
+        @Override
+        protected Map<String, KeyedInstance<Mac>> initialValue() {
+            return new HashMap<>();
+        }
+    };
+    private static final ThreadLocal<Map<String, Cipher>> sCiphers = new ThreadLocal<Map<String, Cipher>>() {
+        @Override
+        protected Map<String, Cipher> initialValue() {
+            return new HashMap<>();
+        }
+    };
+    private static volatile SecureRandom sSecureRandom;
+
+    private CryptoPool() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    /**
+     * 获取当前线程缓存的 MessageDigest, 返回前已重置
+     *
+     * @param algorithm 摘要算法
+     * @return MessageDigest
+     * @throws NoSuchAlgorithmException 不支持该算法时抛出
+     */
+    public static MessageDigest getMessageDigest(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, MessageDigest> digests = sDigests.get();
+        MessageDigest md = digests.get(algorithm);
+        if (md == null) {
+            md = MessageDigest.getInstance(algorithm);
+            digests.put(algorithm, md);
+        } else {
+            md.reset();
+        }
+        return md;
+    }
+
+    /**
+     * 获取当前线程缓存的 Mac, 并使用指定秘钥初始化
+     * <p>秘钥与该线程上一次使用的秘钥相同时跳过 init, 仅重置状态</p>
+     *
+     * @param algorithm Hmac 算法
+     * @param key       秘钥
+     * @return 已初始化的 Mac
+     * @throws NoSuchAlgorithmException 不支持该算法时抛出
+     * @throws InvalidKeyException      秘钥无效时抛出
+     */
+    public static Mac getMac(String algorithm, byte[] key) throws NoSuchAlgorithmException, InvalidKeyException {
+        Map<String, KeyedInstance<Mac>> macs = sMacs.get();
+        KeyedInstance<Mac> cached = macs.get(algorithm);
+        if (cached == null) {
+            cached = new KeyedInstance<>(Mac.getInstance(algorithm));
+            macs.put(algorithm, cached);
+        }
+        if (cached.key != null && Arrays.equals(cached.key, key)) {
+            cached.instance.reset();
+        } else {
+            cached.key = null;
+            cached.instance.init(new SecretKeySpec(key, algorithm));
+            cached.key = key.clone();
+        }
+        return cached.instance;
+    }
+
+    /**
+     * 获取当前线程缓存的 Cipher, 使用前需自行调用 init
+     *
+     * @param transformation 转变, 如 AES/CBC/PKCS5Padding
+     * @return Cipher
+     * @throws NoSuchAlgorithmException 不支持该算法时抛出
+     * @throws NoSuchPaddingException   不支持该填充方式时抛出
+     */
+    public static Cipher getCipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+        Map<String, Cipher> ciphers = sCiphers.get();
+        Cipher cipher = ciphers.get(transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            ciphers.put(transformation, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * 获取共享的 SecureRandom, SecureRandom 本身是线程安全的
+     *
+     * @return SecureRandom
+     */
+    public static SecureRandom getSecureRandom() {
+        if (sSecureRandom == null) {
+            synchronized (CryptoPool.class) {
+                if (sSecureRandom == null) {
+                    sSecureRandom = new SecureRandom();
+                }
+            }
+        }
+        return sSecureRandom;
+    }
+
+    /**
+     * 创建绑定秘钥的 Hmac 句柄
+     * <p>适用于使用同一秘钥大量计算签名的场景, 句柄可在多线程间共享</p>
+     *
+     * @param algorithm Hmac 算法, 如 HmacSHA256
+     * @param key       秘钥
+     * @return Hmac 句柄
+     * @throws IllegalArgumentException 不支持该算法或秘钥无效时抛出
+     */
+    public static KeyedMac newKeyedMac(String algorithm, byte[] key) {
+        return new KeyedMac(algorithm, key);
+    }
+
+    /**
+     * 清除当前线程缓存的所有实例
+     */
+    public static void clear() {
+        sDigests.remove();
+        sMacs.remove();
+        sCiphers.remove();
+    }
+
+    private static class KeyedInstance<T> {
+        final T instance;
+        byte[] key;
+
+        KeyedInstance(T instance) {
+            this.instance = instance;
+        }
+    }
+
+    /**
+     * 绑定秘钥的 Hmac 句柄, 每个线程持有一个已初始化的 Mac 实例
+     */
+    public static final class KeyedMac {
+
+        private final String mAlgorithm;
+        private final SecretKeySpec mKey;
+        private final ThreadLocal<Mac> mMac = new ThreadLocal<>();
+
+        private KeyedMac(String algorithm, byte[] key) {
+            mAlgorithm = algorithm;
+            mKey = new SecretKeySpec(key, algorithm);
+            // 提前检查算法和秘钥, 避免在使用时才抛出异常
+            newMac();
+        }
+
+        /**
+         * 计算 Hmac
+         *
+         * @param data 数据
+         * @return Hmac 结果
+         */
+        public byte[] doFinal(byte[] data) {
+            return doFinal(data, 0, data.length);
+        }
+
+        /**
+         * 计算 Hmac
+         *
+         * @param data   数据
+         * @param offset 起始位置
+         * @param length 长度
+         * @return Hmac 结果
+         */
+        public byte[] doFinal(byte[] data, int offset, int length) {
+            Mac mac = mMac.get();
+            if (mac == null) {
+                mac = newMac();
+                mMac.set(mac);
+            }
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        }
+
+        public String getAlgorithm() {
+            return mAlgorithm;
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance(mAlgorithm);
+                mac.init(mKey);
+                return mac;
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new IllegalArgumentException("Unsupported algorithm or key: " + mAlgorithm, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package org.camel.utilslibrary.tools;
+
+import android.os.FileObserver;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.module.SnapshotDiff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 目录快照
+ *             记录目录树中每个文件的相对路径、大小和修改时间, 可保存为紧凑的索引文件, 并与当前目录比较得到新增、删除和修改的文件
+ *             两种更新方式:
+ *             1.轮询: 未开启监听时, {@link #update()} 重新扫描整个目录 (并行) 后比较
+ *             2.增量: {@link #startWatching()} 为每个目录注册 {@link FileObserver}, 只记录发生变化的路径,
+ *               {@link #update()} 只检查这些路径, 耗时与变化数量成正比, 与目录大小无关
+ *
+ *             使用:
+ *             DirectorySnapshot snapshot = DirectorySnapshot.load(indexFile, dir);
+ *             snapshot.startWatching();
+ *             SnapshotDiff diff = snapshot.update();
+ *             snapshot.save(indexFile);
+ *
+ *             注: 1.路径均相对于根目录, 以 '/' 分隔, 只记录文件, 不记录空目录
+ *                 2.每个目录占用一个 inotify 监听, 系统对监听总数有限制, 超大目录树建议使用轮询
+ * </pre>
+ */
+public class DirectorySnapshot {
+
+    private static final int MAGIC = 0x44534e31; // "DSN1"
+    private static final int EVENTS = FileObserver.CREATE | FileObserver.DELETE | FileObserver.MODIFY
+            | FileObserver.CLOSE_WRITE | FileObserver.ATTRIB | FileObserver.MOVED_FROM | FileObserver.MOVED_TO
+            | FileObserver.DELETE_SELF | FileObserver.MOVE_SELF;
+
+    private final File mRoot;
+    private final String mRootPath;
+    // 相对路径 -> {大小, 修改时间}, 有序以便按目录前缀查找
+    private final TreeMap<String, long[]> mEntries;
+    // 相对目录路径 -> 监听, 有序以便按目录前缀移除, 为 null 时表示未开启监听
+    private SortedMap<String, FileObserver> mObservers;
+    // 监听到变化的相对路径
+    private final Set<String> mDirty = new HashSet<>();
+    // 监听的目录已被删除或移动, 不再有效的监听
+    private final Set<Observer> mDeadObservers = new HashSet<>();
+    // 监听失效 (如根目录被移动或不存在) 时需要完整扫描
+    private boolean mNeedRescan;
+
+    private DirectorySnapshot(File root, TreeMap<String, long[]> entries) {
+        mRoot = root;
+        mRootPath = root.getPath();
+        mEntries = entries;
+    }
+
+    /**
+     * 扫描目录创建快照
+     *
+     * @param root 根目录
+     * @return 快照, 目录不存在时为空快照
+     */
+    public static DirectorySnapshot scan(File root) {
+        DirectorySnapshot snapshot = new DirectorySnapshot(root, new TreeMap<String, long[]>());
+        snapshot.mEntries.putAll(snapshot.scanTree(root, null));
+        return snapshot;
+    }
+
+    /**
+     * 读取保存的快照
+     *
+     * @param indexFile 索引文件
+     * @param root      根目录, 索引文件不存在、损坏或根目录不一致时重新扫描
+     * @return 快照
+     */
+    public static DirectorySnapshot load(File indexFile, File root) {
+        if (indexFile == null || !indexFile.isFile()) return scan(root);
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+            if (in.readInt() != MAGIC || !root.getPath().equals(in.readUTF())) return scan(root);
+            int count = in.readInt();
+            TreeMap<String, long[]> entries = new TreeMap<>();
+            String previous = "";
+            for (int i = 0; i < count; i++) {
+                // 路径按前缀压缩: 与上一条路径相同的前缀长度 + 剩余部分
+                int prefix = in.readUnsignedShort();
+                String path = previous.substring(0, prefix) + in.readUTF();
+                entries.put(path, new long[]{in.readLong(), in.readLong()});
+                previous = path;
+            }
+            return new DirectorySnapshot(root, entries);
+        } catch (IOException | RuntimeException e) {
+            return scan(root);
+        } finally {
+            IOUtils.close(in);
+        }
+    }
+
+    /**
+     * 保存快照, 先写入临时文件再重命名
+     *
+     * @param indexFile 索引文件
+     * @throws IOException IO错误时抛出
+     */
+    public synchronized void save(File indexFile) throws IOException {
+        File tmp = new File(indexFile.getPath() + ".tmp");
+        DataOutputStream out = null;
+        boolean success = false;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(MAGIC);
+            out.writeUTF(mRootPath);
+            out.writeInt(mEntries.size());
+            String previous = "";
+            for (Map.Entry<String, long[]> entry : mEntries.entrySet()) {
+                String path = entry.getKey();
+                int prefix = commonPrefix(previous, path);
+                out.writeShort(prefix);
+                out.writeUTF(path.substring(prefix));
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+                previous = path;
+            }
+            out.close();
+            out = null;
+            if (!tmp.renameTo(indexFile) && !(indexFile.delete() && tmp.renameTo(indexFile)))
+                throw new IOException("Rename index file failed: " + indexFile);
+            success = true;
+        } finally {
+            IOUtils.close(out);
+            if (!success) tmp.delete();
+        }
+    }
+
+    public File getRoot() {
+        return mRoot;
+    }
+
+    /**
+     * @return 文件数量
+     */
+    public synchronized int getFileCount() {
+        return mEntries.size();
+    }
+
+    /**
+     * @return 全部文件的相对路径, 按字典序排列
+     */
+    public synchronized List<String> getPaths() {
+        return new ArrayList<>(mEntries.keySet());
+    }
+
+    /**
+     * @param path 相对路径
+     * @return 文件大小, 不存在时返回 -1
+     */
+    public synchronized long getLength(String path) {
+        long[] entry = mEntries.get(path);
+        return entry == null ? -1 : entry[0];
+    }
+
+    /**
+     * @param path 相对路径
+     * @return 修改时间, 不存在时返回 -1
+     */
+    public synchronized long getLastModified(String path) {
+        long[] entry = mEntries.get(path);
+        return entry == null ? -1 : entry[1];
+    }
+
+    /**
+     * 与另一个快照比较, 不修改两个快照
+     *
+     * @param newer 较新的快照
+     * @return 从当前快照到 newer 的变化
+     */
+    public synchronized SnapshotDiff diff(DirectorySnapshot newer) {
+        synchronized (newer) {
+            return diff(mEntries, newer.mEntries);
+        }
+    }
+
+    /**
+     * 开始监听目录变化, 之后的 {@link #update()} 只检查发生变化的路径
+     * <p>注册监听时会遍历整个目录, 与快照不一致的路径 (如 {@link #load} 之后、进程未运行期间的变化)
+     * 会在下一次 {@link #update()} 中返回</p>
+     * <p>根目录不存在时每次 {@link #update()} 都会重新扫描, 直到根目录被创建</p>
+     */
+    public synchronized void startWatching() {
+        if (mObservers != null) return;
+        mObservers = newObservers();
+        // 遍历目录结构注册监听, 同时找出与快照不一致的路径
+        SnapshotDiff diff = diff(mEntries, scanTree(mRoot, ""));
+        synchronized (mDirty) {
+            mNeedRescan = !mObservers.containsKey("");
+            mDirty.addAll(diff.getAdded());
+            mDirty.addAll(diff.getRemoved());
+            mDirty.addAll(diff.getModified());
+        }
+    }
+
+    /**
+     * 停止监听, 之后的 {@link #update()} 重新扫描整个目录
+     */
+    public synchronized void stopWatching() {
+        if (mObservers == null) return;
+        for (FileObserver observer : mObservers.values()) {
+            observer.stopWatching();
+        }
+        mObservers = null;
+        synchronized (mDirty) {
+            mDirty.clear();
+            mDeadObservers.clear();
+            mNeedRescan = false;
+        }
+    }
+
+    public synchronized boolean isWatching() {
+        return mObservers != null;
+    }
+
+    /**
+     * 将快照更新为目录的当前状态
+     *
+     * @return 上次更新以来的变化
+     */
+    public synchronized SnapshotDiff update() {
+        Set<String> dirty;
+        Set<Observer> dead;
+        boolean rescan;
+        synchronized (mDirty) {
+            dirty = new HashSet<>(mDirty);
+            mDirty.clear();
+            dead = new HashSet<>(mDeadObservers);
+            mDeadObservers.clear();
+            rescan = mNeedRescan;
+            mNeedRescan = false;
+        }
+        if (mObservers == null || rescan) {
+            if (mObservers != null) {
+                // 根目录被删除或移动过, 重新注册全部监听
+                stopWatching();
+                mObservers = newObservers();
+            }
+            TreeMap<String, long[]> current = scanTree(mRoot, mObservers == null ? null : "");
+            if (mObservers != null && !mObservers.containsKey("")) {
+                // 根目录不存在, 没有可注册的监听, 下次继续扫描直到根目录被创建
+                synchronized (mDirty) {
+                    mNeedRescan = true;
+                }
+            }
+            SnapshotDiff diff = diff(mEntries, current);
+            mEntries.clear();
+            mEntries.putAll(current);
+            return diff;
+        }
+
+        // 失效的监听仍绑定在已删除的目录上, 移除后该目录的变化由下面的重新扫描处理
+        for (Observer observer : dead) {
+            if (mObservers.get(observer.relPath) == observer) mObservers.remove(observer.relPath);
+            observer.stopWatching();
+        }
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> modified = new ArrayList<>();
+        for (String path : dirty) {
+            File file = new File(mRoot, path);
+            String prefix = path + '/';
+            if (file.isFile()) {
+                // 原来可能是同名目录
+                removeSubtree(prefix, removed);
+                long[] entry = {file.length(), file.lastModified()};
+                long[] old = mEntries.put(path, entry);
+                if (old == null) {
+                    added.add(path);
+                } else if (old[0] != entry[0] || old[1] != entry[1]) {
+                    modified.add(path);
+                }
+            } else if (file.isDirectory()) {
+                // 新建、移入或删除后重建的目录: 整体替换原有记录, 重新注册监听并扫描
+                if (mEntries.remove(path) != null) removed.add(path);
+                SortedMap<String, long[]> children = mEntries.subMap(prefix, prefix + Character.MAX_VALUE);
+                TreeMap<String, long[]> older = new TreeMap<>(children);
+                children.clear();
+                stopObservers(path, prefix);
+                TreeMap<String, long[]> current = scanTree(file, path);
+                mEntries.putAll(current);
+                SnapshotDiff diff = diff(older, current);
+                added.addAll(diff.getAdded());
+                removed.addAll(diff.getRemoved());
+                modified.addAll(diff.getModified());
+            } else {
+                // 已删除或移出: 文件本身或目录下的全部文件
+                if (mEntries.remove(path) != null) removed.add(path);
+                removeSubtree(prefix, removed);
+                stopObservers(path, prefix);
+            }
+        }
+        return new SnapshotDiff(added, removed, modified);
+    }
+
+    private void removeSubtree(String prefix, List<String> removed) {
+        SortedMap<String, long[]> children = mEntries.subMap(prefix, prefix + Character.MAX_VALUE);
+        removed.addAll(children.keySet());
+        children.clear();
+    }
+
+    /**
+     * 停止目录及其子目录的监听
+     */
+    private void stopObservers(String path, String prefix) {
+        synchronized (mObservers) {
+            FileObserver observer = mObservers.remove(path);
+            if (observer != null) observer.stopWatching();
+            SortedMap<String, FileObserver> children = mObservers.subMap(prefix, prefix + Character.MAX_VALUE);
+            for (FileObserver child : children.values()) {
+                child.stopWatching();
+            }
+            children.clear();
+        }
+    }
+
+    private static SortedMap<String, FileObserver> newObservers() {
+        // 遍历线程中注册监听时会写入
+        return Collections.synchronizedSortedMap(new TreeMap<String, FileObserver>());
+    }
+
+    /**
+     * 扫描目录树, 开启监听时同时为每个目录注册监听
+     *
+     * @param dir     目录
+     * @param relPath 目录的相对路径, 为 null 时表示根目录且不注册监听
+     */
+    private TreeMap<String, long[]> scanTree(File dir, final String relPath) {
+        final TreeMap<String, long[]> entries = new TreeMap<>();
+        if (!dir.isDirectory()) return entries;
+        final boolean watch = relPath != null && mObservers != null;
+        final int rootLength = mRootPath.length() + 1;
+        new DirectoryWalker().walk(dir, new DirectoryWalker.Visitor() {
+            @Override
+            public void preVisitDirectory(File d) {
+                // 先注册监听再列出内容, 避免遗漏期间创建的文件
+                if (watch) watch(d.getPath().length() < rootLength ? "" : relative(d, rootLength));
+            }
+
+            @Override
+            public long visitFile(File file) {
+                long[] entry = {file.length(), file.lastModified()};
+                synchronized (entries) {
+                    entries.put(relative(file, rootLength), entry);
+                }
+                return entry[0];
+            }
+
+            @Override
+            public void postVisitDirectory(File d) {
+            }
+        });
+        return entries;
+    }
+
+    private void watch(String relPath) {
+        Observer observer = new Observer(relPath);
+        FileObserver old = mObservers.put(relPath, observer);
+        if (old != null) old.stopWatching();
+        observer.startWatching();
+    }
+
+    /**
+     * 单个目录的监听
+     */
+    private class Observer extends FileObserver {
+
+        final String relPath;
+
+        Observer(String relPath) {
+            super(relPath.isEmpty() ? mRootPath : mRootPath + '/' + relPath, EVENTS);
+            this.relPath = relPath;
+        }
+
+        @Override
+        public void onEvent(int event, String path) {
+            synchronized (mDirty) {
+                if ((event & (FileObserver.DELETE_SELF | FileObserver.MOVE_SELF)) != 0) {
+                    if (relPath.isEmpty()) {
+                        mNeedRescan = true;
+                    } else {
+                        // 监听绑定的目录已不在原位置, 同名目录重建后需要重新注册
+                        mDeadObservers.add(this);
+                        mDirty.add(relPath);
+                    }
+                } else if (path != null) {
+                    mDirty.add(relPath.isEmpty() ? path : relPath + '/' + path);
+                }
+            }
+        }
+    }
+
+    private static String relative(File file, int rootLength) {
+        String path = file.getPath().substring(rootLength);
+        return File.separatorChar == '/' ? path : path.replace(File.separatorChar, '/');
+    }
+
+    private static SnapshotDiff diff(TreeMap<String, long[]> older, TreeMap<String, long[]> newer) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> modified = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : newer.entrySet()) {
+            long[] old = older.get(entry.getKey());
+            if (old == null) {
+                added.add(entry.getKey());
+            } else if (old[0] != entry.getValue()[0] || old[1] != entry.getValue()[1]) {
+                modified.add(entry.getKey());
+            }
+        }
+        for (String path : older.keySet()) {
+            if (!newer.containsKey(path)) removed.add(path);
+        }
+        return new SnapshotDiff(added, removed, modified);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(Math.min(a.length(), b.length()), 0xffff);
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,520 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 并行目录遍历
+ *             每个子目录作为独立任务提交到线程池, 目录内的文件按批次并行处理, 适用于包含大量文件的目录
+ *             子目录全部处理完成后才回调该目录的 {@link Visitor#postVisitDirectory}, 可用于删除或移动目录
+ *             单个文件出错时记录错误并继续处理其他文件, 结束后通过 {@link Result#getErrors()} 获取
+ *
+ *             使用:
+ *             DirectoryWalker.Result result = new DirectoryWalker()
+ *                     .setProgressCallback(callback)
+ *                     .delete(cacheDir, false);
+ *
+ *             注: 1.提供了统计大小 ({@link #size}), 删除 ({@link #delete}), 复制或移动 ({@link #copy}) 三种操作
+ *                 2.{@link Visitor} 的方法在多个线程中同时调用
+ *                 3.未设置线程池和线程数时使用共享的后台线程池; 目录树中的文件和子目录总数不超过
+ *                   {@link #SEQUENTIAL_THRESHOLD} 时直接在调用线程中遍历, 避免线程调度的开销
+ * </pre>
+ */
+public class DirectoryWalker {
+
+    /**
+     * 目录树中的文件和子目录总数不超过该值时, 在调用线程中顺序遍历
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 256;
+    // 每个任务处理的文件数量
+    private static final int FILE_BATCH = 64;
+
+    private static volatile ExecutorService sExecutor;
+
+    // 在调用线程中直接执行任务
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // 为 0 时使用共享线程池
+    private int mThreadCount;
+    private ExecutorService mExecutor;
+    private ProgressCallback mCallback;
+
+    /**
+     * 遍历回调, 可能被多个线程同时调用
+     */
+    public interface Visitor {
+
+        /**
+         * 列出目录内容之前调用, 抛出异常时跳过该目录
+         *
+         * @param dir 目录
+         * @throws IOException 出错时抛出, 记录到结果中
+         */
+        void preVisitDirectory(File dir) throws IOException;
+
+        /**
+         * 处理文件
+         *
+         * @param file 文件
+         * @return 处理的字节数, 计入进度
+         * @throws IOException 出错时抛出, 记录到结果中
+         */
+        long visitFile(File file) throws IOException;
+
+        /**
+         * 目录中所有文件和子目录都处理完成后调用, 目录的 preVisitDirectory 出错或遍历被取消时不调用
+         *
+         * @param dir 目录
+         * @throws IOException 出错时抛出, 记录到结果中
+         */
+        void postVisitDirectory(File dir) throws IOException;
+    }
+
+    /**
+     * 进度回调
+     */
+    public interface ProgressCallback {
+
+        /**
+         * 进度回调
+         *
+         * @param files 已处理的文件数
+         * @param bytes 已处理的字节数
+         * @return true 继续执行; false 取消遍历
+         */
+        boolean onProgress(long files, long bytes);
+    }
+
+    /**
+     * 遍历结果
+     */
+    public static class Result {
+
+        private final long mFiles;
+        private final long mBytes;
+        private final List<IOException> mErrors;
+        private final boolean mCancelled;
+
+        Result(long files, long bytes, List<IOException> errors, boolean cancelled) {
+            mFiles = files;
+            mBytes = bytes;
+            mErrors = errors;
+            mCancelled = cancelled;
+        }
+
+        /**
+         * @return 已处理的文件数
+         */
+        public long getFileCount() {
+            return mFiles;
+        }
+
+        /**
+         * @return 已处理的字节数
+         */
+        public long getByteCount() {
+            return mBytes;
+        }
+
+        /**
+         * @return 遍历过程中的全部错误
+         */
+        public List<IOException> getErrors() {
+            return mErrors;
+        }
+
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+
+        /**
+         * @return 没有出错且未被取消
+         */
+        public boolean isSuccess() {
+            return !mCancelled && mErrors.isEmpty();
+        }
+    }
+
+    /**
+     * 设置并行线程数, 设置后每次遍历临时创建线程池并在结束后关闭; 未设置时使用共享的后台线程池, 线程数为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return DirectoryWalker
+     */
+    public DirectoryWalker setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行遍历的线程池, 优先于 {@link #setThreadCount(int)}
+     *
+     * @param executor 线程池
+     * @return DirectoryWalker
+     */
+    public DirectoryWalker setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置进度回调, 可通过返回值取消遍历
+     * <p>注: 回调在遍历线程中执行</p>
+     *
+     * @param callback 进度回调
+     * @return DirectoryWalker
+     */
+    public DirectoryWalker setProgressCallback(ProgressCallback callback) {
+        mCallback = callback;
+        return this;
+    }
+
+    /**
+     * 遍历目录
+     *
+     * @param dir     目录
+     * @param visitor 遍历回调
+     * @return 遍历结果
+     */
+    public Result walk(File dir, Visitor visitor) {
+        if (dir == null || !dir.isDirectory()) {
+            List<IOException> errors = new ArrayList<>();
+            errors.add(new IOException("Not a directory: " + dir));
+            return new Result(0, 0, errors, false);
+        }
+        ExecutorService executor = mExecutor;
+        boolean ownExecutor = executor == null && mThreadCount > 0;
+        if (ownExecutor) executor = Executors.newFixedThreadPool(mThreadCount);
+        Executor runner;
+        if (executor != null) {
+            runner = executor;
+        } else if (Thread.currentThread() instanceof WalkerThread || isSmall(dir)) {
+            // 共享线程池中的任务再次遍历时不能等待同一线程池, 在当前线程中执行
+            runner = DIRECT;
+        } else {
+            runner = sharedExecutor();
+        }
+        Walk walk = new Walk(runner, visitor);
+        try {
+            walk.submit(new Node(dir, null));
+            walk.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            walk.cancelled.set(true);
+        } finally {
+            if (ownExecutor) executor.shutdownNow();
+        }
+        return new Result(walk.files.get(), walk.bytes.get(), new ArrayList<>(walk.errors), walk.cancelled.get());
+    }
+
+    /**
+     * 按层列出目录树, 文件和子目录总数不超过 {@link #SEQUENTIAL_THRESHOLD} 时返回 true
+     */
+    private static boolean isSmall(File dir) {
+        ArrayDeque<File> dirs = new ArrayDeque<>();
+        dirs.add(dir);
+        int count = 0;
+        File current;
+        while ((current = dirs.poll()) != null) {
+            File[] children = current.listFiles();
+            if (children == null) continue;
+            count += children.length;
+            if (count > SEQUENTIAL_THRESHOLD) return false;
+            for (File child : children) {
+                if (child.isDirectory()) dirs.add(child);
+            }
+        }
+        return true;
+    }
+
+    private static ExecutorService sharedExecutor() {
+        if (sExecutor == null) {
+            synchronized (DirectoryWalker.class) {
+                if (sExecutor == null) {
+                    sExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                            new ThreadFactory() {
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread thread = new WalkerThread(r);
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                }
+            }
+        }
+        return sExecutor;
+    }
+
+    /**
+     * 统计目录下所有文件的大小
+     *
+     * @param dir 目录
+     * @return 遍历结果, 大小为 {@link Result#getByteCount()}
+     */
+    public Result size(File dir) {
+        return walk(dir, new Visitor() {
+            @Override
+            public void preVisitDirectory(File dir) {
+            }
+
+            @Override
+            public long visitFile(File file) {
+                return file.length();
+            }
+
+            @Override
+            public void postVisitDirectory(File dir) {
+            }
+        });
+    }
+
+    /**
+     * 删除目录下的所有文件和子目录
+     *
+     * @param dir        目录
+     * @param deleteRoot 是否同时删除目录本身
+     * @return 遍历结果, 字节数为删除的文件大小
+     */
+    public Result delete(final File dir, final boolean deleteRoot) {
+        return walk(dir, new Visitor() {
+            @Override
+            public void preVisitDirectory(File dir) {
+            }
+
+            @Override
+            public long visitFile(File file) throws IOException {
+                long length = file.length();
+                if (!file.delete() && file.exists()) throw new IOException("Delete file failed: " + file);
+                return length;
+            }
+
+            @Override
+            public void postVisitDirectory(File d) throws IOException {
+                if (!deleteRoot && d.equals(dir)) return;
+                if (!d.delete() && d.exists()) throw new IOException("Delete dir failed: " + d);
+            }
+        });
+    }
+
+    /**
+     * 复制或移动目录下的所有文件和子目录
+     * <p>移动时如果目标目录不存在, 先尝试直接重命名</p>
+     *
+     * @param srcDir  原目录
+     * @param destDir 目标目录
+     * @param isMove  是否为移动
+     * @return 遍历结果, 字节数为复制或移动的文件大小
+     */
+    public Result copy(final File srcDir, final File destDir, final boolean isMove) {
+        if (isMove && srcDir != null && srcDir.isDirectory() && destDir != null && !destDir.exists()) {
+            File parent = destDir.getParentFile();
+            if ((parent == null || parent.isDirectory() || parent.mkdirs()) && srcDir.renameTo(destDir)) {
+                return new Result(0, 0, new ArrayList<IOException>(), false);
+            }
+        }
+        final String srcPath = srcDir == null ? "" : srcDir.getPath();
+        return walk(srcDir, new Visitor() {
+            @Override
+            public void preVisitDirectory(File dir) throws IOException {
+                File dest = target(dir);
+                if (!dest.isDirectory() && !dest.mkdirs() && !dest.isDirectory())
+                    throw new IOException("Create dir failed: " + dest);
+            }
+
+            @Override
+            public long visitFile(File file) throws IOException {
+                long length = file.length();
+                if (!FileUtils.copyOrMoveFile(file, target(file), isMove))
+                    throw new IOException((isMove ? "Move" : "Copy") + " file failed: " + file);
+                return length;
+            }
+
+            @Override
+            public void postVisitDirectory(File dir) throws IOException {
+                if (isMove && !dir.delete()) throw new IOException("Delete dir failed: " + dir);
+            }
+
+            private File target(File file) {
+                return new File(destDir, file.getPath().substring(srcPath.length()));
+            }
+        });
+    }
+
+    /**
+     * 共享线程池中的线程
+     */
+    private static class WalkerThread extends Thread {
+
+        WalkerThread(Runnable target) {
+            super(target, "DirectoryWalker");
+        }
+    }
+
+    /**
+     * 目录节点, 子任务全部完成后回调 postVisitDirectory 并通知上级目录
+     */
+    private static class Node {
+
+        final File dir;
+        final Node parent;
+        // 未完成的任务数, 包括列出目录内容的任务本身
+        final AtomicInteger pending = new AtomicInteger(1);
+        volatile boolean failed;
+
+        Node(File dir, Node parent) {
+            this.dir = dir;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * 一次遍历的状态
+     */
+    private class Walk {
+
+        final Executor executor;
+        final Visitor visitor;
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicLong files = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final List<IOException> errors = Collections.synchronizedList(new ArrayList<IOException>());
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Walk(Executor executor, Visitor visitor) {
+            this.executor = executor;
+            this.visitor = visitor;
+        }
+
+        void submit(final Node node) {
+            execute(node, new Runnable() {
+                @Override
+                public void run() {
+                    walkDir(node);
+                }
+            });
+        }
+
+        void submit(final Node node, final List<File> batch) {
+            node.pending.incrementAndGet();
+            execute(node, new Runnable() {
+                @Override
+                public void run() {
+                    visitFiles(node, batch);
+                }
+            });
+        }
+
+        private void execute(Node node, Runnable task) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                errors.add(new IOException("Walk rejected: " + node.dir, e));
+                cancelled.set(true);
+                complete(node);
+            }
+        }
+
+        private void walkDir(Node node) {
+            try {
+                if (cancelled.get()) return;
+                visitor.preVisitDirectory(node.dir);
+                File[] children = node.dir.listFiles();
+                if (children == null) throw new IOException("List files failed: " + node.dir);
+                List<File> batch = new ArrayList<>();
+                for (File child : children) {
+                    if (child.isDirectory()) {
+                        node.pending.incrementAndGet();
+                        submit(new Node(child, node));
+                    } else {
+                        batch.add(child);
+                        if (batch.size() == FILE_BATCH) {
+                            submit(node, batch);
+                            batch = new ArrayList<>();
+                        }
+                    }
+                }
+                // 最后一批文件在当前线程处理
+                visitFiles(null, batch);
+            } catch (IOException e) {
+                node.failed = true;
+                errors.add(e);
+            } catch (RuntimeException e) {
+                node.failed = true;
+                errors.add(new IOException(e));
+            } finally {
+                complete(node);
+            }
+        }
+
+        private void visitFiles(Node node, List<File> batch) {
+            try {
+                for (File file : batch) {
+                    if (cancelled.get()) return;
+                    try {
+                        long length = visitor.visitFile(file);
+                        notifyProgress(files.incrementAndGet(), bytes.addAndGet(length));
+                    } catch (IOException e) {
+                        errors.add(e);
+                    } catch (RuntimeException e) {
+                        errors.add(new IOException(e));
+                    }
+                }
+            } finally {
+                if (node != null) complete(node);
+            }
+        }
+
+        private void complete(Node node) {
+            while (node.pending.decrementAndGet() == 0) {
+                if (!node.failed && !cancelled.get()) {
+                    try {
+                        visitor.postVisitDirectory(node.dir);
+                    } catch (IOException e) {
+                        errors.add(e);
+                    } catch (RuntimeException e) {
+                        errors.add(new IOException(e));
+                    }
+                }
+                if (node.parent == null) {
+                    done.countDown();
+                    return;
+                }
+                node = node.parent;
+            }
+        }
+
+        private void notifyProgress(long fileCount, long byteCount) {
+            if (mCallback == null) return;
+            boolean proceed;
+            synchronized (this) {
+                proceed = mCallback.onProgress(fileCount, byteCount);
+            }
+            if (!proceed) cancelled.set(true);
+        }
+    }
+}
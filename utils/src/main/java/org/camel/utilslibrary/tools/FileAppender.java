@@ -0,0 +1,458 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 批量提交的文件追加写入器
+ *             文件只打开一次, 多个线程追加的记录先写入内存缓冲区, 由后台线程在数据量达到批次大小或等待超过最大延迟时一次写入 (group commit)
+ *             使用两个缓冲区交替: 后台线程写入一个时, 其他线程继续向另一个追加; 缓冲区满时追加的线程阻塞等待
+ *             可选每批写入后 fsync, 并统计批次大小和延迟
+ *
+ *             使用:
+ *             FileAppender appender = new FileAppender(file)
+ *                     .setMaxDelay(50, TimeUnit.MILLISECONDS);
+ *             appender.appendLine(event);
+ *             appender.close();
+ *
+ *             注: 1.线程安全, 同一线程追加的记录保持顺序, 单条记录不会被其他记录打断
+ *                 2.写入出错后, 之后的 append / flush 抛出该异常
+ * </pre>
+ */
+public class FileAppender implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 32 * 1024;
+    private static final long DEFAULT_MAX_DELAY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final FileOutputStream mOutput;
+    private final FileChannel mChannel;
+    private final ReentrantLock mLock = new ReentrantLock();
+    // 缓冲区有空间或已写入
+    private final Condition mWritten = mLock.newCondition();
+    // 有数据等待写入
+    private final Condition mPending = mLock.newCondition();
+
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private int mBatchSize = DEFAULT_BATCH_SIZE;
+    private long mMaxDelay = DEFAULT_MAX_DELAY;
+    private boolean mSync;
+
+    private byte[] mActive = new byte[DEFAULT_BATCH_SIZE];
+    private int mActiveLength;
+    private int mActiveRecords;
+    private long mActiveStart;
+    private byte[] mSpare = new byte[DEFAULT_BATCH_SIZE];
+    // 已追加和已写入的总字节数, 用于 flush 等待
+    private long mAppended;
+    private long mFlushed;
+    private long mFlushTarget;
+    private Thread mWriter;
+    private boolean mClosed;
+    private IOException mError;
+
+    private long mBatches;
+    private long mRecords;
+    private long mBytes;
+    private long mTotalLatency;
+    private long mMaxLatency;
+
+    /**
+     * 打开文件, 追加到末尾
+     *
+     * @param file 文件, 父目录不存在时自动创建
+     * @throws IOException 打开失败时抛出
+     */
+    public FileAppender(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory())
+            throw new IOException("Create dir failed: " + parent);
+        mOutput = new FileOutputStream(file, true);
+        mChannel = mOutput.getChannel();
+    }
+
+    /**
+     * 设置缓冲区大小, 缓冲的数据超过该值时追加的线程阻塞, 默认 256KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return FileAppender
+     */
+    public FileAppender setBufferSize(int bufferSize) {
+        mLock.lock();
+        try {
+            if (bufferSize > 0) mBufferSize = bufferSize;
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 设置批次大小, 缓冲的数据达到该值时立即写入, 默认 32KB
+     *
+     * @param batchSize 批次大小, 单位: B
+     * @return FileAppender
+     */
+    public FileAppender setBatchSize(int batchSize) {
+        mLock.lock();
+        try {
+            if (batchSize > 0) mBatchSize = batchSize;
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 设置记录在缓冲区中的最大等待时间, 超过后即使未达到批次大小也写入, 默认 100ms
+     *
+     * @param delay 最大等待时间
+     * @param unit  时间单位
+     * @return FileAppender
+     */
+    public FileAppender setMaxDelay(long delay, TimeUnit unit) {
+        mLock.lock();
+        try {
+            if (delay >= 0) mMaxDelay = unit.toNanos(delay);
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 设置每批写入后是否同步到磁盘 (fsync), 默认关闭
+     *
+     * @param sync 是否同步
+     * @return FileAppender
+     */
+    public FileAppender setSync(boolean sync) {
+        mLock.lock();
+        try {
+            mSync = sync;
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 追加文本, 编码 UTF-8
+     *
+     * @param content 文本
+     * @throws IOException 已关闭或写入出错时抛出
+     */
+    public void append(String content) throws IOException {
+        append(utf8(content));
+    }
+
+    /**
+     * 追加一行文本, 编码 UTF-8
+     *
+     * @param line 文本, 末尾自动添加换行符
+     * @throws IOException 已关闭或写入出错时抛出
+     */
+    public void appendLine(String line) throws IOException {
+        append(utf8(line + '\n'));
+    }
+
+    /**
+     * 追加字节数组
+     *
+     * @param data 数据
+     * @throws IOException 已关闭或写入出错时抛出
+     */
+    public void append(byte[] data) throws IOException {
+        append(data, 0, data.length);
+    }
+
+    /**
+     * 追加字节数组, 作为一条记录整体写入
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @throws IOException 已关闭或写入出错时抛出
+     */
+    public void append(byte[] data, int offset, int length) throws IOException {
+        mLock.lock();
+        try {
+            checkState();
+            // 缓冲区已满时等待写入, 超过缓冲区大小的单条记录在缓冲区为空时写入
+            while (mActiveLength > 0 && mActiveLength + length > mBufferSize) {
+                mPending.signal();
+                mWritten.awaitUninterruptibly();
+                checkState();
+            }
+            if (mActiveLength + length > mActive.length) {
+                byte[] active = new byte[Math.max(mActiveLength + length, Math.min(mActive.length * 2, mBufferSize))];
+                System.arraycopy(mActive, 0, active, 0, mActiveLength);
+                mActive = active;
+            }
+            if (mActiveLength == 0) mActiveStart = System.nanoTime();
+            System.arraycopy(data, offset, mActive, mActiveLength, length);
+            mActiveLength += length;
+            mActiveRecords++;
+            mAppended += length;
+            ensureWriter();
+            if (mActiveLength >= mBatchSize || mActiveRecords == 1) mPending.signal();
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * 等待已追加的记录全部写入文件 (开启 fsync 时同时同步到磁盘)
+     *
+     * @throws IOException 写入出错时抛出
+     */
+    public void flush() throws IOException {
+        mLock.lock();
+        try {
+            if (mError != null) throw mError;
+            long target = mAppended;
+            if (mFlushed >= target) return;
+            mFlushTarget = Math.max(mFlushTarget, target);
+            mPending.signal();
+            while (mFlushed < target && mError == null) {
+                mWritten.awaitUninterruptibly();
+            }
+            if (mError != null) throw mError;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * 写入剩余记录并关闭文件
+     *
+     * @throws IOException 写入出错时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        Thread writer;
+        mLock.lock();
+        try {
+            if (mClosed) return;
+            mClosed = true;
+            mFlushTarget = mAppended;
+            mPending.signal();
+            writer = mWriter;
+        } finally {
+            mLock.unlock();
+        }
+        try {
+            if (writer != null) writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing");
+        } finally {
+            IOUtils.close(mOutput);
+        }
+        mLock.lock();
+        try {
+            if (mError != null) throw mError;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前的批次统计
+     */
+    public Stats getStats() {
+        mLock.lock();
+        try {
+            return new Stats(mBatches, mRecords, mBytes, mTotalLatency, mMaxLatency);
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * 批次统计
+     */
+    public static class Stats {
+
+        private final long mBatches;
+        private final long mRecords;
+        private final long mBytes;
+        private final long mTotalLatency;
+        private final long mMaxLatency;
+
+        Stats(long batches, long records, long bytes, long totalLatency, long maxLatency) {
+            mBatches = batches;
+            mRecords = records;
+            mBytes = bytes;
+            mTotalLatency = totalLatency;
+            mMaxLatency = maxLatency;
+        }
+
+        /**
+         * @return 已写入的批次数, 即写入的系统调用次数
+         */
+        public long getBatchCount() {
+            return mBatches;
+        }
+
+        /**
+         * @return 已写入的记录数
+         */
+        public long getRecordCount() {
+            return mRecords;
+        }
+
+        /**
+         * @return 已写入的字节数
+         */
+        public long getByteCount() {
+            return mBytes;
+        }
+
+        /**
+         * @return 平均每批的记录数
+         */
+        public double getAverageBatchRecords() {
+            return mBatches == 0 ? 0 : (double) mRecords / mBatches;
+        }
+
+        /**
+         * @return 平均每批的字节数
+         */
+        public double getAverageBatchBytes() {
+            return mBatches == 0 ? 0 : (double) mBytes / mBatches;
+        }
+
+        /**
+         * @return 每批第一条记录从追加到写入完成的平均延迟, 单位: ns
+         */
+        public long getAverageLatency() {
+            return mBatches == 0 ? 0 : mTotalLatency / mBatches;
+        }
+
+        /**
+         * @return 最大延迟, 单位: ns
+         */
+        public long getMaxLatency() {
+            return mMaxLatency;
+        }
+
+        @Override
+        public String toString() {
+            return "batches=" + mBatches + ", records=" + mRecords + ", bytes=" + mBytes
+                    + ", avgBatchRecords=" + getAverageBatchRecords()
+                    + ", avgLatencyUs=" + getAverageLatency() / 1000 + ", maxLatencyUs=" + mMaxLatency / 1000;
+        }
+    }
+
+    private void checkState() throws IOException {
+        if (mError != null) throw mError;
+        if (mClosed) throw new IOException("FileAppender closed");
+    }
+
+    private void ensureWriter() {
+        if (mWriter != null) return;
+        mWriter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "FileAppender");
+        mWriter.setDaemon(true);
+        mWriter.start();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            byte[] batch;
+            int length;
+            int records;
+            long start;
+            boolean sync;
+            mLock.lock();
+            try {
+                // 等待达到批次大小、超过最大延迟、flush 或关闭
+                while (true) {
+                    if (mActiveLength == 0) {
+                        if (mClosed) return;
+                        mPending.awaitUninterruptibly();
+                        continue;
+                    }
+                    if (mClosed || mActiveLength >= mBatchSize || mFlushTarget > mFlushed) break;
+                    long remaining = mMaxDelay - (System.nanoTime() - mActiveStart);
+                    if (remaining <= 0) break;
+                    try {
+                        mPending.awaitNanos(remaining);
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                batch = mActive;
+                length = mActiveLength;
+                records = mActiveRecords;
+                start = mActiveStart;
+                sync = mSync;
+                mActive = mSpare.length >= mActive.length ? mSpare : new byte[mActive.length];
+                mActiveLength = 0;
+                mActiveRecords = 0;
+                // 交换后缓冲区有空间, 唤醒等待的线程
+                mWritten.signalAll();
+            } finally {
+                mLock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch, 0, length);
+                while (buffer.hasRemaining()) {
+                    mChannel.write(buffer);
+                }
+                if (sync) mChannel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            mLock.lock();
+            try {
+                mSpare = batch;
+                if (error != null) {
+                    mError = error;
+                    mWritten.signalAll();
+                    return;
+                }
+                long latency = System.nanoTime() - start;
+                mFlushed += length;
+                mBatches++;
+                mRecords += records;
+                mBytes += length;
+                mTotalLatency += latency;
+                if (latency > mMaxLatency) mMaxLatency = latency;
+                mWritten.signalAll();
+            } finally {
+                mLock.unlock();
+            }
+        }
+    }
+
+    private static byte[] utf8(String content) {
+        try {
+            return content.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.system.ErrnoException;
+import android.system.Os;
+
+import org.camel.utilslibrary.CodecUtils;
+import org.camel.utilslibrary.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 文件摘要缓存
+ *             以 (规范路径, 文件长度, 修改时间, inode) 为依据缓存文件摘要, 文件未变化时直接返回缓存结果, 不再读取文件
+ *             缓存记录追加写入磁盘索引文件, 内存中只保留每条记录在索引文件中的位置, 以及最近使用记录的 LRU 缓存
+ *
+ *             使用:
+ *             FileDigestCache cache = new FileDigestCache(new File(context.getCacheDir(), "md5.idx"), "MD5");
+ *             String md5 = cache.getHexDigest(file);
+ *             ...
+ *             cache.close();
+ *
+ *             注: 1.inode 仅在 API 21 及以上可用, 低版本只比较长度和修改时间
+ *                 2.修改时间的精度有限 (FAT / sdcard 为 2 秒), 计算摘要时距离文件修改不足该精度的记录视为不可靠,
+ *                   下次获取时重新计算, 避免精度范围内长度不变的修改返回旧摘要
+ *                 3.磁盘索引文件损坏时从损坏的记录处截断, 之前的记录继续有效
+ *                 4.线程安全
+ * </pre>
+ */
+public class FileDigestCache {
+
+    private static final int MAGIC = 0x46444332; // "FDC2"
+    // 文件系统修改时间的最大精度 (FAT 为 2 秒), 单位: ms
+    private static final long MTIME_GRANULARITY = 2000;
+    private static final int DEFAULT_MEMORY_ENTRIES = 1024;
+
+    private final File mIndexFile;
+    private final String mAlgorithm;
+    private final Map<String, Long> mOffsets = new HashMap<>();
+    private final LinkedHashMap<String, Record> mMemoryCache;
+    private RandomAccessFile mIndex;
+    private int mStaleRecords;
+    private int mMaxMemoryEntries = DEFAULT_MEMORY_ENTRIES;
+
+    /**
+     * @param indexFile 磁盘索引文件
+     * @param algorithm 摘要算法, 如 MD5 / SHA-256
+     * @throws IllegalArgumentException 不支持该算法时抛出
+     */
+    public FileDigestCache(File indexFile, String algorithm) {
+        new FileDigester().addDigest(algorithm);
+        mIndexFile = indexFile;
+        mAlgorithm = algorithm;
+        mMemoryCache = new LinkedHashMap<String, Record>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Record> eldest) {
+                return size() > mMaxMemoryEntries;
+            }
+        };
+    }
+
+    /**
+     * 设置内存中最多保留的记录数, 默认 1024
+     *
+     * @param maxEntries 记录数
+     * @return FileDigestCache
+     */
+    public synchronized FileDigestCache setMaxMemoryEntries(int maxEntries) {
+        if (maxEntries > 0) mMaxMemoryEntries = maxEntries;
+        return this;
+    }
+
+    public String getAlgorithm() {
+        return mAlgorithm;
+    }
+
+    /**
+     * 获取文件摘要, 文件未变化时直接返回缓存结果
+     *
+     * @param file 文件
+     * @return 摘要, 读取失败返回 null
+     */
+    public byte[] getDigest(File file) {
+        if (file == null || !file.isFile()) return null;
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        long length = file.length();
+        long lastModified = file.lastModified();
+        long inode = getInode(path);
+
+        Record cached = find(path);
+        if (cached != null && cached.length == length && cached.lastModified == lastModified && cached.inode == inode
+                && !cached.isRacy()) {
+            return cached.digest.clone();
+        }
+        long hashedTime = System.currentTimeMillis();
+        Map<String, byte[]> result = new FileDigester().addDigest(mAlgorithm).digest(file);
+        if (result == null) return null;
+        byte[] digest = result.get(mAlgorithm);
+        // 计算期间文件被修改时不写入缓存, 避免记录与内容不符
+        if (file.length() == length && file.lastModified() == lastModified) {
+            put(new Record(path, length, lastModified, inode, hashedTime, digest));
+        }
+        return digest.clone();
+    }
+
+    /**
+     * 获取文件摘要的16进制字符串
+     *
+     * @param file 文件
+     * @return 16进制摘要, 读取失败返回 null
+     */
+    public String getHexDigest(File file) {
+        return CodecUtils.bytes2HexString(getDigest(file));
+    }
+
+    /**
+     * 计算文件夹下所有文件的摘要, 未变化的文件直接使用缓存结果
+     *
+     * @param dir 文件夹
+     * @return 以规范路径为 key 的摘要结果, 读取失败的文件不包含在内
+     */
+    public Map<String, byte[]> getDigests(File dir) {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        collectDigests(dir, result);
+        return result;
+    }
+
+    private void collectDigests(File file, Map<String, byte[]> result) {
+        if (file == null) return;
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) return;
+            for (File child : children) {
+                collectDigests(child, result);
+            }
+        } else if (file.isFile()) {
+            byte[] digest = getDigest(file);
+            if (digest == null) return;
+            try {
+                result.put(file.getCanonicalPath(), digest);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 移除指定文件的缓存
+     *
+     * @param file 文件
+     */
+    public synchronized void remove(File file) {
+        if (file == null) return;
+        try {
+            String path = file.getCanonicalPath();
+            mMemoryCache.remove(path);
+            if (ensureOpen() && mOffsets.containsKey(path)) {
+                appendRecord(new Record(path, -1, -1, -1, -1, new byte[0]));
+                mOffsets.remove(path);
+                mStaleRecords += 2;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 清除所有缓存, 并删除磁盘索引文件
+     */
+    public synchronized void clear() {
+        IOUtils.close(mIndex);
+        mIndex = null;
+        mOffsets.clear();
+        mMemoryCache.clear();
+        mStaleRecords = 0;
+        mIndexFile.delete();
+    }
+
+    /**
+     * 压缩磁盘索引文件, 只保留每个文件最新的记录
+     */
+    public synchronized void compact() {
+        if (!ensureOpen() || mStaleRecords == 0) return;
+        File tmp = new File(mIndexFile.getPath() + ".tmp");
+        RandomAccessFile out = null;
+        try {
+            out = new RandomAccessFile(tmp, "rw");
+            out.setLength(0);
+            Map<String, Long> offsets = new HashMap<>();
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream dos = new DataOutputStream(header);
+            dos.writeInt(MAGIC);
+            dos.writeUTF(mAlgorithm);
+            out.write(header.toByteArray());
+            for (Map.Entry<String, Long> item : mOffsets.entrySet()) {
+                Record entry = readRecord(mIndex, item.getValue());
+                offsets.put(entry.path, out.getFilePointer());
+                out.write(encodeRecord(entry));
+            }
+            out.close();
+            out = null;
+            mIndex.close();
+            mIndex = null;
+            if (!tmp.renameTo(mIndexFile)) throw new IOException("Rename index file failed");
+            mOffsets.clear();
+            mOffsets.putAll(offsets);
+            mStaleRecords = 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            tmp.delete();
+        } finally {
+            IOUtils.close(out);
+        }
+    }
+
+    /**
+     * 关闭磁盘索引文件, 过期记录过多时会先进行压缩; 关闭后再次使用将自动重新打开
+     */
+    public synchronized void close() {
+        if (mIndex != null && mStaleRecords > mOffsets.size()) {
+            compact();
+        }
+        IOUtils.close(mIndex);
+        mIndex = null;
+        mOffsets.clear();
+        mMemoryCache.clear();
+    }
+
+    private synchronized Record find(String path) {
+        Record entry = mMemoryCache.get(path);
+        if (entry != null) return entry;
+        if (!ensureOpen()) return null;
+        Long offset = mOffsets.get(path);
+        if (offset == null) return null;
+        try {
+            entry = readRecord(mIndex, offset);
+            mMemoryCache.put(path, entry);
+            return entry;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private synchronized void put(Record entry) {
+        mMemoryCache.put(entry.path, entry);
+        if (!ensureOpen()) return;
+        try {
+            long offset = appendRecord(entry);
+            if (mOffsets.put(entry.path, offset) != null) mStaleRecords++;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean ensureOpen() {
+        if (mIndex != null) return true;
+        try {
+            File parent = mIndexFile.getParentFile();
+            if (parent != null && !parent.exists()) parent.mkdirs();
+            mIndex = new RandomAccessFile(mIndexFile, "rw");
+            load();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            IOUtils.close(mIndex);
+            mIndex = null;
+            return false;
+        }
+    }
+
+    private void load() throws IOException {
+        mOffsets.clear();
+        mStaleRecords = 0;
+        long length = mIndex.length();
+        if (length > 0) {
+            try {
+                mIndex.seek(0);
+                if (mIndex.readInt() == MAGIC && mAlgorithm.equals(mIndex.readUTF())) {
+                    long offset = mIndex.getFilePointer();
+                    while (offset < length) {
+                        Record entry;
+                        try {
+                            entry = readRecord(mIndex, offset);
+                        } catch (IOException e) {
+                            // 上次写入未完成或记录损坏, 截掉该记录及之后的内容
+                            mIndex.setLength(offset);
+                            break;
+                        }
+                        if (entry.length < 0) {
+                            mOffsets.remove(entry.path);
+                            mStaleRecords++;
+                        } else if (mOffsets.put(entry.path, offset) != null) {
+                            mStaleRecords++;
+                        }
+                        offset = mIndex.getFilePointer();
+                    }
+                    return;
+                }
+            } catch (IOException ignored) {
+                // 文件头不完整或损坏, 重新写入
+            }
+        }
+        // 新文件或格式不符, 重新写入文件头
+        mOffsets.clear();
+        mStaleRecords = 0;
+        mIndex.setLength(0);
+        mIndex.writeInt(MAGIC);
+        mIndex.writeUTF(mAlgorithm);
+    }
+
+    private long appendRecord(Record entry) throws IOException {
+        long offset = mIndex.length();
+        mIndex.seek(offset);
+        mIndex.write(encodeRecord(entry));
+        return offset;
+    }
+
+    private static byte[] encodeRecord(Record entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.path.length());
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeUTF(entry.path);
+        dos.writeLong(entry.length);
+        dos.writeLong(entry.lastModified);
+        dos.writeLong(entry.inode);
+        dos.writeLong(entry.hashedTime);
+        dos.writeByte(entry.digest.length);
+        dos.write(entry.digest);
+        return bytes.toByteArray();
+    }
+
+    private static Record readRecord(RandomAccessFile index, long offset) throws IOException {
+        index.seek(offset);
+        String path = index.readUTF();
+        long length = index.readLong();
+        long lastModified = index.readLong();
+        long inode = index.readLong();
+        long hashedTime = index.readLong();
+        byte[] digest = new byte[index.readUnsignedByte()];
+        index.readFully(digest);
+        return new Record(path, length, lastModified, inode, hashedTime, digest);
+    }
+
+    private static long getInode(String path) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) return 0;
+        return statInode(path);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static long statInode(String path) {
+        try {
+            return Os.stat(path).st_ino;
+        } catch (ErrnoException e) {
+            return 0;
+        }
+    }
+
+    private static class Record {
+        final String path;
+        final long length;
+        final long lastModified;
+        final long inode;
+        // 开始计算摘要的时间
+        final long hashedTime;
+        final byte[] digest;
+
+        Record(String path, long length, long lastModified, long inode, long hashedTime, byte[] digest) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.inode = inode;
+            this.hashedTime = hashedTime;
+            this.digest = digest;
+        }
+
+        /**
+         * 计算摘要时距离文件修改不足修改时间精度, 之后同一精度内的修改不会改变修改时间, 记录不可靠
+         */
+        boolean isRacy() {
+            return hashedTime < lastModified + MTIME_GRANULARITY;
+        }
+    }
+}
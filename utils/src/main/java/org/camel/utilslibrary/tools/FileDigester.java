@@ -0,0 +1,232 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 文件摘要计算器
+ *             只读取一遍文件, 同时计算多种 MessageDigest / Mac 摘要, 避免同一文件被反复读取
+ *
+ *             使用:
+ *             Map<String, byte[]> result = new FileDigester()
+ *                     .addDigest("MD5")
+ *                     .addDigest("SHA-256")
+ *                     .setProgressListener(listener)
+ *                     .digest(file);
+ *
+ *             注: 非线程安全, 多线程请各自创建实例
+ * </pre>
+ */
+public class FileDigester {
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final int MAP_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private final Map<String, MessageDigest> mDigests = new LinkedHashMap<>();
+    private final Map<String, Mac> mMacs = new LinkedHashMap<>();
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private long mMapThreshold = Long.MAX_VALUE;
+    private ProgressListener mListener;
+    private ByteBuffer mBuffer;
+
+    /**
+     * 添加摘要算法
+     *
+     * @param algorithm 算法名称, 如 MD5 / SHA-1 / SHA-256
+     * @return FileDigester
+     * @throws IllegalArgumentException 不支持该算法时抛出
+     */
+    public FileDigester addDigest(String algorithm) {
+        try {
+            mDigests.put(algorithm, MessageDigest.getInstance(algorithm));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm, e);
+        }
+        return this;
+    }
+
+    /**
+     * 添加 Hmac 算法, 同一算法只保留最后一次添加的秘钥
+     *
+     * @param algorithm 算法名称, 如 HmacMD5 / HmacSHA256
+     * @param key       秘钥
+     * @return FileDigester
+     * @throws IllegalArgumentException 不支持该算法或秘钥无效时抛出
+     */
+    public FileDigester addMac(String algorithm, byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+            mMacs.put(algorithm, mac);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalArgumentException("Unsupported algorithm or key: " + algorithm, e);
+        }
+        return this;
+    }
+
+    /**
+     * 设置读取缓冲区大小, 默认 256KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return FileDigester
+     */
+    public FileDigester setBufferSize(int bufferSize) {
+        if (bufferSize > 0 && bufferSize != mBufferSize) {
+            mBufferSize = bufferSize;
+            mBuffer = null;
+        }
+        return this;
+    }
+
+    /**
+     * 设置使用内存映射读取的文件大小阈值, 默认不使用内存映射
+     * <p>文件大小不小于该阈值时, 将按 8MB 的窗口分段映射文件, 减少大文件读取时的系统调用;
+     * 映射的内存只能等待 GC 释放, 32 位设备上请谨慎使用</p>
+     *
+     * @param threshold 阈值, 单位: B
+     * @return FileDigester
+     */
+    public FileDigester setMapThreshold(long threshold) {
+        mMapThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * 设置进度监听, 可通过监听的返回值取消计算
+     *
+     * @param listener 进度监听
+     * @return FileDigester
+     */
+    public FileDigester setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 计算文件摘要
+     *
+     * @param file 文件
+     * @return 以算法名称为 key 的摘要结果, 按添加顺序排列; 读取失败或被取消时返回 null
+     */
+    public Map<String, byte[]> digest(File file) {
+        if (file == null || !file.isFile() || (mDigests.isEmpty() && mMacs.isEmpty())) return null;
+        reset();
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            FileChannel channel = fis.getChannel();
+            long total = channel.size();
+            boolean completed = total >= mMapThreshold
+                    ? digestMapped(channel, total)
+                    : digestBuffered(channel, total);
+            if (!completed) {
+                reset();
+                return null;
+            }
+            Map<String, byte[]> result = new LinkedHashMap<>();
+            for (Map.Entry<String, MessageDigest> entry : mDigests.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().digest());
+            }
+            for (Map.Entry<String, Mac> entry : mMacs.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().doFinal());
+            }
+            return result;
+        } catch (IOException e) {
+            e.printStackTrace();
+            reset();
+            return null;
+        } finally {
+            IOUtils.close(fis);
+        }
+    }
+
+    private boolean digestBuffered(FileChannel channel, long total) throws IOException {
+        if (mBuffer == null) {
+            mBuffer = ByteBuffer.allocate(mBufferSize);
+        }
+        // 使用堆内缓冲区, 各算法可直接读取底层数组, 不会因算法数量产生额外复制
+        byte[] array = mBuffer.array();
+        long startTime = System.nanoTime();
+        long current = 0;
+        int len;
+        while (true) {
+            mBuffer.clear();
+            len = channel.read(mBuffer);
+            if (len < 0) break;
+            if (len == 0) continue;
+            update(array, len);
+            current += len;
+            if (!notifyProgress(current, total, startTime)) return false;
+        }
+        return true;
+    }
+
+    private boolean digestMapped(FileChannel channel, long total) throws IOException {
+        long startTime = System.nanoTime();
+        long position = 0;
+        while (position < total) {
+            long size = Math.min(MAP_WINDOW_SIZE, total - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            update(window);
+            position += size;
+            if (!notifyProgress(position, total, startTime)) return false;
+        }
+        return true;
+    }
+
+    private void update(byte[] array, int len) {
+        for (MessageDigest md : mDigests.values()) {
+            md.update(array, 0, len);
+        }
+        for (Mac mac : mMacs.values()) {
+            mac.update(array, 0, len);
+        }
+    }
+
+    private void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        for (MessageDigest md : mDigests.values()) {
+            buffer.position(position);
+            md.update(buffer);
+        }
+        for (Mac mac : mMacs.values()) {
+            buffer.position(position);
+            mac.update(buffer);
+        }
+    }
+
+    private boolean notifyProgress(long current, long total, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        return mListener.onProgress(current, total, speed);
+    }
+
+    private void reset() {
+        for (MessageDigest md : mDigests.values()) {
+            md.reset();
+        }
+        for (Mac mac : mMacs.values()) {
+            mac.reset();
+        }
+    }
+}
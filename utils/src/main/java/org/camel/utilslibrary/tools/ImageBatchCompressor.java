@@ -0,0 +1,538 @@
+package org.camel.utilslibrary.tools;
+
+import android.graphics.BitmapFactory;
+
+import org.camel.utilslibrary.BitmapUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 批量并行压缩图片
+ *             多个线程同时调用 {@link BitmapUtils#compressBitmap} 压缩图片, 解码前按输出大小估算内存,
+ *             同时处理中的图片占用的内存不超过预算, 预算不足时等待其他图片完成
+ *             单张图片失败 (包括 OOM) 只记录在该图片的结果中, 不影响其他图片
+ *             每张图片完成后回调, 可选择按输入顺序回调, 回调返回 false 或调用 {@link #cancel()} 取消剩余图片
+ *
+ *             使用:
+ *             ImageBatchCompressor.Result result = new ImageBatchCompressor()
+ *                     .setThreadCount(4)
+ *                     .setCallback(callback)
+ *                     .compress(inputs, outputDir, 1920, 1920, 300);
+ *
+ *             注: 1.compress() 阻塞直到全部完成或被取消, 请在后台线程调用
+ *                 2.回调在压缩线程中串行执行, 不持有内部锁, 耗时的回调只阻塞执行回调的线程
+ *                 3.单张图片的估算内存超过预算时, 等待其他图片全部完成后单独处理
+ * </pre>
+ */
+public class ImageBatchCompressor {
+
+    private int mThreadCount = Runtime.getRuntime().availableProcessors();
+    private ExecutorService mExecutor;
+    private long mMemoryBudget = Runtime.getRuntime().maxMemory() / 4;
+    private boolean mOrdered;
+    private Callback mCallback;
+    private final AtomicBoolean mCancelled = new AtomicBoolean();
+
+    /**
+     * 单张图片完成的回调
+     */
+    public interface Callback {
+
+        /**
+         * 单张图片完成 (成功或失败)
+         *
+         * @param item 该图片的结果
+         * @return true 继续压缩; false 取消剩余图片
+         */
+        boolean onCompleted(Item item);
+    }
+
+    /**
+     * 单张图片的结果
+     */
+    public static class Item {
+
+        private final int mIndex;
+        private final File mInput;
+        private final File mOutput;
+        private boolean mSuccess;
+        private Throwable mError;
+        private long mInputSize;
+        private long mOutputSize;
+        private long mTime;
+
+        Item(int index, File input, File output) {
+            mIndex = index;
+            mInput = input;
+            mOutput = output;
+        }
+
+        /**
+         * @return 在输入列表中的位置
+         */
+        public int getIndex() {
+            return mIndex;
+        }
+
+        public File getInput() {
+            return mInput;
+        }
+
+        public File getOutput() {
+            return mOutput;
+        }
+
+        public boolean isSuccess() {
+            return mSuccess;
+        }
+
+        /**
+         * @return 压缩时抛出的异常或错误; 压缩失败但没有异常时为 null
+         */
+        public Throwable getError() {
+            return mError;
+        }
+
+        /**
+         * @return 原图大小, 单位: B
+         */
+        public long getInputSize() {
+            return mInputSize;
+        }
+
+        /**
+         * @return 压缩后大小, 单位: B; 失败时为 0
+         */
+        public long getOutputSize() {
+            return mOutputSize;
+        }
+
+        /**
+         * @return 压缩耗时, 不含等待内存预算的时间, 单位: ms
+         */
+        public long getTime() {
+            return mTime;
+        }
+    }
+
+    /**
+     * 批量压缩的结果
+     */
+    public static class Result {
+
+        private final List<Item> mItems;
+        private final int mSuccessCount;
+        private final int mFailureCount;
+        private final long mInputSize;
+        private final long mOutputSize;
+        private final long mElapsedTime;
+        private final long mPeakMemory;
+        private final boolean mCancelled;
+
+        Result(List<Item> items, long elapsedTime, long peakMemory, boolean cancelled) {
+            int success = 0, failure = 0;
+            long inputSize = 0, outputSize = 0;
+            for (Item item : items) {
+                if (item.mSuccess) {
+                    success++;
+                    inputSize += item.mInputSize;
+                    outputSize += item.mOutputSize;
+                } else {
+                    failure++;
+                }
+            }
+            mItems = items;
+            mSuccessCount = success;
+            mFailureCount = failure;
+            mInputSize = inputSize;
+            mOutputSize = outputSize;
+            mElapsedTime = elapsedTime;
+            mPeakMemory = peakMemory;
+            mCancelled = cancelled;
+        }
+
+        /**
+         * @return 已处理图片的结果, 按输入顺序排列, 取消后未处理的图片不包含在内
+         */
+        public List<Item> getItems() {
+            return mItems;
+        }
+
+        public int getSuccessCount() {
+            return mSuccessCount;
+        }
+
+        public int getFailureCount() {
+            return mFailureCount;
+        }
+
+        /**
+         * @return 成功压缩的原图总大小, 单位: B
+         */
+        public long getInputSize() {
+            return mInputSize;
+        }
+
+        /**
+         * @return 成功压缩的输出总大小, 单位: B
+         */
+        public long getOutputSize() {
+            return mOutputSize;
+        }
+
+        /**
+         * @return 总耗时, 单位: ms
+         */
+        public long getElapsedTime() {
+            return mElapsedTime;
+        }
+
+        /**
+         * @return 吞吐量, 单位: 张/秒
+         */
+        public float getThroughput() {
+            return mElapsedTime <= 0 ? 0 : mItems.size() * 1000f / mElapsedTime;
+        }
+
+        /**
+         * @return 同时处理中的图片估算内存的峰值, 单位: B
+         */
+        public long getPeakMemory() {
+            return mPeakMemory;
+        }
+
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+    }
+
+    /**
+     * 设置并行线程数, 默认为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return ImageBatchCompressor
+     */
+    public ImageBatchCompressor setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行压缩的线程池, 未设置时每次压缩临时创建线程池并在结束后关闭
+     *
+     * @param executor 线程池
+     * @return ImageBatchCompressor
+     */
+    public ImageBatchCompressor setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置内存预算, 默认为最大可用内存的 1/4
+     *
+     * @param memoryBudget 同时处理中的图片估算内存上限, 单位: B
+     * @return ImageBatchCompressor
+     */
+    public ImageBatchCompressor setMemoryBudget(long memoryBudget) {
+        if (memoryBudget > 0) mMemoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * 设置是否按输入顺序回调, 默认按完成顺序
+     *
+     * @param ordered 是否按输入顺序回调
+     * @return ImageBatchCompressor
+     */
+    public ImageBatchCompressor setOrdered(boolean ordered) {
+        mOrdered = ordered;
+        return this;
+    }
+
+    /**
+     * 设置单张图片完成的回调
+     *
+     * @param callback 回调
+     * @return ImageBatchCompressor
+     */
+    public ImageBatchCompressor setCallback(Callback callback) {
+        mCallback = callback;
+        return this;
+    }
+
+    /**
+     * 取消正在进行的压缩, 处理中的图片完成后停止
+     * <p>在 compress() 开始之前调用时, 下一次压缩立即以取消结束</p>
+     */
+    public void cancel() {
+        mCancelled.set(true);
+    }
+
+    /**
+     * 批量压缩图片到指定目录, 输出文件与原图同名
+     * <p>来自不同目录的同名原图 (不区分大小写), 除第一个外在扩展名前依次加上 _1, _2 ... 后缀</p>
+     *
+     * @param inputs      源图片文件
+     * @param outputDir   输出目录
+     * @param outWidth    期望的输出图片的宽度
+     * @param outHeight   期望的输出图片的高度
+     * @param maxFileSize 期望的输出图片的最大占用的存储空间, 单位: Kb
+     * @return 压缩结果
+     */
+    public Result compress(List<File> inputs, File outputDir, int outWidth, int outHeight, int maxFileSize) {
+        File[] outputs = new File[inputs.size()];
+        // sdcard 等文件系统不区分大小写, 按小写判断重名
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < outputs.length; i++) {
+            String name = inputs.get(i).getName();
+            if (taken.add(name.toLowerCase(Locale.ROOT))) outputs[i] = new File(outputDir, name);
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            if (outputs[i] != null) continue;
+            String name = inputs.get(i).getName();
+            int dot = name.lastIndexOf('.');
+            String base = dot > 0 ? name.substring(0, dot) : name;
+            String extension = dot > 0 ? name.substring(dot) : "";
+            String unique;
+            int n = 1;
+            do {
+                unique = base + "_" + n++ + extension;
+            } while (!taken.add(unique.toLowerCase(Locale.ROOT)));
+            outputs[i] = new File(outputDir, unique);
+        }
+        return compress(inputs, Arrays.asList(outputs), outWidth, outHeight, maxFileSize);
+    }
+
+    /**
+     * 批量压缩图片
+     *
+     * @param inputs      源图片文件
+     * @param outputs     输出的图片文件, 与 inputs 一一对应, 不能重复
+     * @param outWidth    期望的输出图片的宽度
+     * @param outHeight   期望的输出图片的高度
+     * @param maxFileSize 期望的输出图片的最大占用的存储空间, 单位: Kb
+     * @return 压缩结果
+     * @throws IllegalArgumentException 数量不一致或输出文件重复时抛出
+     */
+    public Result compress(List<File> inputs, List<File> outputs, int outWidth, int outHeight, int maxFileSize) {
+        if (inputs.size() != outputs.size())
+            throw new IllegalArgumentException("inputs and outputs must have the same size");
+        // 多个线程同时写入同一文件会损坏输出
+        Set<String> paths = new HashSet<>();
+        for (File output : outputs) {
+            String path;
+            try {
+                path = output.getCanonicalPath();
+            } catch (IOException e) {
+                path = output.getAbsolutePath();
+            }
+            if (!paths.add(path)) throw new IllegalArgumentException("Duplicate output file: " + output);
+        }
+        long startTime = System.currentTimeMillis();
+        Batch batch = new Batch(inputs, outputs, outWidth, outHeight, maxFileSize);
+        int workers = Math.max(1, Math.min(mThreadCount, inputs.size()));
+        ExecutorService executor = mExecutor;
+        boolean ownExecutor = executor == null;
+        if (ownExecutor) executor = Executors.newFixedThreadPool(workers);
+        CountDownLatch done = new CountDownLatch(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                Worker worker = new Worker(batch, done);
+                try {
+                    executor.execute(worker);
+                } catch (RejectedExecutionException e) {
+                    worker.run();
+                }
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mCancelled.set(true);
+        } finally {
+            if (ownExecutor) executor.shutdownNow();
+        }
+        List<Item> items = new ArrayList<>();
+        synchronized (batch) {
+            for (Item item : batch.items) {
+                if (item != null) items.add(item);
+            }
+        }
+        // 本次压缩结束后才清除取消标记, 压缩开始前或开始时调用的 cancel() 不会丢失
+        return new Result(Collections.unmodifiableList(items), System.currentTimeMillis() - startTime,
+                batch.peakMemory, mCancelled.getAndSet(false));
+    }
+
+    /**
+     * 按输出大小估算压缩一张图片需要的内存: 输出 Bitmap, 解码条带和编码缓冲区
+     */
+    private static long estimateMemory(File input, int outWidth, int outHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(input.getPath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) return 0;
+        float scale = Math.min(1, Math.min((float) outWidth / options.outWidth, (float) outHeight / options.outHeight));
+        long pixels = (long) Math.ceil(options.outWidth * scale) * (long) Math.ceil(options.outHeight * scale);
+        return pixels * 4 + TiledBitmapDecoder.DEFAULT_STRIP_SIZE + pixels;
+    }
+
+    /**
+     * 一次批量压缩的共享状态, 通过自身加锁保护
+     */
+    private class Batch {
+
+        final List<File> inputs;
+        final List<File> outputs;
+        final int outWidth;
+        final int outHeight;
+        final int maxFileSize;
+        final AtomicInteger next = new AtomicInteger();
+        final Item[] items;
+        // 待回调的结果, 由正在回调的线程依次取出
+        final ArrayDeque<Item> pending = new ArrayDeque<>();
+        long memory;
+        long peakMemory;
+        int delivered;
+        boolean delivering;
+
+        Batch(List<File> inputs, List<File> outputs, int outWidth, int outHeight, int maxFileSize) {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.outWidth = outWidth;
+            this.outHeight = outHeight;
+            this.maxFileSize = maxFileSize;
+            this.items = new Item[inputs.size()];
+        }
+
+        /**
+         * 等待内存预算足够, 没有其他图片在处理时总是允许
+         */
+        synchronized boolean acquire(long size) throws InterruptedException {
+            while (memory > 0 && memory + size > mMemoryBudget) {
+                if (mCancelled.get()) return false;
+                wait(100);
+            }
+            memory += size;
+            peakMemory = Math.max(peakMemory, memory);
+            return true;
+        }
+
+        synchronized void release(long size) {
+            memory -= size;
+            notifyAll();
+        }
+
+        /**
+         * 记录结果并回调, 按顺序回调时依次回调所有已完成的连续结果
+         * <p>回调在锁外执行, 不阻塞其他线程的 acquire / release; 同一时间只有一个线程回调, 保证回调串行且有序</p>
+         */
+        void complete(Item item) {
+            synchronized (this) {
+                items[item.getIndex()] = item;
+                if (!mOrdered) {
+                    pending.add(item);
+                } else {
+                    while (delivered < items.length && items[delivered] != null) {
+                        pending.add(items[delivered++]);
+                    }
+                }
+                // 其他线程正在回调, 由它继续回调新加入的结果
+                if (delivering) return;
+                delivering = true;
+            }
+            while (true) {
+                Item next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        delivering = false;
+                        return;
+                    }
+                }
+                notifyCallback(next);
+            }
+        }
+
+        private void notifyCallback(Item item) {
+            if (mCallback == null || mCancelled.get()) return;
+            try {
+                if (!mCallback.onCompleted(item)) mCancelled.set(true);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final Batch mBatch;
+        private final CountDownLatch mDone;
+
+        Worker(Batch batch, CountDownLatch done) {
+            mBatch = batch;
+            mDone = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int index;
+                while (!mCancelled.get() && (index = mBatch.next.getAndIncrement()) < mBatch.items.length) {
+                    Item item = new Item(index, mBatch.inputs.get(index), mBatch.outputs.get(index));
+                    if (!compress(item)) break;
+                    mBatch.complete(item);
+                }
+            } finally {
+                mDone.countDown();
+            }
+        }
+
+        /**
+         * @return false 等待内存预算时被取消
+         */
+        private boolean compress(Item item) {
+            long memory = 0;
+            boolean acquired = false;
+            try {
+                memory = estimateMemory(item.mInput, mBatch.outWidth, mBatch.outHeight);
+                if (!mBatch.acquire(memory)) return false;
+                acquired = true;
+                long start = System.currentTimeMillis();
+                item.mInputSize = item.mInput.length();
+                item.mSuccess = BitmapUtils.compressBitmap(item.mInput, item.mOutput,
+                        mBatch.outWidth, mBatch.outHeight, mBatch.maxFileSize);
+                item.mOutputSize = item.mSuccess ? item.mOutput.length() : 0;
+                item.mTime = System.currentTimeMillis() - start;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                mCancelled.set(true);
+                return false;
+            } catch (RuntimeException | OutOfMemoryError e) {
+                item.mSuccess = false;
+                item.mError = e;
+            } finally {
+                if (acquired) mBatch.release(memory);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 并行 zip 解压
+ *             基于 {@link ZipFile} 随机读取, 由多个线程并行解压各条目
+ *             解压前统一创建目录结构, 并按中央目录记录的大小预先分配输出文件, 适用于包含大量小文件的压缩包
+ *
+ *             使用:
+ *             List<File> files = new ParallelUnzipper()
+ *                     .setEntryListener(listener)
+ *                     .unzip(zipFile, destDir);
+ *
+ *             注: 条目路径包含 ".." 或为绝对路径时 (zip-slip) 抛出 ZipException, 不会写入目标目录之外的文件
+ * </pre>
+ */
+public class ParallelUnzipper {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // 每个任务至少处理的数据量, 避免大量小条目时任务调度开销过大
+    private static final long TASK_BYTES = 1024 * 1024;
+
+    private int mThreadCount = Runtime.getRuntime().availableProcessors();
+    private ExecutorService mExecutor;
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private String mKeyword;
+    private ProgressListener mListener;
+    private EntryListener mEntryListener;
+
+    /**
+     * 单个条目解压完成的回调
+     */
+    public interface EntryListener {
+
+        /**
+         * 条目解压完成
+         * <p>注: 回调在解压线程中执行, 可能被多个线程同时调用</p>
+         *
+         * @param name  条目名称
+         * @param file  输出文件
+         * @param size  原始数据大小
+         * @param nanos 解压耗时, 单位: ns
+         */
+        void onEntryExtracted(String name, File file, long size, long nanos);
+    }
+
+    /**
+     * 设置并行线程数, 默认为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行解压的线程池, 未设置时每次解压临时创建线程池并在结束后关闭
+     *
+     * @param executor 线程池
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置读写缓冲区大小, 默认 64KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setBufferSize(int bufferSize) {
+        if (bufferSize > 0) mBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * 只解压文件名带有关键字的条目, 规则与 {@link org.camel.utilslibrary.ZipUtils#unzipFileByKeyword} 相同
+     *
+     * @param keyword 关键字, 为空时解压全部条目
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setKeyword(String keyword) {
+        mKeyword = keyword == null || keyword.length() == 0 ? null : keyword.toLowerCase();
+        return this;
+    }
+
+    /**
+     * 设置总体进度监听, 进度为已解压的原始数据字节数, 可通过监听的返回值取消解压
+     * <p>注: 回调在解压线程中执行</p>
+     *
+     * @param listener 进度监听
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 设置单个条目解压完成的监听, 可用于统计各条目的解压速度
+     *
+     * @param listener 条目监听
+     * @return ParallelUnzipper
+     */
+    public ParallelUnzipper setEntryListener(EntryListener listener) {
+        mEntryListener = listener;
+        return this;
+    }
+
+    /**
+     * 解压文件
+     *
+     * @param zipFile 待解压文件
+     * @param destDir 目标目录
+     * @return 解压出的文件和文件夹, 按条目顺序排列; 被取消时返回 null
+     * @throws IOException IO错误或条目路径非法时抛出
+     */
+    public List<File> unzip(File zipFile, File destDir) throws IOException {
+        if (zipFile == null || destDir == null) return null;
+        ZipFile zf = new ZipFile(zipFile);
+        ExecutorService executor = mExecutor;
+        boolean ownExecutor = executor == null;
+        try {
+            String destPath = destDir.getCanonicalPath();
+            List<File> files = new ArrayList<>();
+            List<ZipEntry> entries = new ArrayList<>();
+            List<File> targets = new ArrayList<>();
+            TreeSet<String> dirs = new TreeSet<>();
+            long total = 0;
+            Enumeration<? extends ZipEntry> enumeration = zf.entries();
+            while (enumeration.hasMoreElements()) {
+                ZipEntry entry = enumeration.nextElement();
+                String name = entry.getName();
+                if (mKeyword != null && !getFileName(name).toLowerCase().contains(mKeyword)) continue;
+                checkEntryName(name);
+                File file = new File(destPath, name);
+                files.add(file);
+                if (entry.isDirectory()) {
+                    dirs.add(file.getPath());
+                } else {
+                    File parent = file.getParentFile();
+                    if (parent != null) dirs.add(parent.getPath());
+                    entries.add(entry);
+                    targets.add(file);
+                    if (entry.getSize() > 0) total += entry.getSize();
+                }
+            }
+            // 统一创建目录结构, 解压线程中不再检查目录
+            for (String dir : dirs) {
+                File file = new File(dir);
+                if (!file.isDirectory() && !file.mkdirs() && !file.isDirectory())
+                    throw new IOException("Create dir failed: " + dir);
+            }
+            if (entries.isEmpty()) return files;
+
+            // 按数据量将条目划分为若干任务
+            List<int[]> ranges = new ArrayList<>();
+            int start = 0;
+            long bytes = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                bytes += Math.max(entries.get(i).getSize(), 0);
+                if (bytes >= TASK_BYTES || i == entries.size() - 1) {
+                    ranges.add(new int[]{start, i + 1});
+                    start = i + 1;
+                    bytes = 0;
+                }
+            }
+            int workers = Math.min(mThreadCount, ranges.size());
+            if (ownExecutor) executor = Executors.newFixedThreadPool(workers);
+            Extraction extraction = new Extraction(zf, entries, targets, ranges, total);
+            List<Future<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(extraction));
+            }
+            ExecutionException error = null;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (error == null) error = e;
+                }
+            }
+            if (error != null) {
+                Throwable cause = error.getCause();
+                if (cause instanceof IOException) throw (IOException) cause;
+                throw new IOException(cause);
+            }
+            return extraction.cancelled.get() ? null : files;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            if (ownExecutor && executor != null) executor.shutdownNow();
+            zf.close();
+        }
+    }
+
+    /**
+     * 检查条目名称, 防止解压到目标目录之外 (zip-slip)
+     * <p>仅做字符串检查, 不访问文件系统, 适用于大量条目</p>
+     *
+     * @param name 条目名称
+     * @throws ZipException 名称为绝对路径或包含 ".." 时抛出
+     */
+    public static void checkEntryName(String name) throws ZipException {
+        if (name.length() == 0 || name.charAt(0) == '/' || name.charAt(0) == '\\')
+            throw new ZipException("Illegal entry name: " + name);
+        int segmentStart = 0;
+        for (int i = 0; i <= name.length(); i++) {
+            if (i == name.length() || name.charAt(i) == '/' || name.charAt(i) == '\\') {
+                if (i - segmentStart == 2 && name.charAt(segmentStart) == '.' && name.charAt(segmentStart + 1) == '.')
+                    throw new ZipException("Illegal entry name: " + name);
+                segmentStart = i + 1;
+            }
+        }
+    }
+
+    private static String getFileName(String entryName) {
+        return entryName.substring(entryName.lastIndexOf('/') + 1);
+    }
+
+    private boolean notifyProgress(long current, long total, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        synchronized (this) {
+            return mListener.onProgress(current, total, speed);
+        }
+    }
+
+    private class Extraction implements Callable<Void> {
+
+        final ZipFile zipFile;
+        final List<ZipEntry> entries;
+        final List<File> targets;
+        final List<int[]> ranges;
+        final long total;
+        final long startTime = System.nanoTime();
+        final AtomicInteger nextRange = new AtomicInteger();
+        final AtomicLong extracted = new AtomicLong();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Extraction(ZipFile zipFile, List<ZipEntry> entries, List<File> targets, List<int[]> ranges, long total) {
+            this.zipFile = zipFile;
+            this.entries = entries;
+            this.targets = targets;
+            this.ranges = ranges;
+            this.total = total;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            byte[] buffer = new byte[mBufferSize];
+            try {
+                int index;
+                while (!cancelled.get() && (index = nextRange.getAndIncrement()) < ranges.size()) {
+                    int[] range = ranges.get(index);
+                    for (int i = range[0]; i < range[1] && !cancelled.get(); i++) {
+                        extract(entries.get(i), targets.get(i), buffer);
+                    }
+                }
+            } catch (Exception e) {
+                cancelled.set(true);
+                throw e;
+            }
+            return null;
+        }
+
+        private void extract(ZipEntry entry, File file, byte[] buffer) throws IOException {
+            long begin = System.nanoTime();
+            InputStream in = null;
+            RandomAccessFile out = null;
+            try {
+                in = zipFile.getInputStream(entry);
+                out = new RandomAccessFile(file, "rw");
+                // 按中央目录记录的大小预先分配, 减少写入时的空间分配和碎片
+                long expected = entry.getSize();
+                out.setLength(Math.max(expected, 0));
+                long size = 0;
+                int len;
+                while ((len = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, len);
+                    size += len;
+                    if (!notifyProgress(extracted.addAndGet(len), total, startTime)) {
+                        cancelled.set(true);
+                        return;
+                    }
+                }
+                if (size != expected) out.setLength(size);
+                if (mEntryListener != null) {
+                    mEntryListener.onEntryExtracted(entry.getName(), file, size, System.nanoTime() - begin);
+                }
+            } finally {
+                IOUtils.close(in, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,778 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 并行 zip 压缩
+ *             各条目由线程池中的多个 Deflater 并行压缩, 再按顺序写入压缩文件, 输出与顺序压缩的结果兼容
+ *             大于分块大小的文件切分为多个分块并行压缩, 每个分块以前一分块末尾 32KB 作为字典, 压缩率基本不受影响
+ *             同时处理中的分块数量有上限, 内存占用约为 线程数 * 2 * 分块大小 * 2
+ *
+ *             使用:
+ *             new ParallelZipper()
+ *                     .setLevel(Deflater.BEST_SPEED)
+ *                     .zip(files, zipFile);
+ *
+ *             注: 1.条目命名规则与 {@link org.camel.utilslibrary.ZipUtils#zipFiles} 相同
+ *                 2.大文件分块需要 API 19 (Deflater.SYNC_FLUSH), 低版本在写入线程中整体压缩
+ *                 3.可通过 {@link CompressionPolicy} 让已压缩的媒体文件原样存储
+ *                 4.{@link #update} 增量更新已有压缩文件, 未变化的条目直接拷贝压缩数据
+ * </pre>
+ */
+public class ParallelZipper {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    // zip 中修改时间的精度, 单位: ms
+    private static final long TIME_PRECISION = 2000;
+    // 加密 (bit 0)、强加密 (bit 6)、加密中央目录 (bit 13) 的条目不能直接拷贝
+    private static final int UNSUPPORTED_FLAGS = 1 | 1 << 6 | 1 << 13;
+
+    private int mThreadCount = Runtime.getRuntime().availableProcessors();
+    private ExecutorService mExecutor;
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private int mBlockSize = DEFAULT_BLOCK_SIZE;
+    private int mLevel = Deflater.DEFAULT_COMPRESSION;
+    private CompressionPolicy mPolicy;
+    private String mEntryComment;
+    private String mComment;
+    private ProgressListener mListener;
+    private boolean mVerifyCrc = true;
+    // 大文件是否分块并行压缩, 依赖 Deflater.SYNC_FLUSH; 测试时可修改
+    boolean mSplitBlocks = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+
+    /**
+     * 设置并行线程数, 默认为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return ParallelZipper
+     */
+    public ParallelZipper setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行压缩的线程池, 未设置时每次压缩临时创建线程池并在结束后关闭
+     *
+     * @param executor 线程池
+     * @return ParallelZipper
+     */
+    public ParallelZipper setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置读写缓冲区大小, 默认 64KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return ParallelZipper
+     */
+    public ParallelZipper setBufferSize(int bufferSize) {
+        if (bufferSize > 0) mBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * 设置分块大小, 默认 1MB; 不大于该大小的文件作为一个任务压缩, 更大的文件切分为多个分块
+     *
+     * @param blockSize 分块大小, 单位: B, 不小于 64KB
+     * @return ParallelZipper
+     */
+    public ParallelZipper setBlockSize(int blockSize) {
+        mBlockSize = Math.max(blockSize, 64 * 1024);
+        return this;
+    }
+
+    /**
+     * 设置压缩级别, 默认 {@link Deflater#DEFAULT_COMPRESSION}
+     *
+     * @param level 0-9
+     * @return ParallelZipper
+     */
+    public ParallelZipper setLevel(int level) {
+        if (level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION) mLevel = level;
+        return this;
+    }
+
+    /**
+     * 设置压缩策略, 按条目决定原样存储或压缩; 设置后压缩级别以策略为准
+     * <p>原样存储的大文件先并行计算 CRC, 再通过文件通道直接传输</p>
+     *
+     * @param policy 压缩策略, 为 null 时全部压缩
+     * @return ParallelZipper
+     */
+    public ParallelZipper setCompressionPolicy(CompressionPolicy policy) {
+        mPolicy = policy;
+        return this;
+    }
+
+    /**
+     * 设置每个条目的注释
+     *
+     * @param comment 注释
+     * @return ParallelZipper
+     */
+    public ParallelZipper setEntryComment(String comment) {
+        mEntryComment = comment;
+        return this;
+    }
+
+    /**
+     * 设置压缩文件的注释
+     *
+     * @param comment 注释
+     * @return ParallelZipper
+     */
+    public ParallelZipper setComment(String comment) {
+        mComment = comment;
+        return this;
+    }
+
+    /**
+     * 设置进度监听, 进度为已写入的原始数据字节数, 可通过监听的返回值取消压缩
+     * <p>注: 回调在调用 zip 的线程中执行</p>
+     *
+     * @param listener 进度监听
+     * @return ParallelZipper
+     */
+    public ParallelZipper setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 设置增量更新时是否校验 CRC, 默认开启
+     * <p>开启时读取每个大小和修改时间未变化的文件计算 CRC (大文件在线程池中并行计算), 仍省去了压缩的开销;
+     * 关闭后只比较大小和修改时间, 但修改时间与原压缩文件写入时间相差不足 2 秒的条目仍校验 CRC,
+     * 避免在时间精度范围内被修改且大小不变的文件被误认为未变化</p>
+     *
+     * @param verifyCrc 是否校验 CRC
+     * @return ParallelZipper
+     * @see #update(Collection, File)
+     */
+    public ParallelZipper setVerifyCrc(boolean verifyCrc) {
+        mVerifyCrc = verifyCrc;
+        return this;
+    }
+
+    /**
+     * 压缩文件
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件, 失败或取消时删除
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消
+     * @throws IOException IO错误时抛出
+     */
+    public boolean zip(Collection<File> resFiles, File zipFile) throws IOException {
+        if (resFiles == null || zipFile == null) return false;
+        FileOutputStream fos = null;
+        boolean success = false;
+        try {
+            fos = new FileOutputStream(zipFile);
+            success = zip(resFiles, new ZipWriter(fos.getChannel()), null, null, 0);
+            return success;
+        } finally {
+            IOUtils.close(fos);
+            if (!success) zipFile.delete();
+        }
+    }
+
+    /**
+     * 增量更新压缩文件
+     * <p>与已有压缩文件中的同名条目比较大小、修改时间和 CRC (见 {@link #setVerifyCrc}), 未变化的条目直接拷贝压缩后的数据,
+     * 只压缩新增或变化的文件; 已删除的文件不再保留; 加密的条目不拷贝, 按普通条目重新压缩.
+     * 结果与重新压缩相同, 先写入临时文件, 成功后替换原文件</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @param zipFile  压缩文件, 不存在时直接压缩
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消, 原文件保持不变
+     * @throws IOException IO错误时抛出
+     */
+    public boolean update(Collection<File> resFiles, File zipFile) throws IOException {
+        if (resFiles == null || zipFile == null) return false;
+        if (!zipFile.isFile()) return zip(resFiles, zipFile);
+        ZipIndex previous;
+        try {
+            previous = ZipIndex.open(zipFile);
+        } catch (ZipException e) {
+            // 原文件损坏时重新压缩
+            return zip(resFiles, zipFile);
+        }
+        long previousTime = zipFile.lastModified();
+        File tmp = new File(zipFile.getPath() + ".tmp");
+        RandomAccessFile raf = null;
+        FileOutputStream fos = null;
+        boolean success = false;
+        try {
+            raf = new RandomAccessFile(zipFile, "r");
+            fos = new FileOutputStream(tmp);
+            success = zip(resFiles, new ZipWriter(fos.getChannel()), previous, raf.getChannel(), previousTime);
+            fos.close();
+            fos = null;
+            raf.close();
+            raf = null;
+            if (success && !tmp.renameTo(zipFile)) {
+                success = zipFile.delete() && tmp.renameTo(zipFile);
+                if (!success) throw new IOException("Replace zip file failed: " + zipFile);
+            }
+            return success;
+        } finally {
+            IOUtils.close(fos, raf);
+            if (!success) tmp.delete();
+        }
+    }
+
+    /**
+     * 压缩文件并写入输出流, 不关闭输出流
+     *
+     * @param resFiles 待压缩文件集合
+     * @param out      输出流
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消
+     * @throws IOException IO错误时抛出
+     */
+    public boolean zip(Collection<File> resFiles, OutputStream out) throws IOException {
+        if (resFiles == null || out == null) return false;
+        return zip(resFiles, new ZipWriter(out), null, null, 0);
+    }
+
+    /**
+     * @param previousTime 已有压缩文件的写入时间, 没有已有压缩文件时为 0
+     */
+    private boolean zip(Collection<File> resFiles, ZipWriter writer, ZipIndex previous, FileChannel previousChannel,
+                        long previousTime) throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (File resFile : resFiles) {
+            collectSources(resFile, "", sources);
+        }
+
+        ExecutorService executor = mExecutor;
+        boolean ownExecutor = executor == null;
+        if (ownExecutor) executor = Executors.newFixedThreadPool(mThreadCount);
+        // 每次压缩使用独立的 Deflater 池, 结束后统一释放
+        ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+        ArrayDeque<Pending> window = new ArrayDeque<>();
+        List<Future<Long>> crcs = new ArrayList<>();
+        int maxInFlight = mThreadCount * 2;
+        try {
+            long total = 0;
+            for (Source source : sources) {
+                total += source.length;
+                int old = previous == null || source.directory ? -1 : previous.find(source.name);
+                if (old < 0 || !isUnchanged(previous, old, source)) continue;
+                source.previous = old;
+                source.previousCrc = previous.getCrc(old);
+                if (!mVerifyCrc && previous.getTime(old) + TIME_PRECISION <= previousTime) {
+                    source.verified = true;
+                } else if (source.length > mBlockSize) {
+                    // 大文件在线程池中并行计算 CRC; 小文件在压缩任务中读取数据时校验
+                    source.crc = submitCrc(executor, source);
+                    crcs.add(source.crc);
+                }
+            }
+            List<Unit> units = buildUnits(sources);
+            if (mComment != null) writer.setComment(mComment);
+            long written = 0;
+            long startTime = System.nanoTime();
+            CRC32 streamCrc = new CRC32();
+            long entryCrc = 0;
+            int next = 0;
+            while (next < units.size() || !window.isEmpty()) {
+                while (next < units.size() && window.size() < maxInFlight) {
+                    window.add(submit(executor, units.get(next++), deflaters));
+                }
+                Pending pending = window.poll();
+                Unit unit = pending.unit;
+                if (unit.index == Unit.INLINE) {
+                    written = deflateInline(writer, unit.source, deflaters, streamCrc, written, total, startTime);
+                    if (written < 0) return false;
+                    continue;
+                }
+                Block block = unit.index == Unit.COPY ? null : pending.future.get();
+                if (block == null || block.copy) {
+                    copyPrevious(writer, previous, previousChannel, unit.source);
+                } else if (unit.index == 0 && unit.last) {
+                    writer.writeEntry(newEntry(unit.source, block), block.data, 0, block.length);
+                } else if (unit.source.stored) {
+                    entryCrc = unit.index == 0 ? block.crc : crc32Combine(entryCrc, block.crc, unit.length);
+                    if (unit.last) transferStored(writer, unit.source, entryCrc);
+                } else {
+                    if (unit.index == 0) {
+                        writer.beginEntry(newEntry(unit.source, null));
+                        entryCrc = block.crc;
+                    } else {
+                        entryCrc = crc32Combine(entryCrc, block.crc, unit.length);
+                    }
+                    writer.write(block.data, 0, block.length);
+                    if (unit.last) writer.endEntry(entryCrc, unit.source.length);
+                }
+                written += unit.length;
+                if (!notifyProgress(written, total, startTime)) return false;
+            }
+            writer.finish();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        } finally {
+            for (Future<Long> crc : crcs) {
+                crc.cancel(true);
+            }
+            for (Pending pending : window) {
+                if (pending.future != null) pending.future.cancel(true);
+            }
+            if (ownExecutor) executor.shutdownNow();
+            Deflater deflater;
+            while ((deflater = deflaters.poll()) != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * 将文件拆分为压缩任务, 等待大文件的 CRC 校验结果决定是否直接拷贝
+     */
+    private List<Unit> buildUnits(List<Source> sources) throws InterruptedException, ExecutionException {
+        List<Unit> units = new ArrayList<>();
+        for (Source source : sources) {
+            if (source.previous >= 0) {
+                if (source.verified || source.crc != null && source.crc.get() == source.previousCrc) {
+                    units.add(new Unit(source, Unit.COPY, 0, source.length, true));
+                    continue;
+                }
+                // 大文件内容已变化, 重新压缩; 小文件在压缩任务中校验
+                if (source.crc != null) source.previous = -1;
+            }
+            if (source.directory || source.length <= mBlockSize) {
+                // 小文件在压缩任务中读取全部数据后再采样判断
+                source.stored = mPolicy != null && mPolicy.isStoredByName(source.file.getName());
+                units.add(new Unit(source, 0, 0, source.length, true));
+            } else if (mPolicy != null && mPolicy.isStored(source.file)) {
+                // 原样存储的大文件分块并行计算 CRC, 写入时直接传输
+                source.stored = true;
+                for (long offset = 0; offset < source.length; offset += mBlockSize) {
+                    long end = Math.min(source.length, offset + mBlockSize);
+                    units.add(new Unit(source, (int) (offset / mBlockSize), offset, end - offset, end == source.length));
+                }
+            } else if (mSplitBlocks) {
+                for (long offset = 0; offset < source.length; offset += mBlockSize) {
+                    long end = Math.min(source.length, offset + mBlockSize);
+                    units.add(new Unit(source, (int) (offset / mBlockSize), offset, end - offset, end == source.length));
+                }
+            } else {
+                // 无法分块, 由写入线程流式压缩
+                units.add(new Unit(source, Unit.INLINE, 0, source.length, true));
+            }
+        }
+        return units;
+    }
+
+    private void collectSources(File resFile, String rootPath, List<Source> sources) {
+        rootPath = rootPath + (rootPath.isEmpty() ? "" : File.separator) + resFile.getName();
+        if (resFile.isDirectory()) {
+            File[] fileList = resFile.listFiles();
+            if (fileList == null || fileList.length <= 0) {
+                sources.add(new Source(resFile, rootPath + '/', true));
+            } else {
+                for (File file : fileList) {
+                    collectSources(file, rootPath, sources);
+                }
+            }
+        } else {
+            sources.add(new Source(resFile, rootPath, false));
+        }
+    }
+
+    private Pending submit(ExecutorService executor, final Unit unit, final ConcurrentLinkedQueue<Deflater> deflaters) {
+        if (unit.index < 0) return new Pending(unit, null);
+        // 需要读取数据的任务交给线程池
+        return new Pending(unit, executor.submit(new Callable<Block>() {
+            @Override
+            public Block call() throws Exception {
+                return processUnit(unit, deflaters);
+            }
+        }));
+    }
+
+    private ZipEntry newEntry(Source source, Block block) {
+        ZipEntry entry = new ZipEntry(source.name);
+        entry.setTime(source.lastModified);
+        if (mEntryComment != null && mEntryComment.length() > 0) entry.setComment(mEntryComment);
+        if (source.directory) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(0);
+            entry.setCompressedSize(0);
+            entry.setCrc(0);
+        } else if (block != null) {
+            entry.setMethod(block.stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            entry.setSize(source.length);
+            entry.setCompressedSize(block.length);
+            entry.setCrc(block.crc);
+        } else {
+            entry.setMethod(ZipEntry.DEFLATED);
+        }
+        return entry;
+    }
+
+    private Block processUnit(Unit unit, ConcurrentLinkedQueue<Deflater> deflaters) throws IOException {
+        if (unit.source.directory) return new Block(new byte[0], 0, 0, true);
+        boolean whole = unit.index == 0 && unit.last;
+        if (unit.source.stored && !whole) return new Block(null, 0, crcBlock(unit), true);
+        // 读取当前分块及其之前最多 32KB 数据作为字典
+        int dictionary = unit.index == 0 ? 0 : (int) Math.min(DICTIONARY_SIZE, unit.offset);
+        byte[] input = new byte[dictionary + (int) unit.length];
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(unit.source.file);
+            FileChannel channel = fis.getChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(input);
+            long position = unit.offset - dictionary;
+            while (buffer.position() < input.length) {
+                buffer.limit(Math.min(input.length, buffer.position() + mBufferSize));
+                int len = channel.read(buffer, position);
+                if (len < 0) throw new IOException("File changed during compression: " + unit.source.file);
+                position += len;
+            }
+        } finally {
+            IOUtils.close(fis);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(input, dictionary, (int) unit.length);
+        if (unit.source.previous >= 0 && crc.getValue() == unit.source.previousCrc) {
+            return new Block(null, 0, crc.getValue(), false, true);
+        }
+        if (whole && (unit.source.stored || mPolicy != null && mPolicy.isStoredBySample(input, 0, input.length))) {
+            return new Block(input, input.length, crc.getValue(), true);
+        }
+
+        Deflater deflater = obtainDeflater(deflaters);
+        try {
+            if (dictionary > 0) deflater.setDictionary(input, 0, dictionary);
+            deflater.setInput(input, dictionary, (int) unit.length);
+            byte[] output = new byte[(int) unit.length + ((int) unit.length >>> 8) + 64];
+            int length = 0;
+            if (unit.last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (length == output.length) output = grow(output);
+                    length += deflater.deflate(output, length, output.length - length);
+                }
+            } else {
+                // 非最后分块以 SYNC_FLUSH 结束, 保证字节对齐且不设置结束标记, 可直接与后续分块拼接
+                while (true) {
+                    int space = output.length - length;
+                    int len = syncFlush(deflater, output, length, space);
+                    length += len;
+                    if (len < space) break;
+                    output = grow(output);
+                }
+            }
+            // 压缩后反而更大时原样存储
+            if (whole && length >= input.length) return new Block(input, input.length, crc.getValue(), true);
+            return new Block(output, length, crc.getValue(), false);
+        } finally {
+            releaseDeflater(deflaters, deflater);
+        }
+    }
+
+    private long deflateInline(ZipWriter writer, Source source, ConcurrentLinkedQueue<Deflater> deflaters, CRC32 crc,
+                               long written, long total, long startTime) throws IOException {
+        writer.beginEntry(newEntry(source, null));
+        crc.reset();
+        Deflater deflater = obtainDeflater(deflaters);
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(source.file);
+            byte[] input = new byte[mBufferSize];
+            byte[] output = new byte[mBufferSize];
+            long size = 0;
+            int len;
+            while ((len = fis.read(input)) != -1) {
+                crc.update(input, 0, len);
+                deflater.setInput(input, 0, len);
+                while (!deflater.needsInput()) {
+                    int n = deflater.deflate(output);
+                    if (n > 0) writer.write(output, 0, n);
+                }
+                size += len;
+                written += len;
+                if (!notifyProgress(written, total, startTime)) return -1;
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(output);
+                if (n > 0) writer.write(output, 0, n);
+            }
+            writer.endEntry(crc.getValue(), size);
+            return written;
+        } finally {
+            IOUtils.close(fis);
+            releaseDeflater(deflaters, deflater);
+        }
+    }
+
+    /**
+     * 已有条目是否可以直接拷贝: 大小和修改时间相同, 且为未加密的 STORED / DEFLATED 条目
+     * <p>加密条目的数据无法按普通条目写入, 重新压缩</p>
+     */
+    private boolean isUnchanged(ZipIndex previous, int index, Source source) {
+        return previous.getSize(index) == source.length
+                && Math.abs(previous.getTime(index) - source.lastModified) < TIME_PRECISION
+                && (previous.getMethod(index) == ZipEntry.STORED || previous.getMethod(index) == ZipEntry.DEFLATED)
+                && (previous.getFlags(index) & UNSUPPORTED_FLAGS) == 0;
+    }
+
+    private Future<Long> submitCrc(ExecutorService executor, final Source source) {
+        return executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                return crcBlock(new Unit(source, 0, 0, source.length, true));
+            }
+        });
+    }
+
+    private void copyPrevious(ZipWriter writer, ZipIndex previous, FileChannel channel, Source source)
+            throws IOException {
+        int index = source.previous;
+        ZipEntry entry = previous.getEntry(index);
+        entry.setComment(mEntryComment != null && mEntryComment.length() > 0 ? mEntryComment : null);
+        writer.beginEntry(entry);
+        writer.transferFrom(channel, previous.getDataOffset(channel, index), previous.getCompressedSize(index));
+        writer.endEntry(entry.getCrc(), entry.getSize());
+    }
+
+    private long crcBlock(Unit unit) throws IOException {
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(unit.source.file);
+            FileChannel channel = fis.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(mBufferSize, unit.length));
+            CRC32 crc = new CRC32();
+            long position = unit.offset;
+            long end = unit.offset + unit.length;
+            while (position < end) {
+                buffer.clear();
+                if (end - position < buffer.capacity()) buffer.limit((int) (end - position));
+                int len = channel.read(buffer, position);
+                if (len < 0) throw new IOException("File changed during compression: " + unit.source.file);
+                crc.update(buffer.array(), 0, len);
+                position += len;
+            }
+            return crc.getValue();
+        } finally {
+            IOUtils.close(fis);
+        }
+    }
+
+    private void transferStored(ZipWriter writer, Source source, long crc) throws IOException {
+        ZipEntry entry = new ZipEntry(source.name);
+        entry.setTime(source.lastModified);
+        if (mEntryComment != null && mEntryComment.length() > 0) entry.setComment(mEntryComment);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(source.length);
+        entry.setCompressedSize(source.length);
+        entry.setCrc(crc);
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(source.file);
+            writer.beginEntry(entry);
+            writer.transferFrom(fis.getChannel(), 0, source.length);
+            writer.endEntry(crc, source.length);
+        } finally {
+            IOUtils.close(fis);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int syncFlush(Deflater deflater, byte[] output, int offset, int length) {
+        return deflater.deflate(output, offset, length, Deflater.SYNC_FLUSH);
+    }
+
+    private Deflater obtainDeflater(ConcurrentLinkedQueue<Deflater> deflaters) {
+        Deflater deflater = deflaters.poll();
+        return deflater != null ? deflater : new Deflater(mPolicy != null ? mPolicy.getLevel() : mLevel, true);
+    }
+
+    private static void releaseDeflater(ConcurrentLinkedQueue<Deflater> deflaters, Deflater deflater) {
+        deflater.reset();
+        deflaters.offer(deflater);
+    }
+
+    private static byte[] grow(byte[] array) {
+        byte[] bigger = new byte[array.length + (array.length >>> 1) + 64];
+        System.arraycopy(array, 0, bigger, 0, array.length);
+        return bigger;
+    }
+
+    private boolean notifyProgress(long current, long total, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        return mListener.onProgress(current, total, speed);
+    }
+
+    /**
+     * 合并两段连续数据的 CRC32, 算法参考 zlib 的 crc32_combine
+     *
+     * @param crc1 前一段数据的 CRC32
+     * @param crc2 后一段数据的 CRC32
+     * @param len2 后一段数据的长度
+     * @return 两段数据拼接后的 CRC32
+     */
+    public static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) return crc1;
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // 对应一个 0 比特的运算矩阵
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>= 1;
+            if (len2 == 0) break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>= 1;
+        } while (len2 != 0);
+        return (crc1 ^ crc2) & 0xffffffffL;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        int i = 0;
+        while (vec != 0) {
+            if ((vec & 1) != 0) sum ^= mat[i];
+            vec >>>= 1;
+            i++;
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
+    private static class Source {
+        final File file;
+        final String name;
+        final boolean directory;
+        final long length;
+        final long lastModified;
+        // 是否原样存储
+        boolean stored;
+        // 增量更新时已有压缩文件中对应条目的序号, -1 表示没有可复用的条目
+        int previous = -1;
+        long previousCrc;
+        // 无需校验 CRC, 直接拷贝
+        boolean verified;
+        // 大文件在线程池中计算的 CRC
+        Future<Long> crc;
+
+        Source(File file, String name, boolean directory) {
+            this.file = file;
+            this.name = name;
+            this.directory = directory;
+            this.length = directory ? 0 : file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    private static class Unit {
+        // 由写入线程整体压缩
+        static final int INLINE = -1;
+        // 由写入线程从已有压缩文件拷贝
+        static final int COPY = -2;
+
+        final Source source;
+        // 分块序号, 或 INLINE / COPY
+        final int index;
+        final long offset;
+        final long length;
+        final boolean last;
+
+        Unit(Source source, int index, long offset, long length, boolean last) {
+            this.source = source;
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+            this.last = last;
+        }
+    }
+
+    private static class Block {
+        final byte[] data;
+        final int length;
+        final long crc;
+        final boolean stored;
+        // 数据与已有压缩文件中的条目相同, 直接拷贝
+        final boolean copy;
+
+        Block(byte[] data, int length, long crc, boolean stored) {
+            this(data, length, crc, stored, false);
+        }
+
+        Block(byte[] data, int length, long crc, boolean stored, boolean copy) {
+            this.data = data;
+            this.length = length;
+            this.crc = crc;
+            this.stored = stored;
+            this.copy = copy;
+        }
+    }
+
+    private static class Pending {
+        final Unit unit;
+        final Future<Block> future;
+
+        Pending(Unit unit, Future<Block> future) {
+            this.unit = unit;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.camel.utilslibrary.tools;
+
+import android.graphics.Bitmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 按目标大小选择压缩质量的 Bitmap 编码器
+ *             先以最高质量编码一次, 超出目标大小时在质量区间内查找不超过目标大小的最高质量:
+ *             每次按已测得的两端大小 (对数) 插值估算质量, 并限制在区间中部, 保证区间每次至少缩小 1/4;
+ *             结果落在容差范围内 (默认目标大小的 90% ~ 100%) 即停止
+ *             编码结果保存在可复用的缓冲区中, 查找过程中不复制数据
+ *
+ *             使用:
+ *             QualityEncoder encoder = new QualityEncoder();
+ *             if (encoder.encode(bitmap, Bitmap.CompressFormat.JPEG, 200 * 1024) != -1) {
+ *                 encoder.writeTo(outputStream);
+ *             }
+ *
+ *             注: 1.PNG 为无损格式, 质量参数无效, 只编码一次
+ *                 2.最低质量仍超出目标大小时, 保留最低质量的结果
+ *                 3.非线程安全, 可在同一线程中重复使用以复用缓冲区
+ * </pre>
+ */
+public class QualityEncoder {
+
+    // 未测量时假定最低质量的大小为最高质量的比例, 仅用于第一次估算
+    private static final double MIN_QUALITY_SIZE_RATIO = 0.05;
+
+    private int mMinQuality = 0;
+    private int mMaxQuality = 100;
+    private float mTolerance = 0.1f;
+    private Buffer mResult = new Buffer();
+    private Buffer mAttempt = new Buffer();
+    private int mQuality = -1;
+    private int mPasses;
+
+    /**
+     * 设置质量区间, 默认 0 - 100
+     *
+     * @param minQuality 最低质量
+     * @param maxQuality 最高质量
+     * @return QualityEncoder
+     */
+    public QualityEncoder setQualityRange(int minQuality, int maxQuality) {
+        if (minQuality >= 0 && maxQuality <= 100 && minQuality <= maxQuality) {
+            mMinQuality = minQuality;
+            mMaxQuality = maxQuality;
+        }
+        return this;
+    }
+
+    /**
+     * 设置容差, 结果大小不小于目标大小的 (1 - tolerance) 时停止查找, 默认 0.1
+     *
+     * @param tolerance 容差, 0 - 1, 为 0 时查找到不超过目标大小的最高质量为止
+     * @return QualityEncoder
+     */
+    public QualityEncoder setTolerance(float tolerance) {
+        if (tolerance >= 0 && tolerance < 1) mTolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * 编码 Bitmap, 选择结果不超过目标大小的最高质量
+     *
+     * @param bitmap  Bitmap 对象
+     * @param format  格式: JPEG / PNG / WEBP
+     * @param maxSize 目标大小, 单位: B
+     * @return 选择的质量; 编码失败时返回 -1
+     */
+    public int encode(Bitmap bitmap, Bitmap.CompressFormat format, long maxSize) {
+        mResult.reset();
+        mQuality = -1;
+        mPasses = 0;
+        if (bitmap == null || bitmap.isRecycled()) return -1;
+
+        int hi = mMaxQuality;
+        if (!compress(bitmap, format, hi)) return -1;
+        long hiSize = mAttempt.size();
+        swap(hi);
+        if (hiSize <= maxSize || format == Bitmap.CompressFormat.PNG || hi == mMinQuality) return mQuality;
+
+        // lo 的大小未测量时按比例估算, 仅用于插值
+        int lo = mMinQuality;
+        long loSize = Math.max(1, (long) (hiSize * MIN_QUALITY_SIZE_RATIO));
+        long lowerBound = (long) (maxSize * (1 - mTolerance));
+        boolean found = false;
+        while (hi - lo > 1) {
+            int quality = estimate(lo, loSize, hi, hiSize, maxSize);
+            if (!compress(bitmap, format, quality)) return -1;
+            long size = mAttempt.size();
+            if (size <= maxSize) {
+                swap(quality);
+                found = true;
+                lo = quality;
+                loSize = size;
+                if (size >= lowerBound) break;
+            } else {
+                hi = quality;
+                hiSize = size;
+            }
+        }
+        if (!found) {
+            // 区间内的质量都超出目标大小, 使用最低质量
+            if (!compress(bitmap, format, lo)) return -1;
+            swap(lo);
+        }
+        return mQuality;
+    }
+
+    /**
+     * @return 上一次编码选择的质量; 未编码或编码失败时返回 -1
+     */
+    public int getQuality() {
+        return mQuality;
+    }
+
+    /**
+     * @return 上一次编码执行的压缩次数
+     */
+    public int getPassCount() {
+        return mPasses;
+    }
+
+    /**
+     * @return 编码结果的大小, 单位: B
+     */
+    public int size() {
+        return mResult.size();
+    }
+
+    /**
+     * 编码结果所在的缓冲区, 有效数据为 [0, {@link #size()}), 下次编码时会被覆盖
+     *
+     * @return 缓冲区
+     */
+    public byte[] getBuffer() {
+        return mResult.getBuffer();
+    }
+
+    /**
+     * @return 编码结果的副本
+     */
+    public byte[] toByteArray() {
+        return mResult.toByteArray();
+    }
+
+    /**
+     * 将编码结果写入输出流
+     *
+     * @param out 输出流
+     * @throws IOException IO错误时抛出
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        mResult.writeTo(out);
+    }
+
+    private boolean compress(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+        mAttempt.reset();
+        mPasses++;
+        return bitmap.compress(format, quality, mAttempt);
+    }
+
+    /**
+     * 将刚编码的结果设为当前结果, 原结果的缓冲区留作下次编码使用
+     */
+    private void swap(int quality) {
+        Buffer buffer = mResult;
+        mResult = mAttempt;
+        mAttempt = buffer;
+        mQuality = quality;
+    }
+
+    /**
+     * 在 lo 和 hi 之间按对数大小插值估算质量, 并限制在区间中部
+     */
+    private static int estimate(int lo, long loSize, int hi, long hiSize, long maxSize) {
+        double quality;
+        if (hiSize <= loSize || maxSize <= loSize) {
+            quality = (lo + hi) / 2d;
+        } else {
+            double ratio = Math.log((double) maxSize / loSize) / Math.log((double) hiSize / loSize);
+            quality = lo + (hi - lo) * ratio;
+        }
+        int margin = Math.max(1, (hi - lo) / 4);
+        return (int) Math.max(lo + margin, Math.min(hi - margin, Math.round(quality)));
+    }
+
+    /**
+     * 可直接访问内部数组的 ByteArrayOutputStream
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+
+        byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
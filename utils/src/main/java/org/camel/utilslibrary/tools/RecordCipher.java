@@ -0,0 +1,240 @@
+package org.camel.utilslibrary.tools;
+
+import android.os.Build;
+import android.support.annotation.RequiresApi;
+
+import org.camel.utilslibrary.module.RecordBatch;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : AES-GCM 记录加密上下文
+ *             预先准备好秘钥, 适用于大量小记录 (缓存数据、数据库字段等) 的加密解密, 支持批量处理
+ *             每条密文记录的格式为: 12 字节 nonce + 密文 + 16 字节认证标签
+ *             nonce 的初始值为 12 字节 (96 位) 随机数, 之后每条记录递增 1, 保证同一上下文内不会重复,
+ *             不同上下文的 nonce 区间重叠的概率可以忽略
+ *
+ *             使用:
+ *             RecordCipher cipher = new RecordCipher(key);
+ *             RecordBatch sealed = cipher.encryptBatch(records);
+ *             RecordBatch opened = cipher.decryptBatch(sealed);
+ *
+ *             注: 1.线程安全; 同一秘钥请尽量复用同一个上下文
+ *                 2.同一秘钥加密的记录总数 (包括该秘钥的所有上下文) 不要超过 {@link #MAX_RECORDS_PER_KEY},
+ *                   单个上下文达到该数量后加密失败, 需要更换秘钥
+ * </pre>
+ */
+@RequiresApi(api = Build.VERSION_CODES.KITKAT)
+public class RecordCipher {
+
+    public static final int NONCE_LENGTH = 12;
+    public static final int TAG_LENGTH = 16;
+    /**
+     * 同一秘钥可加密的记录数上限 (2^32), 超过后随机 nonce 冲突的概率不再可以忽略
+     */
+    public static final long MAX_RECORDS_PER_KEY = 1L << 32;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private final SecretKeySpec mKey;
+    // nonce 初始值的高 4 字节和低 8 字节, 低 8 字节按记录递增
+    private final int mNonceHigh;
+    private final long mNonceLow;
+    private final AtomicLong mCount = new AtomicLong();
+
+    /**
+     * @param key 16、24、32字节秘钥
+     * @throws IllegalArgumentException 秘钥长度不正确时抛出
+     */
+    public RecordCipher(byte[] key) {
+        this(key, CryptoPool.getSecureRandom().nextInt(), CryptoPool.getSecureRandom().nextLong(), 0);
+    }
+
+    /**
+     * 指定 nonce 初始值和已加密的记录数, 仅用于测试
+     */
+    RecordCipher(byte[] key, int nonceHigh, long nonceLow, long count) {
+        if (key == null || (key.length != 16 && key.length != 24 && key.length != 32))
+            throw new IllegalArgumentException("AES key must be 16, 24 or 32 bytes");
+        mKey = new SecretKeySpec(key, "AES");
+        mNonceHigh = nonceHigh;
+        mNonceLow = nonceLow;
+        mCount.set(count);
+    }
+
+    /**
+     * 加密单条记录
+     *
+     * @param record 明文
+     * @return 密文记录, 失败返回 null
+     */
+    public byte[] encrypt(byte[] record) {
+        return encrypt(record, null);
+    }
+
+    /**
+     * 加密单条记录
+     *
+     * @param record 明文
+     * @param aad    附加认证数据, 解密时需提供相同数据, 可为 null
+     * @return 密文记录, 失败返回 null
+     */
+    public byte[] encrypt(byte[] record, byte[] aad) {
+        if (record == null) return null;
+        byte[] out = new byte[NONCE_LENGTH + record.length + TAG_LENGTH];
+        try {
+            Cipher cipher = CryptoPool.getCipher(TRANSFORMATION);
+            seal(cipher, record, 0, record.length, aad, out, 0);
+            return out;
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 解密单条记录
+     *
+     * @param sealed 密文记录
+     * @return 明文, 失败或校验不通过返回 null
+     */
+    public byte[] decrypt(byte[] sealed) {
+        return decrypt(sealed, null);
+    }
+
+    /**
+     * 解密单条记录
+     *
+     * @param sealed 密文记录
+     * @param aad    加密时提供的附加认证数据, 可为 null
+     * @return 明文, 失败或校验不通过返回 null
+     */
+    public byte[] decrypt(byte[] sealed, byte[] aad) {
+        if (sealed == null || sealed.length < NONCE_LENGTH + TAG_LENGTH) return null;
+        byte[] out = new byte[sealed.length - NONCE_LENGTH - TAG_LENGTH];
+        try {
+            Cipher cipher = CryptoPool.getCipher(TRANSFORMATION);
+            open(cipher, sealed, 0, sealed.length, aad, out, 0);
+            return out;
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 批量加密
+     *
+     * @param records 明文记录
+     * @return 连续存放的密文记录, 失败返回 null
+     * @throws IllegalArgumentException 存在为 null 的记录时抛出
+     */
+    public RecordBatch encryptBatch(byte[]... records) {
+        if (records == null) return null;
+        int[] offsets = new int[records.length + 1];
+        for (int i = 0; i < records.length; i++) {
+            if (records[i] == null) throw new IllegalArgumentException("Record " + i + " is null");
+            offsets[i + 1] = offsets[i] + NONCE_LENGTH + records[i].length + TAG_LENGTH;
+        }
+        byte[] out = new byte[offsets[records.length]];
+        try {
+            Cipher cipher = CryptoPool.getCipher(TRANSFORMATION);
+            for (int i = 0; i < records.length; i++) {
+                seal(cipher, records[i], 0, records[i].length, null, out, offsets[i]);
+            }
+            return new RecordBatch(out, offsets);
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 批量加密
+     *
+     * @param plain 连续存放的明文记录
+     * @return 连续存放的密文记录, 失败返回 null
+     */
+    public RecordBatch encryptBatch(RecordBatch plain) {
+        if (plain == null) return null;
+        int count = plain.size();
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] = offsets[i] + NONCE_LENGTH + plain.getLength(i) + TAG_LENGTH;
+        }
+        byte[] out = new byte[offsets[count]];
+        try {
+            Cipher cipher = CryptoPool.getCipher(TRANSFORMATION);
+            for (int i = 0; i < count; i++) {
+                seal(cipher, plain.getData(), plain.getOffset(i), plain.getLength(i), null, out, offsets[i]);
+            }
+            return new RecordBatch(out, offsets);
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 批量解密, 任意一条记录校验不通过都将导致失败
+     *
+     * @param sealed 连续存放的密文记录
+     * @return 连续存放的明文记录, 失败返回 null
+     */
+    public RecordBatch decryptBatch(RecordBatch sealed) {
+        if (sealed == null) return null;
+        int count = sealed.size();
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            int length = sealed.getLength(i) - NONCE_LENGTH - TAG_LENGTH;
+            if (length < 0) return null;
+            offsets[i + 1] = offsets[i] + length;
+        }
+        byte[] out = new byte[offsets[count]];
+        try {
+            Cipher cipher = CryptoPool.getCipher(TRANSFORMATION);
+            for (int i = 0; i < count; i++) {
+                open(cipher, sealed.getData(), sealed.getOffset(i), sealed.getLength(i), null, out, offsets[i]);
+            }
+            return new RecordBatch(out, offsets);
+        } catch (GeneralSecurityException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void seal(Cipher cipher, byte[] in, int inOffset, int inLength, byte[] aad, byte[] out, int outOffset)
+            throws GeneralSecurityException {
+        long count = mCount.getAndIncrement();
+        if (count >= MAX_RECORDS_PER_KEY) throw new GeneralSecurityException("Too many records for one key");
+        // 96 位加法: 低 8 字节溢出时进位到高 4 字节
+        long low = mNonceLow + count;
+        int high = (low ^ Long.MIN_VALUE) < (mNonceLow ^ Long.MIN_VALUE) ? mNonceHigh + 1 : mNonceHigh;
+        for (int i = 3; i >= 0; i--) {
+            out[outOffset + i] = (byte) high;
+            high >>>= 8;
+        }
+        for (int i = NONCE_LENGTH - 1; i >= 4; i--) {
+            out[outOffset + i] = (byte) low;
+            low >>>= 8;
+        }
+        cipher.init(Cipher.ENCRYPT_MODE, mKey, new GCMParameterSpec(TAG_LENGTH * 8, out, outOffset, NONCE_LENGTH));
+        if (aad != null) cipher.updateAAD(aad);
+        cipher.doFinal(in, inOffset, inLength, out, outOffset + NONCE_LENGTH);
+    }
+
+    private void open(Cipher cipher, byte[] in, int inOffset, int inLength, byte[] aad, byte[] out, int outOffset)
+            throws GeneralSecurityException {
+        cipher.init(Cipher.DECRYPT_MODE, mKey, new GCMParameterSpec(TAG_LENGTH * 8, in, inOffset, NONCE_LENGTH));
+        if (aad != null) cipher.updateAAD(aad);
+        cipher.doFinal(in, inOffset + NONCE_LENGTH, inLength - NONCE_LENGTH, out, outOffset);
+    }
+}
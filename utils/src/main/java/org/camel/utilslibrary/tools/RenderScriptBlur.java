@@ -0,0 +1,187 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.renderscript.Allocation;
+import android.renderscript.Element;
+import android.renderscript.RSRuntimeException;
+import android.renderscript.RenderScript;
+import android.renderscript.ScriptIntrinsicBlur;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 可复用的 RenderScript 模糊
+ *             RenderScript 上下文和 ScriptIntrinsicBlur 只创建一次, 输入输出 Allocation 按宽、高和 Config 缓存,
+ *             连续模糊相同大小的图片时只有拷贝和模糊本身的开销
+ *             注册为 ComponentCallbacks2 后, 内存紧张时释放 Allocation, 应用进入后台或内存不足时释放全部资源,
+ *             释放后再次模糊时自动重新创建
+ *
+ *             使用:
+ *             RenderScriptBlur blur = new RenderScriptBlur(context);
+ *             blur.register();
+ *             blur.blur(bitmap, 15);
+ *
+ *             注: 1.仅支持可变的 ARGB_8888 Bitmap, 模糊半径范围 (0, 25]
+ *                 2.模糊调用串行执行
+ * </pre>
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+public class RenderScriptBlur implements ComponentCallbacks2 {
+
+    private static final int DEFAULT_CACHE_SIZE = 2;
+    private static final float MAX_RADIUS = 25;
+
+    private final Context mContext;
+    private int mCacheSize = DEFAULT_CACHE_SIZE;
+    private RenderScript mRenderScript;
+    private ScriptIntrinsicBlur mScript;
+    // 宽x高:Config -> {输入, 输出}, 按访问顺序排列
+    private final LinkedHashMap<String, Allocation[]> mAllocations = new LinkedHashMap<>(4, 0.75f, true);
+    private boolean mRegistered;
+
+    /**
+     * @param context Context, 只保存其 Application Context
+     */
+    public RenderScriptBlur(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * 设置缓存 Allocation 的尺寸数量, 默认 2
+     *
+     * @param cacheSize 尺寸数量
+     * @return RenderScriptBlur
+     */
+    public synchronized RenderScriptBlur setCacheSize(int cacheSize) {
+        if (cacheSize > 0) {
+            mCacheSize = cacheSize;
+            evict(cacheSize);
+        }
+        return this;
+    }
+
+    /**
+     * 注册到 Application, 根据内存状态自动释放资源
+     */
+    public synchronized void register() {
+        if (mRegistered) return;
+        mContext.registerComponentCallbacks(this);
+        mRegistered = true;
+    }
+
+    /**
+     * 取消注册并释放全部资源
+     */
+    public synchronized void unregister() {
+        if (mRegistered) {
+            mContext.unregisterComponentCallbacks(this);
+            mRegistered = false;
+        }
+        release();
+    }
+
+    /**
+     * 模糊 Bitmap, 直接修改其像素
+     *
+     * @param bitmap 可变的 ARGB_8888 Bitmap 对象
+     * @param radius 模糊半径, 超过 25 时按 25 处理
+     * @return {@code true}: 模糊成功<br>{@code false}: Bitmap 不支持或 RenderScript 出错
+     */
+    public synchronized boolean blur(Bitmap bitmap, float radius) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable() || radius <= 0
+                || bitmap.getConfig() != Bitmap.Config.ARGB_8888) return false;
+        try {
+            if (mRenderScript == null) {
+                mRenderScript = RenderScript.create(mContext);
+                mRenderScript.setMessageHandler(new RenderScript.RSMessageHandler());
+                mScript = ScriptIntrinsicBlur.create(mRenderScript, Element.U8_4(mRenderScript));
+            }
+            Allocation[] allocations = allocations(bitmap);
+            allocations[0].copyFrom(bitmap);
+            mScript.setRadius(Math.min(radius, MAX_RADIUS));
+            mScript.setInput(allocations[0]);
+            mScript.forEach(allocations[1]);
+            allocations[1].copyTo(bitmap);
+            return true;
+        } catch (RSRuntimeException e) {
+            e.printStackTrace();
+            release();
+            return false;
+        }
+    }
+
+    /**
+     * 释放缓存的 Allocation, 保留 RenderScript 上下文
+     */
+    public synchronized void trimMemory() {
+        evict(0);
+    }
+
+    /**
+     * 释放全部资源, 包括 RenderScript 上下文
+     */
+    public synchronized void release() {
+        evict(0);
+        if (mScript != null) {
+            mScript.destroy();
+            mScript = null;
+        }
+        if (mRenderScript != null) {
+            mRenderScript.destroy();
+            mRenderScript = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            release();
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            trimMemory();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        release();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private Allocation[] allocations(Bitmap bitmap) {
+        String key = bitmap.getWidth() + "x" + bitmap.getHeight() + ":" + bitmap.getConfig();
+        Allocation[] allocations = mAllocations.get(key);
+        if (allocations == null) {
+            evict(mCacheSize - 1);
+            Allocation input = Allocation.createFromBitmap(mRenderScript, bitmap,
+                    Allocation.MipmapControl.MIPMAP_NONE, Allocation.USAGE_SCRIPT);
+            Allocation output = Allocation.createTyped(mRenderScript, input.getType());
+            allocations = new Allocation[]{input, output};
+            mAllocations.put(key, allocations);
+        }
+        return allocations;
+    }
+
+    private void evict(int maxSize) {
+        Iterator<Map.Entry<String, Allocation[]>> iterator = mAllocations.entrySet().iterator();
+        while (mAllocations.size() > maxSize && iterator.hasNext()) {
+            Allocation[] allocations = iterator.next().getValue();
+            iterator.remove();
+            allocations[0].destroy();
+            allocations[1].destroy();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package org.camel.utilslibrary.tools;
+
+import android.graphics.Bitmap;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 多线程 stack 模糊
+ *             算法与 {@link org.camel.utilslibrary.BitmapUtils#stackBlur} 原实现相同, 结果逐像素一致:
+ *             水平方向按行分段、垂直方向按列分段, 分别在多个线程中并行处理, 调用线程也处理其中一段
+ *             直接处理 ARGB 像素数组, 不拆分通道; 中间结果和像素数组在实例中复用, 按处理过的最大图片分配,
+ *             超过 {@link #setMaxRetainedPixels(int)} 的图片每次临时分配, 不长期占用内存;
+ *             每个线程的模糊栈保存在 ThreadLocal 中
+ *
+ *             使用:
+ *             StackBlur blur = new StackBlur();
+ *             blur.blur(bitmap, 12);
+ *
+ *             注: 1.未设置线程池时使用共享的后台线程池, 线程数为 CPU 核心数 - 1
+ *                 2.同一实例的模糊调用串行执行, 需要同时模糊多张图片时使用多个实例
+ *                 3.透明度通道保持不变
+ * </pre>
+ */
+public class StackBlur {
+
+    // 像素数少于该值时不拆分, 避免线程调度的开销超过计算本身
+    private static final int MIN_PARALLEL_PIXELS = 64 * 64;
+    private static final int DEFAULT_MAX_RETAINED_PIXELS = 1920 * 1080;
+
+    private static volatile ExecutorService sExecutor;
+
+    private static final ThreadLocal<int[]> sStack = new ThreadLocal<>();
+
+    private int mThreadCount = Runtime.getRuntime().availableProcessors();
+    private ExecutorService mExecutor;
+    private int mMaxRetainedPixels = DEFAULT_MAX_RETAINED_PIXELS;
+    private int[] mPixels;
+    private int[] mBuffer;
+    private int[] mDivTable;
+    private int mDivRadius;
+
+    /**
+     * 设置并行线程数, 包括调用线程, 默认为 CPU 核心数
+     *
+     * @param threadCount 线程数
+     * @return StackBlur
+     */
+    public synchronized StackBlur setThreadCount(int threadCount) {
+        if (threadCount > 0) mThreadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置执行模糊的线程池, 未设置时使用共享的后台线程池
+     *
+     * @param executor 线程池
+     * @return StackBlur
+     */
+    public synchronized StackBlur setExecutor(ExecutorService executor) {
+        mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置复用数组的最大像素数, 默认 1920 * 1080; 更大的图片每次模糊时临时分配数组, 结束后即可被回收
+     *
+     * @param maxPixels 最大像素数, 为 0 时不复用
+     * @return StackBlur
+     */
+    public synchronized StackBlur setMaxRetainedPixels(int maxPixels) {
+        if (maxPixels < 0) return this;
+        mMaxRetainedPixels = maxPixels;
+        if (mPixels != null && mPixels.length > maxPixels) mPixels = null;
+        if (mBuffer != null && mBuffer.length > maxPixels) mBuffer = null;
+        return this;
+    }
+
+    /**
+     * 模糊 Bitmap, 直接修改其像素
+     *
+     * @param bitmap 可变的 Bitmap 对象
+     * @param radius 模糊半径, 不小于 1
+     * @return {@code true}: 模糊成功<br>{@code false}: Bitmap 为空、不可变或半径小于 1
+     */
+    public synchronized boolean blur(Bitmap bitmap, int radius) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable() || radius < 1) return false;
+        int w = bitmap.getWidth();
+        int h = bitmap.getHeight();
+        if (w == 0 || h == 0) return false;
+        int[] pixels;
+        if (w * h > mMaxRetainedPixels) {
+            pixels = new int[w * h];
+        } else {
+            if (mPixels == null || mPixels.length < w * h) mPixels = new int[w * h];
+            pixels = mPixels;
+        }
+        bitmap.getPixels(pixels, 0, w, 0, 0, w, h);
+        blur(pixels, w, h, radius);
+        bitmap.setPixels(pixels, 0, w, 0, 0, w, h);
+        return true;
+    }
+
+    /**
+     * 模糊 ARGB 像素数组, 直接修改数组内容
+     *
+     * @param pixels 像素数组, 按行排列, 长度不小于 width * height
+     * @param width  宽度
+     * @param height 高度
+     * @param radius 模糊半径, 不小于 1
+     */
+    public synchronized void blur(final int[] pixels, final int width, final int height, final int radius) {
+        if (pixels == null || width <= 0 || height <= 0 || radius < 1) return;
+        final int[] buffer;
+        if (width * height > mMaxRetainedPixels) {
+            buffer = new int[width * height];
+        } else {
+            if (mBuffer == null || mBuffer.length < width * height) mBuffer = new int[width * height];
+            buffer = mBuffer;
+        }
+        final int[] dv = divTable(radius);
+        int bands = width * height < MIN_PARALLEL_PIXELS ? 1 : mThreadCount;
+        // 水平方向: 按行分段, 结果写入中间数组 (不含透明度)
+        run(Math.min(bands, height), new Band() {
+            @Override
+            public void run(int index, int count) {
+                int[] stack = stack(radius);
+                for (int y = height * index / count, end = height * (index + 1) / count; y < end; y++) {
+                    blurLine(pixels, buffer, y * width, 1, width, radius, dv, stack, false);
+                }
+            }
+        });
+        // 垂直方向: 按列分段, 结果写回像素数组并保留透明度
+        run(Math.min(bands, width), new Band() {
+            @Override
+            public void run(int index, int count) {
+                int[] stack = stack(radius);
+                for (int x = width * index / count, end = width * (index + 1) / count; x < end; x++) {
+                    blurLine(buffer, pixels, x, width, height, radius, dv, stack, true);
+                }
+            }
+        });
+    }
+
+    /**
+     * 释放复用的像素数组、中间数组和除法表
+     */
+    public synchronized void trimMemory() {
+        mPixels = null;
+        mBuffer = null;
+        mDivTable = null;
+    }
+
+    /**
+     * 模糊一行或一列
+     *
+     * @param in        输入数组
+     * @param out       输出数组
+     * @param start     起始下标
+     * @param step      相邻像素的下标间隔
+     * @param length    像素数
+     * @param keepAlpha 是否保留输出数组原有的透明度
+     */
+    private static void blurLine(int[] in, int[] out, int start, int step, int length, int radius,
+                                 int[] dv, int[] stack, boolean keepAlpha) {
+        int last = length - 1;
+        int div = radius + radius + 1;
+        int r1 = radius + 1;
+        int rsum = 0, gsum = 0, bsum = 0;
+        int rinsum = 0, ginsum = 0, binsum = 0;
+        int routsum = 0, goutsum = 0, boutsum = 0;
+        for (int i = -radius; i <= radius; i++) {
+            int p = in[start + Math.min(last, Math.max(i, 0)) * step];
+            stack[i + radius] = p;
+            int r = (p >> 16) & 0xff, g = (p >> 8) & 0xff, b = p & 0xff;
+            int rbs = r1 - Math.abs(i);
+            rsum += r * rbs;
+            gsum += g * rbs;
+            bsum += b * rbs;
+            if (i > 0) {
+                rinsum += r;
+                ginsum += g;
+                binsum += b;
+            } else {
+                routsum += r;
+                goutsum += g;
+                boutsum += b;
+            }
+        }
+        int pointer = radius;
+        int index = start;
+        for (int x = 0; x < length; x++, index += step) {
+            int rgb = (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
+            out[index] = keepAlpha ? (out[index] & 0xff000000) | rgb : rgb;
+
+            rsum -= routsum;
+            gsum -= goutsum;
+            bsum -= boutsum;
+
+            // 栈中最旧的像素, 即 (pointer - radius) mod div
+            int oldest = pointer + r1;
+            if (oldest >= div) oldest -= div;
+            int p = stack[oldest];
+            routsum -= (p >> 16) & 0xff;
+            goutsum -= (p >> 8) & 0xff;
+            boutsum -= p & 0xff;
+
+            p = in[start + Math.min(x + r1, last) * step];
+            stack[oldest] = p;
+            rinsum += (p >> 16) & 0xff;
+            ginsum += (p >> 8) & 0xff;
+            binsum += p & 0xff;
+
+            rsum += rinsum;
+            gsum += ginsum;
+            bsum += binsum;
+
+            if (++pointer == div) pointer = 0;
+            p = stack[pointer];
+            int r = (p >> 16) & 0xff, g = (p >> 8) & 0xff, b = p & 0xff;
+            routsum += r;
+            goutsum += g;
+            boutsum += b;
+            rinsum -= r;
+            ginsum -= g;
+            binsum -= b;
+        }
+    }
+
+    /**
+     * 除法表, dv[i] = i / divsum, 半径不变时复用
+     */
+    private int[] divTable(int radius) {
+        if (mDivTable == null || mDivRadius != radius) {
+            int divsum = (radius + 1) * (radius + 1);
+            int[] dv = new int[256 * divsum];
+            for (int i = 0; i < dv.length; i++) {
+                dv[i] = i / divsum;
+            }
+            mDivTable = dv;
+            mDivRadius = radius;
+        }
+        return mDivTable;
+    }
+
+    private static int[] stack(int radius) {
+        int[] stack = sStack.get();
+        if (stack == null || stack.length < radius + radius + 1) {
+            stack = new int[radius + radius + 1];
+            sStack.set(stack);
+        }
+        return stack;
+    }
+
+    /**
+     * 将 count 段任务分配到线程池, 第 0 段在调用线程执行, 全部完成后返回
+     */
+    private void run(final int count, final Band band) {
+        if (count <= 1) {
+            band.run(0, 1);
+            return;
+        }
+        ExecutorService executor = mExecutor != null ? mExecutor : sharedExecutor();
+        final CountDownLatch latch = new CountDownLatch(count - 1);
+        final RuntimeException[] error = new RuntimeException[1];
+        for (int i = 1; i < count; i++) {
+            final int index = i;
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        band.run(index, count);
+                    } catch (RuntimeException e) {
+                        error[0] = e;
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        band.run(0, count);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                // 其他线程仍在写入数组, 必须等待完成
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (error[0] != null) throw error[0];
+    }
+
+    private static ExecutorService sharedExecutor() {
+        if (sExecutor == null) {
+            synchronized (StackBlur.class) {
+                if (sExecutor == null) {
+                    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                    sExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "StackBlur");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return sExecutor;
+    }
+
+    private interface Band {
+        void run(int index, int count);
+    }
+}
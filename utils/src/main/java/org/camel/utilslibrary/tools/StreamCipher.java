@@ -0,0 +1,314 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 流式加密解密
+ *             通过 Cipher.update 分段处理数据, 内存占用与数据大小无关, 适用于大文件加密
+ *             支持 ECB / CBC / CTR / GCM 等模式, 需要 IV 的模式在加密时会随机生成 IV 并写在密文开头,
+ *             解密时从密文开头读取; 也可通过 {@link #setIv(byte[])} 指定固定 IV, 此时 IV 不写入密文
+ *             CTR / GCM 模式下同一秘钥重复使用 IV 会泄露明文 (GCM 还会泄露认证秘钥), 因此这两种模式加密时不允许指定固定 IV,
+ *             固定 IV 只能用于解密
+ *
+ *             使用:
+ *             new StreamCipher("AES", "AES/CBC/PKCS5Padding", key).encrypt(srcFile, destFile);
+ *
+ *             注: 1.GCM 模式需要 API 19, 且解密时 Provider 会缓存全部密文直到校验通过, 大文件请使用 CBC / CTR
+ *                 2.非线程安全, 多线程请各自创建实例
+ * </pre>
+ */
+public class StreamCipher {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 128;
+
+    private final String mTransformation;
+    private final String mMode;
+    private final SecretKeySpec mKey;
+    private final Cipher mCipher;
+    private byte[] mIv;
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private ProgressListener mListener;
+    private ByteBuffer mInBuffer;
+    private ByteBuffer mOutBuffer;
+
+    /**
+     * @param algorithm      算法, 如 AES / DES / DESede
+     * @param transformation 转变, 如 AES/CBC/PKCS5Padding / AES/CTR/NoPadding / AES/GCM/NoPadding
+     * @param key            秘钥
+     * @throws IllegalArgumentException 不支持该转变或秘钥为空时抛出
+     */
+    public StreamCipher(String algorithm, String transformation, byte[] key) {
+        if (key == null || key.length == 0) throw new IllegalArgumentException("Key is empty");
+        try {
+            mCipher = Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unsupported transformation: " + transformation, e);
+        }
+        mTransformation = transformation;
+        String[] parts = transformation.split("/");
+        mMode = parts.length > 1 ? parts[1].toUpperCase() : "ECB";
+        mKey = new SecretKeySpec(key, algorithm);
+    }
+
+    /**
+     * 指定固定 IV, 指定后加密时不再将 IV 写入密文, 解密时也不再从密文读取
+     * <p>CTR / GCM 模式只能用于解密, 加密时抛出 IllegalStateException</p>
+     *
+     * @param iv IV
+     * @return StreamCipher
+     */
+    public StreamCipher setIv(byte[] iv) {
+        mIv = iv == null ? null : iv.clone();
+        return this;
+    }
+
+    /**
+     * 设置读取缓冲区大小, 默认 64KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return StreamCipher
+     */
+    public StreamCipher setBufferSize(int bufferSize) {
+        if (bufferSize > 0 && bufferSize != mBufferSize) {
+            mBufferSize = bufferSize;
+            mInBuffer = null;
+            mOutBuffer = null;
+        }
+        return this;
+    }
+
+    /**
+     * 设置进度监听, 可通过监听的返回值取消任务
+     *
+     * @param listener 进度监听
+     * @return StreamCipher
+     */
+    public StreamCipher setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 加密文件
+     *
+     * @param src  明文文件
+     * @param dest 密文文件, 失败时将被删除
+     * @return 是否成功
+     * @throws IllegalStateException CTR / GCM 模式指定了固定 IV 时抛出
+     */
+    public boolean encrypt(File src, File dest) {
+        return process(src, dest, true);
+    }
+
+    /**
+     * 解密文件
+     *
+     * @param src  密文文件
+     * @param dest 明文文件, 失败时将被删除
+     * @return 是否成功
+     */
+    public boolean decrypt(File src, File dest) {
+        return process(src, dest, false);
+    }
+
+    /**
+     * 加密输入流, 不会关闭传入的流
+     *
+     * @param in  明文输入流
+     * @param out 密文输出流
+     * @return 是否成功
+     * @throws IllegalStateException CTR / GCM 模式指定了固定 IV 时抛出
+     */
+    public boolean encrypt(InputStream in, OutputStream out) {
+        return process(Channels.newChannel(in), Channels.newChannel(out), -1, true);
+    }
+
+    /**
+     * 解密输入流, 不会关闭传入的流
+     *
+     * @param in  密文输入流
+     * @param out 明文输出流
+     * @return 是否成功
+     */
+    public boolean decrypt(InputStream in, OutputStream out) {
+        return process(Channels.newChannel(in), Channels.newChannel(out), -1, false);
+    }
+
+    /**
+     * 加密通道数据, 不会关闭传入的通道
+     *
+     * @param in  明文输入通道
+     * @param out 密文输出通道
+     * @return 是否成功
+     * @throws IllegalStateException CTR / GCM 模式指定了固定 IV 时抛出
+     */
+    public boolean encrypt(ReadableByteChannel in, WritableByteChannel out) {
+        return process(in, out, -1, true);
+    }
+
+    /**
+     * 解密通道数据, 不会关闭传入的通道
+     *
+     * @param in  密文输入通道
+     * @param out 明文输出通道
+     * @return 是否成功
+     */
+    public boolean decrypt(ReadableByteChannel in, WritableByteChannel out) {
+        return process(in, out, -1, false);
+    }
+
+    private boolean process(File src, File dest, boolean isEncrypt) {
+        if (src == null || !src.isFile() || dest == null) return false;
+        checkIv(isEncrypt);
+        FileInputStream fis = null;
+        FileOutputStream fos = null;
+        boolean success = false;
+        try {
+            File parent = dest.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) return false;
+            fis = new FileInputStream(src);
+            fos = new FileOutputStream(dest);
+            success = process(fis.getChannel(), fos.getChannel(), src.length(), isEncrypt);
+            return success;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            IOUtils.close(fis, fos);
+            if (!success) dest.delete();
+        }
+    }
+
+    private boolean process(ReadableByteChannel in, WritableByteChannel out, long total, boolean isEncrypt) {
+        if (in == null || out == null) return false;
+        checkIv(isEncrypt);
+        try {
+            initCipher(in, out, isEncrypt);
+            if (mInBuffer == null) {
+                mInBuffer = ByteBuffer.allocate(mBufferSize);
+            }
+            long startTime = System.nanoTime();
+            long current = 0;
+            int len;
+            while ((len = in.read(mInBuffer)) >= 0) {
+                if (len == 0 && mInBuffer.hasRemaining()) continue;
+                mInBuffer.flip();
+                current += mInBuffer.remaining();
+                ByteBuffer output = ensureOutBuffer(mCipher.getOutputSize(mInBuffer.remaining()));
+                mCipher.update(mInBuffer, output);
+                output.flip();
+                writeFully(out, output);
+                mInBuffer.clear();
+                if (!notifyProgress(current, total, startTime)) return false;
+            }
+            mInBuffer.flip();
+            ByteBuffer output = ensureOutBuffer(mCipher.getOutputSize(mInBuffer.remaining()));
+            mCipher.doFinal(mInBuffer, output);
+            output.flip();
+            writeFully(out, output);
+            return true;
+        } catch (IOException | GeneralSecurityException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (mInBuffer != null) mInBuffer.clear();
+        }
+    }
+
+    private void initCipher(ReadableByteChannel in, WritableByteChannel out, boolean isEncrypt)
+            throws IOException, GeneralSecurityException {
+        int mode = isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE;
+        if ("ECB".equals(mMode)) {
+            mCipher.init(mode, mKey, CryptoPool.getSecureRandom());
+            return;
+        }
+        byte[] iv = mIv;
+        if (iv == null) {
+            iv = new byte[isGcm() ? GCM_IV_LENGTH : mCipher.getBlockSize()];
+            if (isEncrypt) {
+                CryptoPool.getSecureRandom().nextBytes(iv);
+                writeFully(out, ByteBuffer.wrap(iv));
+            } else {
+                readFully(in, ByteBuffer.wrap(iv));
+            }
+        }
+        mCipher.init(mode, mKey, isGcm() ? newGcmSpec(iv) : new IvParameterSpec(iv), CryptoPool.getSecureRandom());
+    }
+
+    /**
+     * CTR / GCM 模式加密时 IV 必须每次随机生成, 固定 IV 会导致密钥流重复
+     */
+    private void checkIv(boolean isEncrypt) {
+        if (isEncrypt && mIv != null && (isGcm() || "CTR".equals(mMode))) {
+            throw new IllegalStateException("Fixed IV is not allowed for " + mMode + " encryption");
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static AlgorithmParameterSpec newGcmSpec(byte[] iv) {
+        return new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+    }
+
+    private boolean isGcm() {
+        return "GCM".equals(mMode);
+    }
+
+    private ByteBuffer ensureOutBuffer(int size) {
+        if (mOutBuffer == null || mOutBuffer.capacity() < size) {
+            mOutBuffer = ByteBuffer.allocate(Math.max(size, mBufferSize + 32));
+        }
+        mOutBuffer.clear();
+        return mOutBuffer;
+    }
+
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) throw new IOException("Unexpected end of stream while reading IV");
+        }
+    }
+
+    private boolean notifyProgress(long current, long total, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        return mListener.onProgress(current, total, speed);
+    }
+
+    public String getTransformation() {
+        return mTransformation;
+    }
+}
@@ -0,0 +1,387 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+import org.camel.utilslibrary.interfaces.ProgressListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 流式 zip 压缩和解压
+ *             压缩结果直接写入任意 OutputStream 或 WritableByteChannel (如 Socket、HTTP 请求体), 无需先写入临时文件再读出
+ *             条目逐个读取、压缩、写出, 内存占用只有两个缓冲区和一个 Deflater, 输出阻塞时读取也随之暂停
+ *             解压直接读取 InputStream, 同样不需要临时文件
+ *
+ *             使用:
+ *             new StreamingZipper()
+ *                     .setLevel(Deflater.BEST_SPEED)
+ *                     .zip(files, socket.getOutputStream());
+ *
+ *             List<File> files = new StreamingZipper().unzip(inputStream, destDir);
+ *
+ *             注: 1.条目大小事先未知, 统一使用 DEFLATED 和数据描述符, 标准解压工具及 {@link ZipInputStream} 均可读取
+ *                 2.条目命名规则与 {@link org.camel.utilslibrary.ZipUtils#zipFiles} 相同
+ *                 3.解压时条目路径包含 ".." 或为绝对路径 (zip-slip) 抛出 ZipException
+ * </pre>
+ */
+public class StreamingZipper {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private int mLevel = Deflater.DEFAULT_COMPRESSION;
+    private String mEntryComment;
+    private String mComment;
+    private ProgressListener mListener;
+
+    /**
+     * 压缩条目的数据来源
+     */
+    public interface EntrySource {
+
+        /**
+         * @return 条目名称, 以 '/' 结尾表示文件夹
+         */
+        String getName();
+
+        /**
+         * @return 修改时间, 单位: ms; -1 表示使用当前时间
+         */
+        long getTime();
+
+        /**
+         * 打开条目数据, 写完该条目后关闭
+         * <p>只在轮到该条目时调用, 文件夹不会调用</p>
+         *
+         * @return 输入流
+         * @throws IOException IO错误时抛出
+         */
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 设置读写缓冲区大小, 默认 64KB
+     *
+     * @param bufferSize 缓冲区大小, 单位: B
+     * @return StreamingZipper
+     */
+    public StreamingZipper setBufferSize(int bufferSize) {
+        if (bufferSize > 0) mBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * 设置压缩级别
+     *
+     * @param level 压缩级别 0-9, 或 {@link Deflater#DEFAULT_COMPRESSION}
+     * @return StreamingZipper
+     */
+    public StreamingZipper setLevel(int level) {
+        if (level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION) mLevel = level;
+        return this;
+    }
+
+    /**
+     * 设置每个条目的注释
+     *
+     * @param comment 注释
+     * @return StreamingZipper
+     */
+    public StreamingZipper setEntryComment(String comment) {
+        mEntryComment = comment;
+        return this;
+    }
+
+    /**
+     * 设置压缩文件的注释
+     *
+     * @param comment 注释
+     * @return StreamingZipper
+     */
+    public StreamingZipper setComment(String comment) {
+        mComment = comment;
+        return this;
+    }
+
+    /**
+     * 设置进度监听, 进度为已处理的原始数据字节数, 总大小未知时为 -1, 可通过监听的返回值取消
+     *
+     * @param listener 进度监听
+     * @return StreamingZipper
+     */
+    public StreamingZipper setProgressListener(ProgressListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * 由文件创建条目来源
+     *
+     * @param name 条目名称
+     * @param file 文件
+     * @return EntrySource
+     */
+    public static EntrySource source(final String name, final File file) {
+        return new EntrySource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long getTime() {
+                return file.lastModified();
+            }
+
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        };
+    }
+
+    /**
+     * 遍历文件和文件夹, 按与 {@link org.camel.utilslibrary.ZipUtils#zipFiles} 相同的规则生成条目来源
+     * <p>遍历是惰性的, 文件夹在轮到时才列出子文件</p>
+     *
+     * @param resFiles 待压缩文件集合
+     * @return 条目来源迭代器
+     */
+    public static Iterator<EntrySource> sources(Collection<File> resFiles) {
+        return new FileTreeIterator(resFiles);
+    }
+
+    /**
+     * 压缩文件并写入输出流
+     *
+     * @param resFiles 待压缩文件集合
+     * @param out      输出流, 不会被关闭
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消
+     * @throws IOException IO错误时抛出
+     */
+    public boolean zip(Collection<File> resFiles, OutputStream out) throws IOException {
+        if (resFiles == null || out == null) return false;
+        return zip(sources(resFiles), new ZipWriter(out));
+    }
+
+    /**
+     * 压缩条目并写入输出流
+     *
+     * @param sources 条目来源
+     * @param out     输出流, 不会被关闭
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消
+     * @throws IOException IO错误时抛出
+     */
+    public boolean zip(Iterator<? extends EntrySource> sources, OutputStream out) throws IOException {
+        if (sources == null || out == null) return false;
+        return zip(sources, new ZipWriter(out));
+    }
+
+    /**
+     * 压缩条目并写入通道
+     *
+     * @param sources 条目来源
+     * @param channel 输出通道, 不会被关闭
+     * @return {@code true}: 压缩成功<br>{@code false}: 压缩失败或被取消
+     * @throws IOException IO错误时抛出
+     */
+    public boolean zip(Iterator<? extends EntrySource> sources, WritableByteChannel channel) throws IOException {
+        if (sources == null || channel == null) return false;
+        return zip(sources, new ZipWriter(channel));
+    }
+
+    private boolean zip(Iterator<? extends EntrySource> sources, ZipWriter writer) throws IOException {
+        if (mComment != null) writer.setComment(mComment);
+        Deflater deflater = new Deflater(mLevel, true);
+        byte[] input = new byte[mBufferSize];
+        byte[] output = new byte[mBufferSize];
+        CRC32 crc = new CRC32();
+        long written = 0;
+        long startTime = System.nanoTime();
+        try {
+            while (sources.hasNext()) {
+                EntrySource source = sources.next();
+                ZipEntry entry = new ZipEntry(source.getName());
+                if (source.getTime() != -1) entry.setTime(source.getTime());
+                if (mEntryComment != null && mEntryComment.length() > 0) entry.setComment(mEntryComment);
+                if (entry.isDirectory()) {
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(0);
+                    entry.setCompressedSize(0);
+                    entry.setCrc(0);
+                    writer.writeEntry(entry, input, 0, 0);
+                    continue;
+                }
+                entry.setMethod(ZipEntry.DEFLATED);
+                writer.beginEntry(entry);
+                crc.reset();
+                deflater.reset();
+                long size = 0;
+                InputStream is = source.open();
+                try {
+                    int len;
+                    while ((len = is.read(input)) != -1) {
+                        crc.update(input, 0, len);
+                        deflater.setInput(input, 0, len);
+                        while (!deflater.needsInput()) {
+                            int n = deflater.deflate(output);
+                            if (n > 0) writer.write(output, 0, n);
+                        }
+                        size += len;
+                        written += len;
+                        if (!notifyProgress(written, startTime)) return false;
+                    }
+                } finally {
+                    IOUtils.close(is);
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(output);
+                    if (n > 0) writer.write(output, 0, n);
+                }
+                writer.endEntry(crc.getValue(), size);
+            }
+            writer.finish();
+            return true;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 从输入流解压
+     *
+     * @param in      zip 数据输入流, 不会被关闭
+     * @param destDir 目标目录
+     * @return 解压出的文件和文件夹, 按条目顺序排列; 被取消时返回 null
+     * @throws IOException IO错误或条目路径非法时抛出
+     */
+    public List<File> unzip(InputStream in, File destDir) throws IOException {
+        if (in == null || destDir == null) return null;
+        String destPath = destDir.getCanonicalPath();
+        ZipInputStream zis = new ZipInputStream(in);
+        byte[] buffer = new byte[mBufferSize];
+        List<File> files = new ArrayList<>();
+        long written = 0;
+        long startTime = System.nanoTime();
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            String name = entry.getName();
+            ParallelUnzipper.checkEntryName(name);
+            File file = new File(destPath, name);
+            files.add(file);
+            if (entry.isDirectory()) {
+                if (!file.isDirectory() && !file.mkdirs() && !file.isDirectory())
+                    throw new IOException("Create dir failed: " + file);
+                continue;
+            }
+            File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory())
+                throw new IOException("Create dir failed: " + parent);
+            FileOutputStream fos = new FileOutputStream(file);
+            try {
+                int len;
+                while ((len = zis.read(buffer)) != -1) {
+                    fos.write(buffer, 0, len);
+                    written += len;
+                    if (!notifyProgress(written, startTime)) return null;
+                }
+            } finally {
+                IOUtils.close(fos);
+            }
+        }
+        return files;
+    }
+
+    private boolean notifyProgress(long current, long startTime) {
+        if (mListener == null) return true;
+        long elapsed = System.nanoTime() - startTime;
+        long speed = elapsed <= 0 ? 0 : (long) (current * 1000000000d / elapsed);
+        return mListener.onProgress(current, -1, speed);
+    }
+
+    private static class FileTreeIterator implements Iterator<EntrySource> {
+
+        // 正在遍历的文件夹, 深度优先
+        private final ArrayDeque<Frame> mStack = new ArrayDeque<>();
+        private EntrySource mNext;
+
+        FileTreeIterator(Collection<File> resFiles) {
+            mStack.push(new Frame(null, "", resFiles.toArray(new File[resFiles.size()])));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (mNext == null && !mStack.isEmpty()) {
+                Frame frame = mStack.peek();
+                if (frame.index >= frame.children.length) {
+                    mStack.pop();
+                    continue;
+                }
+                File file = frame.children[frame.index++];
+                String rootPath = frame.prefix + (frame.prefix.isEmpty() ? "" : File.separator) + file.getName();
+                if (file.isDirectory()) {
+                    File[] fileList = file.listFiles();
+                    if (fileList == null || fileList.length <= 0) {
+                        mNext = source(rootPath + '/', file);
+                    } else {
+                        mStack.push(new Frame(file, rootPath, fileList));
+                    }
+                } else {
+                    mNext = source(rootPath, file);
+                }
+            }
+            return mNext != null;
+        }
+
+        @Override
+        public EntrySource next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            EntrySource next = mNext;
+            mNext = null;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 遍历中的文件夹及其下一个待处理的子文件
+     */
+    private static class Frame {
+        // 文件夹, 最外层为 null
+        final File dir;
+        // 文件夹在压缩文件中的路径
+        final String prefix;
+        final File[] children;
+        int index;
+
+        Frame(File dir, String prefix, File[] children) {
+            this.dir = dir;
+            this.prefix = prefix;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.camel.utilslibrary.tools;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Shader;
+import android.os.Build;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 分段解码大图并缩放到指定大小
+ *             通过 BitmapRegionDecoder 按水平条带逐段解码原图 (使用 2 的幂次 inSampleSize 预先缩小), 直接缩放绘制到目标大小的 Bitmap 中,
+ *             内存中只同时存在目标 Bitmap 和一个条带, 条带大小受 {@link #setStripSize(int)} 限制, 适用于全景图和超高像素照片
+ *             相邻条带在边缘多解码几行, 缩放时的插值采样不会产生接缝
+ *             格式不支持分段解码时, 整图解码并通过 inDensity / inTargetDensity 在解码时缩放到目标宽度
+ *
+ *             使用:
+ *             Bitmap bitmap = new TiledBitmapDecoder()
+ *                     .setStripSize(2 * 1024 * 1024)
+ *                     .decode(file, 1920, 1080);
+ *
+ *             注: 输出大小与指定的宽高完全一致, 不保持宽高比, 需要时先按原图比例计算宽高
+ * </pre>
+ */
+public class TiledBitmapDecoder {
+
+    static final int DEFAULT_STRIP_SIZE = 4 * 1024 * 1024;
+
+    private int mStripSize = DEFAULT_STRIP_SIZE;
+    private Bitmap.Config mConfig = Bitmap.Config.ARGB_8888;
+
+    /**
+     * 设置每个条带解码后占用内存的上限, 默认 4MB
+     * <p>原图一行的内存超过上限时, 每个条带至少解码一行</p>
+     *
+     * @param stripSize 内存上限, 单位: B
+     * @return TiledBitmapDecoder
+     */
+    public TiledBitmapDecoder setStripSize(int stripSize) {
+        if (stripSize > 0) mStripSize = stripSize;
+        return this;
+    }
+
+    /**
+     * 设置输出 Bitmap 的 Config, 默认 ARGB_8888
+     *
+     * @param config Config
+     * @return TiledBitmapDecoder
+     */
+    public TiledBitmapDecoder setConfig(Bitmap.Config config) {
+        if (config != null) mConfig = config;
+        return this;
+    }
+
+    /**
+     * 解码图片文件并缩放到指定大小
+     *
+     * @param file   图片文件
+     * @param width  输出宽度
+     * @param height 输出高度
+     * @return 指定大小的 Bitmap 对象; 文件无法解码时返回 null
+     */
+    public Bitmap decode(File file, int width, int height) {
+        if (file == null || !file.isFile() || width <= 0 || height <= 0) return null;
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        int srcWidth = options.outWidth;
+        int srcHeight = options.outHeight;
+        if (srcWidth <= 0 || srcHeight <= 0) return null;
+
+        int sampleSize = 1;
+        while (srcWidth / (sampleSize * 2) >= width && srcHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+        BitmapRegionDecoder decoder;
+        try {
+            decoder = BitmapRegionDecoder.newInstance(file.getPath(), false);
+        } catch (IOException e) {
+            return decodeScaled(file.getPath(), srcWidth, sampleSize, width, height);
+        }
+        try {
+            return decodeStrips(decoder, srcWidth, srcHeight, sampleSize, width, height);
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    private Bitmap decodeStrips(BitmapRegionDecoder decoder, int srcWidth, int srcHeight, int sampleSize,
+                                int width, int height) {
+        int rowBytes = (srcWidth + sampleSize - 1) / sampleSize * bytesPerPixel(mConfig);
+        // 条带边缘多解码的原图行数, 保证插值采样有真实的相邻像素
+        int margin = 2 * sampleSize;
+        int stripRows = Math.max(1, mStripSize / rowBytes) * sampleSize;
+        // 每个条带对应的输出行数, 扣除两侧边缘后按比例换算
+        int outRows = Math.max(1, (int) ((long) Math.max(sampleSize, stripRows - 2 * margin) * height / srcHeight));
+        float scaleY = (float) height / srcHeight;
+
+        // 先计算每个条带在原图中的范围, 复用的条带按最高的范围分配
+        int count = (height + outRows - 1) / outRows;
+        Rect[] regions = new Rect[count];
+        int maxRegionHeight = 0;
+        for (int i = 0; i < count; i++) {
+            int top = i * outRows;
+            int bottom = Math.min(height, top + outRows);
+            int srcTop = Math.max(0, (int) Math.floor(top / scaleY) - margin);
+            // 对齐到采样间隔, 相邻条带的采样位置一致
+            srcTop -= srcTop % sampleSize;
+            int srcBottom = Math.min(srcHeight, (int) Math.ceil(bottom / scaleY) + margin);
+            regions[i] = new Rect(0, srcTop, srcWidth, srcBottom);
+            maxRegionHeight = Math.max(maxRegionHeight, srcBottom - srcTop);
+        }
+
+        Bitmap output = Bitmap.createBitmap(width, height, mConfig);
+        Canvas canvas = new Canvas(output);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        Matrix matrix = new Matrix();
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = mConfig;
+        // 复用时解码器不改变条带大小, 只写入左上角, 因此只用于中间的条带:
+        // 首个条带确定解码后的宽度, 最后一个条带单独分配, 超出解码范围的部分不会残留上一个条带的像素
+        boolean reuse = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && count > 2;
+        Bitmap reusable = null;
+        Bitmap strip = null;
+        try {
+            for (int i = 0; i < count; i++) {
+                int top = i * outRows;
+                int bottom = Math.min(height, top + outRows);
+                Rect region = regions[i];
+                if (i == count - 1 && reusable != null) {
+                    reusable.recycle();
+                    reusable = null;
+                }
+                strip = decodeRegion(decoder, region, options, reusable);
+                if (strip == null) {
+                    output.recycle();
+                    return null;
+                }
+                // 条带像素 -> 原图坐标 -> 输出坐标, 按采样间隔换算, 与条带的实际大小无关;
+                // 超出条带的位置 (原图宽高不是采样间隔的整数倍时的右侧和底部) 取边缘像素
+                matrix.setScale(sampleSize, sampleSize);
+                matrix.postTranslate(0, region.top);
+                matrix.postScale((float) width / srcWidth, scaleY);
+                BitmapShader shader = new BitmapShader(strip, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+                shader.setLocalMatrix(matrix);
+                paint.setShader(shader);
+                canvas.drawRect(0, top, width, bottom, paint);
+                paint.setShader(null);
+                if (strip != reusable) {
+                    int stripWidth = strip.getWidth();
+                    Bitmap.Config config = strip.getConfig() != null ? strip.getConfig() : mConfig;
+                    strip.recycle();
+                    if (reuse && reusable == null && i < count - 2) {
+                        // 按最高的条带分配, 多出一行容纳解码时向上取整的部分
+                        reusable = Bitmap.createBitmap(stripWidth, maxRegionHeight / sampleSize + 1, config);
+                    }
+                }
+                strip = null;
+            }
+        } finally {
+            if (strip != null && strip != reusable) strip.recycle();
+            if (reusable != null) reusable.recycle();
+        }
+        return output;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static Bitmap decodeRegion(BitmapRegionDecoder decoder, Rect region, BitmapFactory.Options options,
+                                       Bitmap reusable) {
+        options.inBitmap = reusable;
+        try {
+            return decoder.decodeRegion(region, options);
+        } catch (IllegalArgumentException e) {
+            if (reusable == null) throw e;
+            // 条带无法复用 (如解码器不支持该 Config), 改为新建
+            options.inBitmap = null;
+            return decoder.decodeRegion(region, options);
+        }
+    }
+
+    /**
+     * 整图解码, 通过 inDensity / inTargetDensity 在解码时缩放到目标宽度
+     */
+    private Bitmap decodeScaled(String path, int srcWidth, int sampleSize, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = mConfig;
+        int sampledWidth = srcWidth / sampleSize;
+        if (sampledWidth != width) {
+            options.inScaled = true;
+            options.inDensity = sampledWidth;
+            options.inTargetDensity = width;
+        }
+        Bitmap bitmap = BitmapFactory.decodeFile(path, options);
+        if (bitmap == null || (bitmap.getWidth() == width && bitmap.getHeight() == height)) return bitmap;
+        // 高度按比例换算后与目标有误差, 或宽高比与原图不同
+        Bitmap ret = Bitmap.createScaledBitmap(bitmap, width, height, true);
+        if (ret != bitmap) bitmap.recycle();
+        return ret;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package org.camel.utilslibrary.tools;
+
+import org.camel.utilslibrary.IOUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : zip 压缩文件索引
+ *             一次解析中央目录, 将条目名称、大小、CRC、偏移量等保存在紧凑的数组中, 并按名称排序
+ *             支持按名称、前缀、通配符、关键字查询, 以及直接定位单个条目解压, 无需再次遍历全部条目
+ *             通过 {@link #get(File)} 获取的索引按 路径 + 修改时间 + 文件大小 缓存, 文件变化后自动重新解析
+ *
+ *             使用:
+ *             ZipIndex index = ZipIndex.get(zipFile);
+ *             for (int i : index.findByGlob("assets/**.png")) {
+ *                 index.extract(i, new File(destDir, index.getName(i)));
+ *             }
+ *
+ *             注: 1.不支持 Zip64 和分卷压缩, 此时抛出 {@link UnsupportedFormatException}, 可改用 {@link java.util.zip.ZipFile} 读取
+ *                 2.索引创建后只读, 线程安全
+ * </pre>
+ */
+public class ZipIndex {
+
+    private static final int END_SIG = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_CACHE_SIZE = 8;
+
+    private static final Map<String, ZipIndex> sCache = new LinkedHashMap<String, ZipIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ZipIndex> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private final File mFile;
+    private final long mLastModified;
+    private final long mLength;
+    private final String mComment;
+    private final String[] mNames;
+    private final String[] mComments;
+    private final long[] mSizes;
+    private final long[] mCompressedSizes;
+    private final int[] mCrcs;
+    private final long[] mOffsets;
+    private final short[] mMethods;
+    private final short[] mFlags;
+    private final int[] mDosTimes;
+    // 按名称排序后的条目序号
+    private final int[] mSorted;
+
+    private ZipIndex(File file, long lastModified, long length, String comment, int count) {
+        mFile = file;
+        mLastModified = lastModified;
+        mLength = length;
+        mComment = comment;
+        mNames = new String[count];
+        mComments = new String[count];
+        mSizes = new long[count];
+        mCompressedSizes = new long[count];
+        mCrcs = new int[count];
+        mOffsets = new long[count];
+        mMethods = new short[count];
+        mFlags = new short[count];
+        mDosTimes = new int[count];
+        mSorted = new int[count];
+    }
+
+    /**
+     * 获取压缩文件的索引, 文件未变化时直接返回缓存的索引
+     *
+     * @param zipFile 压缩文件
+     * @return 索引
+     * @throws IOException IO错误或格式错误时抛出; 格式不支持时抛出 {@link UnsupportedFormatException}
+     */
+    public static ZipIndex get(File zipFile) throws IOException {
+        String path = zipFile.getCanonicalPath();
+        long lastModified = zipFile.lastModified();
+        long length = zipFile.length();
+        synchronized (sCache) {
+            ZipIndex index = sCache.get(path);
+            if (index != null && index.mLastModified == lastModified && index.mLength == length) return index;
+        }
+        ZipIndex index = open(zipFile);
+        synchronized (sCache) {
+            sCache.put(path, index);
+        }
+        return index;
+    }
+
+    /**
+     * 清除缓存的索引
+     */
+    public static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
+        }
+    }
+
+    /**
+     * 解析压缩文件的中央目录, 创建索引, 不使用缓存
+     *
+     * @param zipFile 压缩文件
+     * @return 索引
+     * @throws IOException IO错误或格式错误时抛出; 格式不支持时抛出 {@link UnsupportedFormatException}
+     */
+    public static ZipIndex open(File zipFile) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(zipFile, "r");
+        try {
+            long lastModified = zipFile.lastModified();
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            if (length < END_SIZE) throw new ZipException("Not a zip file: " + zipFile);
+
+            // 结束记录位于文件末尾, 其后最多有 65535 字节的注释
+            int tailSize = (int) Math.min(length, END_SIZE + 0xffff);
+            ByteBuffer tail = ByteBuffer.allocate(tailSize).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, tail, length - tailSize);
+            int end = -1;
+            for (int i = tailSize - END_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_SIG && i + END_SIZE + (tail.getShort(i + 20) & 0xffff) <= tailSize) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) throw new ZipException("End of central directory not found: " + zipFile);
+            int count = tail.getShort(end + 10) & 0xffff;
+            long cdSize = tail.getInt(end + 12) & 0xffffffffL;
+            long cdOffset = tail.getInt(end + 16) & 0xffffffffL;
+            int commentLength = tail.getShort(end + 20) & 0xffff;
+            long endPosition = length - tailSize + end;
+            if (count == 0xffff || cdOffset == 0xffffffffL || cdSize == 0xffffffffL
+                    || hasZip64Locator(channel, endPosition))
+                throw new UnsupportedFormatException("Zip64 is not supported: " + zipFile);
+            if (tail.getShort(end + 4) != 0 || tail.getShort(end + 6) != 0)
+                throw new UnsupportedFormatException("Split zip is not supported: " + zipFile);
+            if (cdOffset + cdSize > endPosition || cdSize > Integer.MAX_VALUE)
+                throw new ZipException("Invalid central directory: " + zipFile);
+            String comment = commentLength == 0 ? null : utf8(tail.array(), end + END_SIZE, commentLength);
+
+            ByteBuffer cd = ByteBuffer.allocate((int) cdSize).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, cd, cdOffset);
+            byte[] bytes = cd.array();
+            ZipIndex index = new ZipIndex(zipFile, lastModified, length, comment, count);
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                if (pos + 46 > bytes.length || cd.getInt(pos) != CENTRAL_HEADER_SIG)
+                    throw new ZipException("Invalid central directory entry: " + zipFile);
+                int nameLength = cd.getShort(pos + 28) & 0xffff;
+                int extraLength = cd.getShort(pos + 30) & 0xffff;
+                int entryCommentLength = cd.getShort(pos + 32) & 0xffff;
+                if (pos + 46 + nameLength + extraLength + entryCommentLength > bytes.length)
+                    throw new ZipException("Invalid central directory entry: " + zipFile);
+                index.mFlags[i] = cd.getShort(pos + 8);
+                index.mMethods[i] = cd.getShort(pos + 10);
+                index.mDosTimes[i] = cd.getInt(pos + 12);
+                index.mCrcs[i] = cd.getInt(pos + 16);
+                index.mCompressedSizes[i] = cd.getInt(pos + 20) & 0xffffffffL;
+                index.mSizes[i] = cd.getInt(pos + 24) & 0xffffffffL;
+                index.mOffsets[i] = cd.getInt(pos + 42) & 0xffffffffL;
+                if (index.mCompressedSizes[i] == 0xffffffffL || index.mSizes[i] == 0xffffffffL
+                        || index.mOffsets[i] == 0xffffffffL)
+                    throw new UnsupportedFormatException("Zip64 is not supported: " + zipFile);
+                if (index.mOffsets[i] + 30 > cdOffset)
+                    throw new ZipException("Invalid local header offset: " + zipFile);
+                index.mNames[i] = utf8(bytes, pos + 46, nameLength);
+                if (entryCommentLength > 0) {
+                    index.mComments[i] = utf8(bytes, pos + 46 + nameLength + extraLength, entryCommentLength);
+                }
+                pos += 46 + nameLength + extraLength + entryCommentLength;
+            }
+            index.sort();
+            return index;
+        } finally {
+            IOUtils.close(raf);
+        }
+    }
+
+    /**
+     * 结束记录之前是否有 Zip64 结束记录定位器
+     */
+    private static boolean hasZip64Locator(FileChannel channel, long endPosition) throws IOException {
+        if (endPosition < ZIP64_LOCATOR_SIZE) return false;
+        ByteBuffer locator = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, locator, endPosition - ZIP64_LOCATOR_SIZE);
+        return locator.getInt(0) == ZIP64_LOCATOR_SIG;
+    }
+
+    private void sort() {
+        Integer[] order = new Integer[mNames.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                int result = mNames[o1].compareTo(mNames[o2]);
+                return result != 0 ? result : o1 - o2;
+            }
+        });
+        for (int i = 0; i < order.length; i++) {
+            mSorted[i] = order[i];
+        }
+    }
+
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * 压缩文件的注释
+     */
+    public String getComment() {
+        return mComment;
+    }
+
+    /**
+     * 条目数量
+     */
+    public int size() {
+        return mNames.length;
+    }
+
+    public String getName(int index) {
+        return mNames[index];
+    }
+
+    public String getComment(int index) {
+        return mComments[index];
+    }
+
+    public long getSize(int index) {
+        return mSizes[index];
+    }
+
+    public long getCompressedSize(int index) {
+        return mCompressedSizes[index];
+    }
+
+    public long getCrc(int index) {
+        return mCrcs[index] & 0xffffffffL;
+    }
+
+    /**
+     * 条目压缩方式, 为压缩文件中记录的原始值, 可能不是 STORED / DEFLATED
+     *
+     * @param index 条目序号
+     * @return 压缩方式
+     */
+    public int getMethod(int index) {
+        return mMethods[index] & 0xffff;
+    }
+
+    /**
+     * 条目的通用标志位, 如 bit 0 表示加密, bit 3 表示使用数据描述符
+     *
+     * @param index 条目序号
+     * @return 标志位
+     */
+    public int getFlags(int index) {
+        return mFlags[index] & 0xffff;
+    }
+
+    /**
+     * 条目是否加密
+     */
+    public boolean isEncrypted(int index) {
+        return (mFlags[index] & 1) != 0;
+    }
+
+    /**
+     * 条目修改时间
+     *
+     * @param index 条目序号
+     * @return 毫秒时间戳
+     */
+    public long getTime(int index) {
+        int dosTime = mDosTimes[index];
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(((dosTime >> 25) & 0x7f) + 1980, ((dosTime >> 21) & 0x0f) - 1, (dosTime >> 16) & 0x1f,
+                (dosTime >> 11) & 0x1f, (dosTime >> 5) & 0x3f, (dosTime << 1) & 0x3e);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 条目数据在压缩文件中的本地文件头偏移量
+     */
+    public long getLocalHeaderOffset(int index) {
+        return mOffsets[index];
+    }
+
+    public boolean isDirectory(int index) {
+        return mNames[index].endsWith("/");
+    }
+
+    /**
+     * 生成条目对应的 {@link ZipEntry}
+     * <p>ZipEntry 只支持 STORED / DEFLATED, 其他压缩方式的条目不设置压缩方式, 原始值通过 {@link #getMethod(int)} 获取</p>
+     *
+     * @param index 条目序号
+     * @return ZipEntry
+     */
+    public ZipEntry getEntry(int index) {
+        ZipEntry entry = new ZipEntry(mNames[index]);
+        int method = getMethod(index);
+        if (method == ZipEntry.STORED || method == ZipEntry.DEFLATED) entry.setMethod(method);
+        entry.setTime(getTime(index));
+        entry.setCrc(getCrc(index));
+        entry.setSize(mSizes[index]);
+        entry.setCompressedSize(mCompressedSizes[index]);
+        if (mComments[index] != null) entry.setComment(mComments[index]);
+        return entry;
+    }
+
+    /**
+     * 全部条目名称, 按压缩文件中的顺序排列
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(Arrays.asList(mNames));
+    }
+
+    /**
+     * 全部条目注释, 按压缩文件中的顺序排列
+     */
+    public List<String> getComments() {
+        return new ArrayList<>(Arrays.asList(mComments));
+    }
+
+    /**
+     * 全部条目, 按压缩文件中的顺序排列
+     */
+    public List<ZipEntry> getEntries() {
+        List<ZipEntry> entries = new ArrayList<>(mNames.length);
+        for (int i = 0; i < mNames.length; i++) {
+            entries.add(getEntry(i));
+        }
+        return entries;
+    }
+
+    /**
+     * 按名称查找条目
+     *
+     * @param name 条目名称
+     * @return 条目序号, 不存在时返回 -1
+     */
+    public int find(String name) {
+        int i = lowerBound(name);
+        return i < mSorted.length && mNames[mSorted[i]].equals(name) ? mSorted[i] : -1;
+    }
+
+    /**
+     * 查找名称以指定前缀开头的条目, 如 "assets/" 查找该目录下的全部条目
+     *
+     * @param prefix 前缀
+     * @return 条目序号, 按名称排序
+     */
+    public int[] findByPrefix(String prefix) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < mSorted.length && mNames[mSorted[to]].startsWith(prefix)) {
+            to++;
+        }
+        return Arrays.copyOfRange(mSorted, from, to);
+    }
+
+    /**
+     * 查找名称匹配通配符的条目
+     * <p>"*" 匹配除 "/" 外的任意字符, "**" 匹配任意字符, "?" 匹配除 "/" 外的单个字符</p>
+     *
+     * @param glob 通配符, 如 "res/*.png"、"assets/**.json"
+     * @return 条目序号, 按名称排序
+     */
+    public int[] findByGlob(String glob) {
+        // 通配符之前的部分作为前缀缩小查找范围
+        int wildcard = 0;
+        while (wildcard < glob.length() && glob.charAt(wildcard) != '*' && glob.charAt(wildcard) != '?') {
+            wildcard++;
+        }
+        int[] candidates = findByPrefix(glob.substring(0, wildcard));
+        if (wildcard == glob.length()) {
+            int index = find(glob);
+            return index < 0 ? new int[0] : new int[]{index};
+        }
+        Pattern pattern = globToPattern(glob);
+        int[] result = new int[candidates.length];
+        int count = 0;
+        for (int index : candidates) {
+            if (pattern.matcher(mNames[index]).matches()) result[count++] = index;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 查找文件名 (不含路径) 带有关键字的条目, 忽略大小写, 规则与 {@link org.camel.utilslibrary.ZipUtils#unzipFileByKeyword} 相同
+     *
+     * @param keyword 关键字, 为空时返回全部条目
+     * @return 条目序号, 按压缩文件中的顺序排列
+     */
+    public int[] findByKeyword(String keyword) {
+        int[] result = new int[mNames.length];
+        int count = 0;
+        String lowerKeyword = keyword == null ? "" : keyword.toLowerCase();
+        for (int i = 0; i < mNames.length; i++) {
+            String name = mNames[i];
+            if (lowerKeyword.length() == 0
+                    || name.substring(name.lastIndexOf('/') + 1).toLowerCase().contains(lowerKeyword)) {
+                result[count++] = i;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 解压单个条目到文件, 并校验 CRC
+     *
+     * @param index 条目序号
+     * @param dest  目标文件, 父文件夹需已存在
+     * @throws IOException IO错误或数据校验失败时抛出
+     */
+    public void extract(int index, File dest) throws IOException {
+        FileOutputStream fos = new FileOutputStream(dest);
+        try {
+            extract(index, fos);
+        } finally {
+            IOUtils.close(fos);
+        }
+    }
+
+    /**
+     * 解压单个条目到输出流, 并校验 CRC, 不关闭输出流
+     *
+     * @param index 条目序号
+     * @param out   输出流
+     * @throws IOException IO错误或数据校验失败时抛出
+     */
+    public void extract(int index, OutputStream out) throws IOException {
+        int method = getMethod(index);
+        if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED)
+            throw new ZipException("Unsupported compression method: " + method);
+        RandomAccessFile raf = new RandomAccessFile(mFile, "r");
+        Inflater inflater = null;
+        try {
+            FileChannel channel = raf.getChannel();
+            long position = getDataOffset(channel, index);
+            long remaining = mCompressedSizes[index];
+            byte[] input = new byte[(int) Math.min(Math.max(remaining, 1), 64 * 1024)];
+            CRC32 crc = new CRC32();
+            long size = 0;
+            if (method == ZipEntry.STORED) {
+                while (remaining > 0) {
+                    int len = read(channel, input, position, remaining);
+                    position += len;
+                    remaining -= len;
+                    crc.update(input, 0, len);
+                    out.write(input, 0, len);
+                    size += len;
+                }
+            } else {
+                inflater = new Inflater(true);
+                byte[] output = new byte[64 * 1024];
+                boolean padded = false;
+                while (!inflater.finished()) {
+                    if (inflater.needsInput()) {
+                        if (remaining > 0) {
+                            int len = read(channel, input, position, remaining);
+                            position += len;
+                            remaining -= len;
+                            inflater.setInput(input, 0, len);
+                        } else if (!padded) {
+                            // 部分 zlib 实现需要在原始数据之后额外提供一个字节
+                            padded = true;
+                            inflater.setInput(new byte[1]);
+                        } else {
+                            throw new ZipException("Truncated entry: " + mNames[index]);
+                        }
+                    }
+                    int n = inflater.inflate(output);
+                    if (n > 0) {
+                        crc.update(output, 0, n);
+                        out.write(output, 0, n);
+                        size += n;
+                    } else if (inflater.needsDictionary()) {
+                        throw new ZipException("Invalid entry data: " + mNames[index]);
+                    }
+                }
+            }
+            if (size != mSizes[index] || crc.getValue() != getCrc(index))
+                throw new ZipException("Invalid entry crc or size: " + mNames[index]);
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid entry data: " + mNames[index]);
+        } finally {
+            if (inflater != null) inflater.end();
+            IOUtils.close(raf);
+        }
+    }
+
+    /**
+     * 获取条目数据 (压缩后) 在压缩文件中的起始位置
+     *
+     * @param channel 压缩文件通道
+     * @param index   条目序号
+     * @return 起始位置
+     * @throws IOException IO错误时抛出
+     */
+    public long getDataOffset(FileChannel channel, int index) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, mOffsets[index]);
+        if (header.getInt(0) != LOCAL_HEADER_SIG) throw new ZipException("Invalid local header: " + mNames[index]);
+        return mOffsets[index] + 30 + (header.getShort(26) & 0xffff) + (header.getShort(28) & 0xffff);
+    }
+
+    private int lowerBound(String name) {
+        int low = 0;
+        int high = mSorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mNames[mSorted[mid]].compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString());
+    }
+
+    private static int read(FileChannel channel, byte[] buffer, long position, long remaining) throws IOException {
+        int len = channel.read(ByteBuffer.wrap(buffer, 0, (int) Math.min(remaining, buffer.length)), position);
+        if (len <= 0) throw new ZipException("Unexpected end of zip file");
+        return len;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int len = channel.read(buffer, position);
+            if (len < 0) throw new ZipException("Unexpected end of zip file");
+            position += len;
+        }
+    }
+
+    private static String utf8(byte[] bytes, int offset, int length) {
+        try {
+            return new String(bytes, offset, length, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "ZipIndex{%s, %d entries}", mFile, mNames.length);
+    }
+
+    /**
+     * 压缩文件格式正确, 但使用了索引不支持的 Zip64 或分卷压缩
+     */
+    public static class UnsupportedFormatException extends ZipException {
+
+        public UnsupportedFormatException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package org.camel.utilslibrary.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * <pre>
+ *    author : camel
+ *    github : https://github.com/camelsmith
+ *    date   : 2026/10/18
+ *    desc   : 底层 zip 格式写入器
+ *             直接写入已压缩 (或原样存储) 的条目数据, 不负责压缩, 由调用方决定压缩方式和线程
+ *             条目信息使用 {@link ZipEntry} 描述: CRC 和大小已知时写在本地文件头中, 未知时 (仅限 DEFLATED) 使用数据描述符
+ *
+ *             使用:
+ *             ZipWriter writer = new ZipWriter(channel);
+ *             writer.beginEntry(entry);
+ *             writer.write(compressed);
+ *             writer.endEntry(crc, size);
+ *             writer.finish();
+ *
+ *             注: 1.文件名和注释使用 UTF-8 编码
+ *                 2.不支持 Zip64, 单个条目或整个压缩文件超过 4GB, 或条目超过 65535 个时抛出 ZipException
+ *                 3.非线程安全
+ * </pre>
+ */
+public class ZipWriter implements Closeable {
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_SIG = 0x06054b50;
+    private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    private static final int FLAG_UTF8 = 1 << 11;
+    private static final long MAX_SIZE = 0xffffffffL;
+    private static final int MAX_ENTRIES = 0xffff;
+
+    private final WritableByteChannel mChannel;
+    // 足够容纳最长的文件名加注释
+    private final ByteBuffer mHeader = ByteBuffer.allocate(46 + 0xffff * 2).order(ByteOrder.LITTLE_ENDIAN);
+    private final List<Record> mRecords = new ArrayList<>();
+    private final Calendar mCalendar = Calendar.getInstance();
+    private byte[] mComment = new byte[0];
+    private long mPosition;
+    private Record mCurrent;
+    private long mCurrentWritten;
+    private boolean mFinished;
+
+    /**
+     * @param channel 输出通道, 从当前位置开始写入
+     */
+    public ZipWriter(WritableByteChannel channel) {
+        mChannel = channel;
+    }
+
+    /**
+     * @param out 输出流
+     */
+    public ZipWriter(OutputStream out) {
+        this(Channels.newChannel(out));
+    }
+
+    /**
+     * 设置压缩文件的注释
+     *
+     * @param comment 注释
+     * @throws IllegalArgumentException 注释过长时抛出
+     */
+    public void setComment(String comment) {
+        byte[] bytes = comment == null ? new byte[0] : utf8(comment);
+        if (bytes.length > 0xffff) throw new IllegalArgumentException("Comment too long");
+        mComment = bytes;
+    }
+
+    /**
+     * 已写入的条目数
+     */
+    public int getEntryCount() {
+        return mRecords.size();
+    }
+
+    /**
+     * 已写入的字节数
+     */
+    public long getBytesWritten() {
+        return mPosition;
+    }
+
+    /**
+     * 开始写入条目, 写入本地文件头
+     * <p>entry 的 CRC、原始大小和压缩后大小均已知时直接写入文件头, 否则在 {@link #endEntry} 时写入数据描述符</p>
+     *
+     * @param entry 条目信息, 未设置压缩方式时默认为 DEFLATED
+     * @throws IOException IO错误时抛出
+     */
+    public void beginEntry(ZipEntry entry) throws IOException {
+        if (mFinished) throw new ZipException("ZipWriter already finished");
+        if (mCurrent != null) throw new ZipException("Previous entry not ended");
+        if (mRecords.size() >= MAX_ENTRIES) throw new ZipException("Too many entries, Zip64 is not supported");
+        Record record = new Record();
+        record.name = utf8(entry.getName());
+        record.comment = entry.getComment() == null ? new byte[0] : utf8(entry.getComment());
+        if (record.name.length > 0xffff || record.comment.length > 0xffff)
+            throw new ZipException("Entry name or comment too long");
+        record.method = entry.getMethod() == -1 ? ZipEntry.DEFLATED : entry.getMethod();
+        record.dosTime = toDosTime(entry.getTime() == -1 ? System.currentTimeMillis() : entry.getTime());
+        record.offset = mPosition;
+        record.flags = FLAG_UTF8;
+        if (entry.getCrc() != -1 && entry.getSize() != -1 && entry.getCompressedSize() != -1) {
+            record.crc = entry.getCrc();
+            record.size = entry.getSize();
+            record.compressedSize = entry.getCompressedSize();
+        } else if (record.method == ZipEntry.DEFLATED) {
+            record.flags |= FLAG_DATA_DESCRIPTOR;
+        } else {
+            throw new ZipException("STORED entry requires crc and size: " + entry.getName());
+        }
+        checkSize(record.offset);
+        checkSize(record.size);
+        checkSize(record.compressedSize);
+
+        ByteBuffer header = mHeader;
+        header.clear();
+        header.putInt(LOCAL_HEADER_SIG);
+        header.putShort((short) versionNeeded(record.method));
+        header.putShort((short) record.flags);
+        header.putShort((short) record.method);
+        header.putInt((int) record.dosTime);
+        header.putInt((int) record.crc);
+        header.putInt((int) record.compressedSize);
+        header.putInt((int) record.size);
+        header.putShort((short) record.name.length);
+        header.putShort((short) 0);
+        header.put(record.name);
+        header.flip();
+        writeFully(header);
+        mCurrent = record;
+        mCurrentWritten = 0;
+    }
+
+    /**
+     * 写入当前条目的数据, 数据须已按条目的压缩方式处理
+     *
+     * @param data 数据, 写入 position 到 limit 之间的内容
+     * @throws IOException IO错误时抛出
+     */
+    public void write(ByteBuffer data) throws IOException {
+        if (mCurrent == null) throw new ZipException("No current entry");
+        mCurrentWritten += data.remaining();
+        writeFully(data);
+    }
+
+    /**
+     * 写入当前条目的数据, 数据须已按条目的压缩方式处理
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @throws IOException IO错误时抛出
+     */
+    public void write(byte[] data, int offset, int length) throws IOException {
+        write(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * 从文件通道直接传输当前条目的数据, 可利用系统的零拷贝, 适用于原样存储的条目或拷贝已压缩的数据
+     *
+     * @param source   文件通道
+     * @param position 起始位置
+     * @param count    长度
+     * @throws IOException IO错误时抛出
+     */
+    public void transferFrom(FileChannel source, long position, long count) throws IOException {
+        if (mCurrent == null) throw new ZipException("No current entry");
+        long end = position + count;
+        while (position < end) {
+            long len = source.transferTo(position, end - position, mChannel);
+            if (len <= 0) {
+                if (position >= source.size()) throw new ZipException("Unexpected end of source");
+                // 部分通道不支持 transferTo, 退回普通读写
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - position, 64 * 1024));
+                len = source.read(buffer, position);
+                if (len <= 0) throw new ZipException("Unexpected end of source");
+                buffer.flip();
+                writeFully(buffer);
+            } else {
+                mPosition += len;
+            }
+            position += len;
+        }
+        mCurrentWritten += count;
+    }
+
+    /**
+     * 结束当前条目
+     *
+     * @param crc  原始数据的 CRC32
+     * @param size 原始数据大小
+     * @throws IOException IO错误时抛出
+     */
+    public void endEntry(long crc, long size) throws IOException {
+        Record record = mCurrent;
+        if (record == null) throw new ZipException("No current entry");
+        mCurrent = null;
+        if ((record.flags & FLAG_DATA_DESCRIPTOR) != 0) {
+            record.crc = crc;
+            record.size = size;
+            record.compressedSize = mCurrentWritten;
+            checkSize(record.size);
+            checkSize(record.compressedSize);
+            ByteBuffer header = mHeader;
+            header.clear();
+            header.putInt(DATA_DESCRIPTOR_SIG);
+            header.putInt((int) crc);
+            header.putInt((int) record.compressedSize);
+            header.putInt((int) size);
+            header.flip();
+            writeFully(header);
+        } else if (record.compressedSize != mCurrentWritten || record.crc != crc || record.size != size) {
+            throw new ZipException("Entry data does not match declared crc or size");
+        }
+        mRecords.add(record);
+    }
+
+    /**
+     * 写入完整的条目, entry 须已设置 CRC、原始大小和压缩后大小
+     *
+     * @param entry  条目信息
+     * @param data   已处理的条目数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @throws IOException IO错误时抛出
+     */
+    public void writeEntry(ZipEntry entry, byte[] data, int offset, int length) throws IOException {
+        beginEntry(entry);
+        write(data, offset, length);
+        endEntry(entry.getCrc(), entry.getSize());
+    }
+
+    /**
+     * 写入中央目录和结束记录, 之后不能再写入条目
+     *
+     * @throws IOException IO错误时抛出
+     */
+    public void finish() throws IOException {
+        if (mFinished) return;
+        if (mCurrent != null) throw new ZipException("Current entry not ended");
+        long start = mPosition;
+        ByteBuffer header = mHeader;
+        header.clear();
+        for (Record record : mRecords) {
+            if (header.remaining() < 46 + record.name.length + record.comment.length) {
+                header.flip();
+                writeFully(header);
+                header.clear();
+            }
+            header.putInt(CENTRAL_HEADER_SIG);
+            header.putShort((short) 20);
+            header.putShort((short) versionNeeded(record.method));
+            header.putShort((short) record.flags);
+            header.putShort((short) record.method);
+            header.putInt((int) record.dosTime);
+            header.putInt((int) record.crc);
+            header.putInt((int) record.compressedSize);
+            header.putInt((int) record.size);
+            header.putShort((short) record.name.length);
+            header.putShort((short) 0);
+            header.putShort((short) record.comment.length);
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putInt(0);
+            header.putInt((int) record.offset);
+            header.put(record.name);
+            header.put(record.comment);
+        }
+        if (header.position() > 0) {
+            header.flip();
+            writeFully(header);
+        }
+        long size = mPosition - start;
+        checkSize(start);
+        checkSize(size);
+        header.clear();
+        header.putInt(END_SIG);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) mRecords.size());
+        header.putShort((short) mRecords.size());
+        header.putInt((int) size);
+        header.putInt((int) start);
+        header.putShort((short) mComment.length);
+        header.put(mComment);
+        header.flip();
+        writeFully(header);
+        mFinished = true;
+    }
+
+    /**
+     * 结束写入并关闭输出通道
+     *
+     * @throws IOException IO错误时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            mChannel.close();
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            mPosition += mChannel.write(buffer);
+        }
+    }
+
+    private long toDosTime(long time) {
+        Calendar calendar = mCalendar;
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) return (1 << 21) | (1 << 16);
+        return ((long) (year - 1980) << 25)
+                | ((calendar.get(Calendar.MONTH) + 1) << 21)
+                | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+                | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+                | (calendar.get(Calendar.MINUTE) << 5)
+                | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private static int versionNeeded(int method) {
+        return method == ZipEntry.STORED ? 10 : 20;
+    }
+
+    private static void checkSize(long size) throws ZipException {
+        if (size > MAX_SIZE) throw new ZipException("Archive too large, Zip64 is not supported");
+    }
+
+    private static byte[] utf8(String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class Record {
+        byte[] name;
+        byte[] comment;
+        int method;
+        int flags;
+        long dosTime;
+        long crc;
+        long size;
+        long compressedSize;
+        long offset;
+    }
+}
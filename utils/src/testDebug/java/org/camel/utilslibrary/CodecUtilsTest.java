@@ -0,0 +1,54 @@
+package org.camel.utilslibrary;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+public class CodecUtilsTest {
+
+    @Test
+    public void hex() throws Exception {
+        byte[] bytes = new byte[]{0x00, 0x1f, (byte) 0xab, (byte) 0xff};
+        Truth.assertThat(CodecUtils.bytes2HexString(bytes)).isEqualTo("001FABFF");
+        Truth.assertThat(CodecUtils.hexString2Bytes("001fAbFF")).isEqualTo(bytes);
+        Truth.assertThat(CodecUtils.hexString2Bytes("F")).isEqualTo(new byte[]{0x0f});
+        Truth.assertThat(CodecUtils.hexString2Bytes("0G")).isNull();
+
+        char[] chars = new char[10];
+        Truth.assertThat(CodecUtils.encodeHex(bytes, 1, 2, chars, 3)).isEqualTo(4);
+        Truth.assertThat(new String(chars, 3, 4)).isEqualTo("1FAB");
+    }
+
+    @Test
+    public void base64() throws Exception {
+        String[] plain = {"", "f", "fo", "foo", "foob", "fooba", "foobar"};
+        String[] encoded = {"", "Zg==", "Zm8=", "Zm9v", "Zm9vYg==", "Zm9vYmE=", "Zm9vYmFy"};
+        for (int i = 0; i < plain.length; i++) {
+            Truth.assertThat(CodecUtils.base64Encode2String(plain[i].getBytes(), false)).isEqualTo(encoded[i]);
+            Truth.assertThat(CodecUtils.base64Decode(encoded[i].getBytes())).isEqualTo(plain[i].getBytes());
+        }
+        Truth.assertThat(CodecUtils.base64Decode("Zm9vYg".getBytes())).isEqualTo("foob".getBytes());
+        Truth.assertThat(CodecUtils.base64Decode("Zm9v*".getBytes())).isNull();
+    }
+
+    @Test
+    public void base64Stream() throws Exception {
+        byte[] data = new byte[100003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        Truth.assertThat(CodecUtils.base64Encode(new ByteArrayInputStream(data), encoded, true)).isTrue();
+        Truth.assertThat(encoded.toString()).isEqualTo(CodecUtils.base64Encode2String(data, true));
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        Truth.assertThat(CodecUtils.base64Decode(new ByteArrayInputStream(encoded.toByteArray()), decoded)).isTrue();
+        Truth.assertThat(decoded.toByteArray()).isEqualTo(data);
+    }
+}
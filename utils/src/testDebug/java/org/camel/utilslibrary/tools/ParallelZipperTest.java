@@ -0,0 +1,321 @@
+package org.camel.utilslibrary.tools;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+public class ParallelZipperTest {
+
+    private static final int BLOCK = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+    private File mRoot;
+    private final Map<String, byte[]> mExpected = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        mRoot = mFolder.newFolder("root");
+        Random random = new Random(42);
+        put("root/empty.txt", new byte[0]);
+        put("root/small.txt", text(random, 1000));
+        put("root/block.txt", text(random, BLOCK));
+        put("root/block1.txt", text(random, BLOCK + 1));
+        put("root/sub/large.txt", text(random, 5 * BLOCK + 12345));
+        put("root/sub/random.bin", bytes(random, 3 * BLOCK + 7));
+        put("root/sub/small.bin", bytes(random, 2000));
+        new File(mRoot, "emptyDir").mkdirs();
+    }
+
+    @Test
+    public void zip() throws Exception {
+        int[] blockSizes = {BLOCK, 100 * 1024, 1024 * 1024};
+        int[] threadCounts = {1, 3};
+        CompressionPolicy[] policies = {null, CompressionPolicy.auto(Deflater.DEFAULT_COMPRESSION),
+                CompressionPolicy.deflateAll(Deflater.BEST_SPEED).addStoredExtensions("bin")};
+        for (int blockSize : blockSizes) {
+            for (int threadCount : threadCounts) {
+                for (CompressionPolicy policy : policies) {
+                    for (boolean split : new boolean[]{true, false}) {
+                        ParallelZipper zipper = new ParallelZipper()
+                                .setBlockSize(blockSize)
+                                .setThreadCount(threadCount)
+                                .setBufferSize(10000)
+                                .setCompressionPolicy(policy);
+                        zipper.mSplitBlocks = split;
+                        File zipFile = new File(mFolder.getRoot(), "out.zip");
+                        Truth.assertThat(zipper.zip(Collections.singletonList(mRoot), zipFile)).isTrue();
+                        Map<String, ZipEntry> entries = verify(zipFile);
+                        if (policy != null && policy.isStoredByName("small.bin")) {
+                            Truth.assertThat(entries.get("root/sub/random.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+                            Truth.assertThat(entries.get("root/sub/small.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+                        }
+                        Truth.assertThat(entries.get("root/sub/large.txt").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void zipStream() throws Exception {
+        ParallelZipper zipper = new ParallelZipper().setBlockSize(BLOCK).setComment("comment");
+        zipper.mSplitBlocks = true;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Truth.assertThat(zipper.zip(Collections.singletonList(mRoot), out)).isTrue();
+        File zipFile = new File(mFolder.getRoot(), "stream.zip");
+        FileOutputStream fos = new FileOutputStream(zipFile);
+        fos.write(out.toByteArray());
+        fos.close();
+        verify(zipFile);
+        ZipFile zip = new ZipFile(zipFile);
+        Truth.assertThat(zip.getComment()).isEqualTo("comment");
+        zip.close();
+    }
+
+    @Test
+    public void zipWriter() throws Exception {
+        Random random = new Random(7);
+        byte[] stored = bytes(random, 5000);
+        byte[] deflated = text(random, 20000);
+        File zipFile = new File(mFolder.getRoot(), "writer.zip");
+        FileOutputStream fos = new FileOutputStream(zipFile);
+        ZipWriter writer = new ZipWriter(fos.getChannel());
+        writer.setComment("writer");
+
+        ZipEntry entry = new ZipEntry("stored.bin");
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(stored.length);
+        entry.setCompressedSize(stored.length);
+        entry.setCrc(crc(stored, 0, stored.length));
+        writer.writeEntry(entry, stored, 0, stored.length);
+
+        // 大小未知时使用数据描述符, 分两段写入
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(deflated);
+        deflater.finish();
+        byte[] buffer = new byte[deflated.length + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        deflater.end();
+        writer.beginEntry(new ZipEntry("dir/deflated.txt"));
+        writer.write(buffer, 0, length / 2);
+        writer.write(buffer, length / 2, length - length / 2);
+        writer.endEntry(crc(deflated, 0, deflated.length), deflated.length);
+
+        ZipEntry dir = new ZipEntry("dir/");
+        dir.setMethod(ZipEntry.STORED);
+        dir.setSize(0);
+        dir.setCompressedSize(0);
+        dir.setCrc(0);
+        writer.writeEntry(dir, new byte[0], 0, 0);
+        writer.finish();
+        fos.close();
+
+        ZipFile zip = new ZipFile(zipFile);
+        Truth.assertThat(zip.size()).isEqualTo(3);
+        Truth.assertThat(zip.getComment()).isEqualTo("writer");
+        Truth.assertThat(read(zip, zip.getEntry("stored.bin"))).isEqualTo(stored);
+        Truth.assertThat(zip.getEntry("stored.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+        Truth.assertThat(read(zip, zip.getEntry("dir/deflated.txt"))).isEqualTo(deflated);
+        Truth.assertThat(zip.getEntry("dir/").isDirectory()).isTrue();
+        zip.close();
+    }
+
+    @Test
+    public void update() throws Exception {
+        File zipFile = new File(mFolder.getRoot(), "update.zip");
+        ParallelZipper zipper = new ParallelZipper().setBlockSize(BLOCK).setLevel(Deflater.BEST_COMPRESSION);
+        zipper.mSplitBlocks = true;
+        Truth.assertThat(zipper.zip(Collections.singletonList(mRoot), zipFile)).isTrue();
+        ZipIndex before = ZipIndex.open(zipFile);
+
+        Random random = new Random(9);
+        // 大小变化
+        put("root/small.txt", text(random, 1500));
+        // 大小和修改时间不变, 内容变化, 由 CRC 校验发现
+        File block = new File(mFolder.getRoot(), "root/block.txt");
+        long lastModified = block.lastModified();
+        put("root/block.txt", text(random, BLOCK));
+        Truth.assertThat(block.setLastModified(lastModified)).isTrue();
+        // 新增和删除
+        put("root/sub/added.txt", text(random, 3 * BLOCK));
+        Truth.assertThat(new File(mFolder.getRoot(), "root/sub/small.bin").delete()).isTrue();
+        mExpected.remove("root/sub/small.bin");
+
+        // 以不同的压缩级别更新, 直接拷贝的条目保持原来的压缩大小
+        ParallelZipper updater = new ParallelZipper().setBlockSize(BLOCK).setLevel(Deflater.BEST_SPEED);
+        updater.mSplitBlocks = true;
+        Truth.assertThat(updater.update(Collections.singletonList(mRoot), zipFile)).isTrue();
+        verify(zipFile);
+        ZipIndex after = ZipIndex.open(zipFile);
+        for (String name : new String[]{"root/sub/large.txt", "root/block1.txt", "root/sub/random.bin"}) {
+            Truth.assertWithMessage(name).that(after.getCompressedSize(after.find(name)))
+                    .isEqualTo(before.getCompressedSize(before.find(name)));
+        }
+        Truth.assertThat(after.find("root/sub/small.bin")).isEqualTo(-1);
+    }
+
+    @Test
+    public void updateEncryptedEntry() throws Exception {
+        File zipFile = new File(mFolder.getRoot(), "encrypted.zip");
+        Truth.assertThat(new ParallelZipper().zip(Collections.singletonList(mRoot), zipFile)).isTrue();
+        // 将条目标记为加密, 并改写数据模拟密文
+        ZipIndex index = ZipIndex.open(zipFile);
+        int entry = index.find("root/sub/large.txt");
+        RandomAccessFile raf = new RandomAccessFile(zipFile, "rw");
+        byte[] bytes = new byte[(int) raf.length()];
+        raf.readFully(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int local = (int) index.getLocalHeaderOffset(entry);
+        int data = (int) index.getDataOffset(raf.getChannel(), entry);
+        for (int i = 0; i < 12; i++) {
+            bytes[data + i] ^= 0x5a;
+        }
+        buffer.putShort(local + 6, (short) (buffer.getShort(local + 6) | 1));
+        byte[] name = "root/sub/large.txt".getBytes("UTF-8");
+        for (int i = 0; i + 46 + name.length <= bytes.length; i++) {
+            if (buffer.getInt(i) == 0x02014b50 && buffer.getInt(i + 42) == local) {
+                buffer.putShort(i + 8, (short) (buffer.getShort(i + 8) | 1));
+            }
+        }
+        raf.seek(0);
+        raf.write(bytes);
+        raf.close();
+        Truth.assertThat(ZipIndex.open(zipFile).isEncrypted(entry)).isTrue();
+
+        Truth.assertThat(new ParallelZipper().update(Collections.singletonList(mRoot), zipFile)).isTrue();
+        verify(zipFile);
+        index = ZipIndex.open(zipFile);
+        for (int i = 0; i < index.size(); i++) {
+            Truth.assertWithMessage(index.getName(i)).that(index.getFlags(i) & 1).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void crc32Combine() throws Exception {
+        Random random = new Random(1);
+        byte[] data = bytes(random, 100000);
+        int[] splits = {0, 1, 2, 3, 31, 32, 33, 1000, 65536, 99999, 100000};
+        for (int split : splits) {
+            long crc1 = crc(data, 0, split);
+            long crc2 = crc(data, split, data.length - split);
+            Truth.assertThat(ParallelZipper.crc32Combine(crc1, crc2, data.length - split))
+                    .isEqualTo(crc(data, 0, data.length));
+        }
+        for (int i = 0; i < 100; i++) {
+            int split = random.nextInt(data.length + 1);
+            long combined = ParallelZipper.crc32Combine(crc(data, 0, split), crc(data, split, data.length - split),
+                    data.length - split);
+            Truth.assertThat(combined).isEqualTo(crc(data, 0, data.length));
+        }
+    }
+
+    /**
+     * 使用 ZipFile 读取并比较全部条目
+     */
+    private Map<String, ZipEntry> verify(File zipFile) throws Exception {
+        Map<String, ZipEntry> entries = new HashMap<>();
+        ZipFile zip = new ZipFile(zipFile);
+        try {
+            Enumeration<? extends ZipEntry> enumeration = zip.entries();
+            while (enumeration.hasMoreElements()) {
+                ZipEntry entry = enumeration.nextElement();
+                entries.put(entry.getName(), entry);
+                if (entry.isDirectory()) continue;
+                byte[] expected = mExpected.get(entry.getName());
+                Truth.assertWithMessage(entry.getName()).that(expected).isNotNull();
+                Truth.assertWithMessage(entry.getName()).that(read(zip, entry)).isEqualTo(expected);
+                Truth.assertThat(entry.getCrc()).isEqualTo(crc(expected, 0, expected.length));
+            }
+        } finally {
+            zip.close();
+        }
+        List<String> names = new ArrayList<>(mExpected.keySet());
+        names.add("root/emptyDir/");
+        Truth.assertThat(entries.keySet()).containsExactlyElementsIn(names);
+        return entries;
+    }
+
+    private void put(String name, byte[] data) throws Exception {
+        File file = new File(mFolder.getRoot(), name);
+        file.getParentFile().mkdirs();
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write(data);
+        fos.close();
+        mExpected.put(name, data);
+    }
+
+    private static byte[] read(ZipFile zip, ZipEntry entry) throws Exception {
+        InputStream in = zip.getInputStream(entry);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long crc(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+
+    /**
+     * 可压缩的文本数据
+     */
+    private static byte[] text(Random random, int size) {
+        String[] words = {"zip ", "deflate ", "block ", "camel ", "utils ", "parallel ", "\n"};
+        byte[] data = new byte[size];
+        int i = 0;
+        while (i < size) {
+            byte[] word = words[random.nextInt(words.length)].getBytes();
+            for (int j = 0; j < word.length && i < size; j++) {
+                data[i++] = word[j];
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 不可压缩的随机数据
+     */
+    private static byte[] bytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,115 @@
+package org.camel.utilslibrary.tools;
+
+import com.google.common.truth.Truth;
+
+import org.camel.utilslibrary.module.RecordBatch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+public class RecordCipherTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes();
+
+    @Test
+    public void roundTrip() throws Exception {
+        RecordCipher cipher = new RecordCipher(KEY);
+        byte[] record = "record".getBytes();
+        byte[] sealed = cipher.encrypt(record);
+        Truth.assertThat(sealed.length).isEqualTo(RecordCipher.NONCE_LENGTH + record.length + RecordCipher.TAG_LENGTH);
+        Truth.assertThat(cipher.decrypt(sealed)).isEqualTo(record);
+        Truth.assertThat(cipher.decrypt(new byte[0])).isNull();
+
+        byte[] aad = "header".getBytes();
+        sealed = cipher.encrypt(record, aad);
+        Truth.assertThat(cipher.decrypt(sealed, aad)).isEqualTo(record);
+        Truth.assertThat(cipher.decrypt(sealed)).isNull();
+        sealed[RecordCipher.NONCE_LENGTH] ^= 1;
+        Truth.assertThat(cipher.decrypt(sealed, aad)).isNull();
+    }
+
+    @Test
+    public void batch() throws Exception {
+        RecordCipher cipher = new RecordCipher(KEY);
+        byte[][] records = new byte[50][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new byte[i * 7];
+            Arrays.fill(records[i], (byte) i);
+        }
+        RecordBatch sealed = cipher.encryptBatch(records);
+        Truth.assertThat(sealed.size()).isEqualTo(records.length);
+        Set<String> nonces = new HashSet<>();
+        for (int i = 0; i < sealed.size(); i++) {
+            nonces.add(Arrays.toString(Arrays.copyOf(sealed.getRecord(i), RecordCipher.NONCE_LENGTH)));
+            // 批量加密的记录可以单独解密
+            Truth.assertThat(cipher.decrypt(sealed.getRecord(i))).isEqualTo(records[i]);
+        }
+        Truth.assertThat(nonces).hasSize(records.length);
+
+        RecordBatch opened = cipher.decryptBatch(sealed);
+        for (int i = 0; i < records.length; i++) {
+            Truth.assertThat(opened.getRecord(i)).isEqualTo(records[i]);
+        }
+        opened = cipher.decryptBatch(cipher.encryptBatch(RecordBatch.of(records)));
+        for (int i = 0; i < records.length; i++) {
+            Truth.assertThat(opened.getRecord(i)).isEqualTo(records[i]);
+        }
+
+        sealed.getData()[sealed.getOffset(10) + RecordCipher.NONCE_LENGTH] ^= 1;
+        Truth.assertThat(cipher.decryptBatch(sealed)).isNull();
+    }
+
+    @Test
+    public void batchNullRecord() throws Exception {
+        try {
+            new RecordCipher(KEY).encryptBatch(new byte[1], null);
+            Truth.assert_().fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void nonceCarry() throws Exception {
+        RecordCipher cipher = new RecordCipher(KEY, 5, -2L, 0);
+        byte[][] sealed = {cipher.encrypt(new byte[0]), cipher.encrypt(new byte[0]), cipher.encrypt(new byte[0])};
+        Truth.assertThat(Arrays.copyOf(sealed[0], RecordCipher.NONCE_LENGTH)).isEqualTo(
+                nonce(0x00000005, 0xFFFFFFFF, 0xFFFFFFFE));
+        Truth.assertThat(Arrays.copyOf(sealed[1], RecordCipher.NONCE_LENGTH)).isEqualTo(
+                nonce(0x00000005, 0xFFFFFFFF, 0xFFFFFFFF));
+        Truth.assertThat(Arrays.copyOf(sealed[2], RecordCipher.NONCE_LENGTH)).isEqualTo(
+                nonce(0x00000006, 0x00000000, 0x00000000));
+        for (byte[] record : sealed) {
+            Truth.assertThat(cipher.decrypt(record)).isEqualTo(new byte[0]);
+        }
+
+        cipher = new RecordCipher(KEY, -1, -1L, 0);
+        cipher.encrypt(new byte[0]);
+        Truth.assertThat(Arrays.copyOf(cipher.encrypt(new byte[0]), RecordCipher.NONCE_LENGTH)).isEqualTo(
+                nonce(0x00000000, 0x00000000, 0x00000000));
+    }
+
+    @Test
+    public void maxRecords() throws Exception {
+        RecordCipher cipher = new RecordCipher(KEY, 0, 0, RecordCipher.MAX_RECORDS_PER_KEY - 1);
+        byte[] sealed = cipher.encrypt(new byte[3]);
+        Truth.assertThat(sealed).isNotNull();
+        Truth.assertThat(cipher.decrypt(sealed)).isEqualTo(new byte[3]);
+        Truth.assertThat(cipher.encrypt(new byte[3])).isNull();
+        Truth.assertThat(cipher.encryptBatch(new byte[1], new byte[2])).isNull();
+        // 解密不受限制
+        Truth.assertThat(cipher.decrypt(sealed)).isEqualTo(new byte[3]);
+    }
+
+    private static byte[] nonce(int... words) {
+        byte[] nonce = new byte[words.length * 4];
+        for (int i = 0; i < nonce.length; i++) {
+            nonce[i] = (byte) (words[i / 4] >>> (24 - i % 4 * 8));
+        }
+        return nonce;
+    }
+}
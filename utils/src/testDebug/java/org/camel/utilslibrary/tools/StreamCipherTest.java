@@ -0,0 +1,172 @@
+package org.camel.utilslibrary.tools;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+public class StreamCipherTest {
+
+    private static final byte[] KEY = "0123456789abcdef".getBytes();
+    private static final String[] TRANSFORMATIONS = {
+            "AES/CBC/PKCS5Padding", "AES/CTR/NoPadding", "AES/GCM/NoPadding"};
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void file() throws Exception {
+        byte[] data = data(200003);
+        File plain = mFolder.newFile("plain");
+        write(plain, data);
+        for (String transformation : TRANSFORMATIONS) {
+            File encrypted = new File(mFolder.getRoot(), "encrypted");
+            File decrypted = new File(mFolder.getRoot(), "decrypted");
+            StreamCipher cipher = new StreamCipher("AES", transformation, KEY).setBufferSize(4096);
+            Truth.assertThat(cipher.encrypt(plain, encrypted)).isTrue();
+            Truth.assertThat(read(encrypted)).isNotEqualTo(data);
+            Truth.assertThat(cipher.decrypt(encrypted, decrypted)).isTrue();
+            Truth.assertThat(read(decrypted)).isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void stream() throws Exception {
+        for (String transformation : TRANSFORMATIONS) {
+            for (int size : new int[]{0, 1, 15, 16, 17, 65536, 100001}) {
+                byte[] data = data(size);
+                StreamCipher cipher = new StreamCipher("AES", transformation, KEY);
+                ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+                Truth.assertThat(cipher.encrypt(new ByteArrayInputStream(data), encrypted)).isTrue();
+                ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+                Truth.assertThat(cipher.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted))
+                        .isTrue();
+                Truth.assertThat(decrypted.toByteArray()).isEqualTo(data);
+            }
+        }
+    }
+
+    @Test
+    public void channel() throws Exception {
+        byte[] data = data(70000);
+        for (String transformation : TRANSFORMATIONS) {
+            StreamCipher cipher = new StreamCipher("AES", transformation, KEY).setBufferSize(1000);
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            Truth.assertThat(cipher.encrypt(Channels.newChannel(new ByteArrayInputStream(data)),
+                    Channels.newChannel(encrypted))).isTrue();
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            Truth.assertThat(cipher.decrypt(Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+                    Channels.newChannel(decrypted))).isTrue();
+            Truth.assertThat(decrypted.toByteArray()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void randomIv() throws Exception {
+        byte[] data = data(100);
+        for (String transformation : TRANSFORMATIONS) {
+            StreamCipher cipher = new StreamCipher("AES", transformation, KEY);
+            ByteArrayOutputStream first = new ByteArrayOutputStream();
+            ByteArrayOutputStream second = new ByteArrayOutputStream();
+            cipher.encrypt(new ByteArrayInputStream(data), first);
+            cipher.encrypt(new ByteArrayInputStream(data), second);
+            Truth.assertThat(first.toByteArray()).isNotEqualTo(second.toByteArray());
+        }
+    }
+
+    @Test
+    public void gcmTamperedTag() throws Exception {
+        byte[] data = data(5000);
+        StreamCipher cipher = new StreamCipher("AES", "AES/GCM/NoPadding", KEY);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        Truth.assertThat(cipher.encrypt(new ByteArrayInputStream(data), encrypted)).isTrue();
+        byte[] bytes = encrypted.toByteArray();
+        bytes[bytes.length - 1] ^= 1;
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        Truth.assertThat(cipher.decrypt(new ByteArrayInputStream(bytes), decrypted)).isFalse();
+        Truth.assertThat(decrypted.toByteArray()).isNotEqualTo(data);
+
+        File src = mFolder.newFile("tampered");
+        write(src, bytes);
+        File dest = new File(mFolder.getRoot(), "out");
+        Truth.assertThat(cipher.decrypt(src, dest)).isFalse();
+        Truth.assertThat(dest.exists()).isFalse();
+    }
+
+    @Test
+    public void fixedIv() throws Exception {
+        byte[] data = data(1000);
+        byte[] iv = new byte[16];
+        StreamCipher cbc = new StreamCipher("AES", "AES/CBC/PKCS5Padding", KEY).setIv(iv);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        Truth.assertThat(cbc.encrypt(new ByteArrayInputStream(data), encrypted)).isTrue();
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        Truth.assertThat(cbc.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted)).isTrue();
+        Truth.assertThat(decrypted.toByteArray()).isEqualTo(data);
+
+        String[] streamModes = {"AES/CTR/NoPadding", "AES/GCM/NoPadding"};
+        for (String transformation : streamModes) {
+            StreamCipher cipher = new StreamCipher("AES", transformation, KEY);
+            encrypted.reset();
+            Truth.assertThat(cipher.encrypt(new ByteArrayInputStream(data), encrypted)).isTrue();
+            byte[] bytes = encrypted.toByteArray();
+            int ivLength = transformation.contains("GCM") ? 12 : 16;
+            byte[] prefix = new byte[ivLength];
+            System.arraycopy(bytes, 0, prefix, 0, ivLength);
+            cipher.setIv(prefix);
+            try {
+                cipher.encrypt(new ByteArrayInputStream(data), new ByteArrayOutputStream());
+                Truth.assertWithMessage(transformation).fail();
+            } catch (IllegalStateException expected) {
+            }
+            // 固定 IV 仍可用于解密
+            decrypted.reset();
+            Truth.assertThat(cipher.decrypt(new ByteArrayInputStream(bytes, ivLength, bytes.length - ivLength),
+                    decrypted)).isTrue();
+            Truth.assertThat(decrypted.toByteArray()).isEqualTo(data);
+        }
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 131 + (i >> 8));
+        }
+        return data;
+    }
+
+    private static void write(File file, byte[] data) throws Exception {
+        FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(data);
+        } finally {
+            fos.close();
+        }
+    }
+
+    private static byte[] read(File file) throws Exception {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = fis.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            fis.close();
+        }
+    }
+}
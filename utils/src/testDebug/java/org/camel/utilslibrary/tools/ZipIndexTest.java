@@ -0,0 +1,165 @@
+package org.camel.utilslibrary.tools;
+
+import com.google.common.truth.Truth;
+
+import org.camel.utilslibrary.ZipUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Created by camel on 26/10/18.
+ */
+public class ZipIndexTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void parse() throws Exception {
+        File zipFile = write("valid.zip", zip(3));
+        ZipIndex index = ZipIndex.open(zipFile);
+        Truth.assertThat(index.size()).isEqualTo(3);
+        Truth.assertThat(index.getComment()).isEqualTo("archive");
+        Truth.assertThat(index.getNames()).containsExactly("dir/file0.txt", "dir/file1.txt", "dir/file2.txt").inOrder();
+        Truth.assertThat(index.getComment(1)).isEqualTo("comment1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.extract(index.find("dir/file2.txt"), out);
+        Truth.assertThat(out.toString()).isEqualTo(content(2));
+    }
+
+    @Test
+    public void malformedLengths() throws Exception {
+        byte[] valid = zip(3);
+        int cd = centralDirectoryOffset(valid);
+        // 文件名、扩展字段、注释长度超出中央目录
+        for (int field : new int[]{28, 30, 32}) {
+            byte[] bytes = valid.clone();
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putShort(cd + field, (short) 0xffff);
+            assertZipException(write("field" + field + ".zip", bytes));
+        }
+        // 本地文件头偏移量超出范围
+        byte[] bytes = valid.clone();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(cd + 42, cd);
+        assertZipException(write("offset.zip", bytes));
+        // 条目数量多于实际条目
+        bytes = valid.clone();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putShort(bytes.length - 22 - 7 + 10, (short) 4);
+        assertZipException(write("count.zip", bytes));
+    }
+
+    @Test
+    public void truncated() throws Exception {
+        byte[] valid = zip(5);
+        for (int length = 0; length < valid.length; length += 7) {
+            byte[] bytes = new byte[length];
+            System.arraycopy(valid, 0, bytes, 0, length);
+            assertZipException(write("truncated.zip", bytes));
+        }
+    }
+
+    @Test
+    public void corrupted() throws Exception {
+        byte[] valid = zip(5);
+        int cd = centralDirectoryOffset(valid);
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            byte[] bytes = valid.clone();
+            int position = cd + random.nextInt(valid.length - cd);
+            bytes[position] = (byte) random.nextInt();
+            File zipFile = write("corrupted.zip", bytes);
+            try {
+                ZipIndex index = ZipIndex.open(zipFile);
+                for (int j = 0; j < index.size(); j++) {
+                    try {
+                        index.extract(j, new ByteArrayOutputStream());
+                    } catch (IOException ignored) {
+                    }
+                }
+            } catch (IOException ignored) {
+                // 只允许抛出 IOException
+            }
+        }
+    }
+
+    @Test
+    public void zip64() throws Exception {
+        // 超过 65535 个条目时 ZipOutputStream 写入 Zip64 结束记录
+        int count = 0x10000 + 5;
+        File zipFile = new File(mFolder.getRoot(), "zip64.zip");
+        ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipFile));
+        for (int i = 0; i < count; i++) {
+            zos.putNextEntry(new ZipEntry("e" + i));
+            zos.closeEntry();
+        }
+        zos.close();
+        try {
+            ZipIndex.open(zipFile);
+            Truth.assert_().fail();
+        } catch (ZipIndex.UnsupportedFormatException expected) {
+        }
+        // ZipUtils 改用 ZipFile 读取
+        List<String> names = ZipUtils.getFilesPath(zipFile);
+        Truth.assertThat(names).hasSize(count);
+        Truth.assertThat(names.get(count - 1)).isEqualTo("e" + (count - 1));
+        Truth.assertThat(ZipUtils.getComments(zipFile)).hasSize(count);
+    }
+
+    private void assertZipException(File zipFile) throws Exception {
+        try {
+            ZipIndex.open(zipFile);
+            Truth.assertWithMessage(zipFile.getName()).fail();
+        } catch (ZipException expected) {
+        }
+    }
+
+    private File write(String name, byte[] bytes) throws Exception {
+        File file = new File(mFolder.getRoot(), name);
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write(bytes);
+        fos.close();
+        return file;
+    }
+
+    private static byte[] zip(int count) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipOutputStream zos = new ZipOutputStream(out);
+        zos.setComment("archive");
+        for (int i = 0; i < count; i++) {
+            ZipEntry entry = new ZipEntry("dir/file" + i + ".txt");
+            entry.setComment("comment" + i);
+            zos.putNextEntry(entry);
+            zos.write(content(i).getBytes());
+            zos.closeEntry();
+        }
+        zos.close();
+        return out.toByteArray();
+    }
+
+    private static String content(int i) {
+        StringBuilder builder = new StringBuilder();
+        for (int j = 0; j < 100; j++) {
+            builder.append("line ").append(i).append(' ').append(j).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 结束记录中的中央目录偏移量, 结束记录之后为 7 字节的注释 "archive"
+     */
+    private static int centralDirectoryOffset(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt(bytes.length - 22 - 7 + 16);
+    }
+}